@@ -0,0 +1,60 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+import com._17od.blackjack.strategy.Strategy;
+import com._17od.blackjack.strategy.StrategyBuilder;
+
+/**
+ * Measures creating a strategy for a new game and player, as the simulator
+ * does for every batch of hands.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+    @Param({"basic", "hilo"})
+    public String strategy;
+
+    private GameRules rules;
+    private StrategyBuilder builder;
+
+    @Setup
+    public void setUp() {
+        rules = new GameRules();
+        if (strategy.equals("basic")) {
+            builder = new BasicStrategyBuilder();
+        } else {
+            builder = new HiLoStrategyBuilder();
+        }
+    }
+
+    @Benchmark
+    public Strategy create() {
+        return builder.create(new Game(rules), new Player());
+    }
+
+}
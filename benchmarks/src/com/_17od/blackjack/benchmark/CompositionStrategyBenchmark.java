@@ -0,0 +1,86 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.SeededShuffler;
+import com._17od.blackjack.Shoe;
+import com._17od.blackjack.strategy.CompositionStrategy;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Measures how long the composition strategy takes to decide what to do with
+ * a pair against a dealer 6 when the move isn't cached, as happens during a
+ * live shoe. A card is dealt to another player before each decision so the
+ * cards left are different every time. It's sampled so the percentiles show
+ * the slowest decisions as well as the average.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositionStrategyBenchmark {
+
+    @Param({"TWO", "EIGHT", "ACE"})
+    public String pair;
+
+    private Game game;
+    private Player otherPlayer;
+    private Shoe shoe;
+    private CompositionStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        game = new Game(rules);
+        Player player = new Player();
+        otherPlayer = new Player();
+        strategy = new CompositionStrategy(game, player);
+        shoe = new Shoe(rules.getNumberOfDecks(), rules.getPenetration(),
+                new SeededShuffler(1));
+
+        // The pair and upcard are left in the cards the strategy sees
+        Rank rank = Rank.valueOf(pair);
+        player.dealCard(Card.valueOf(rank, Suit.CLUBS));
+        player.dealCard(Card.valueOf(rank, Suit.HEARTS));
+        game.getDealer().dealCard(Card.valueOf(Rank.SIX, Suit.SPADES));
+    }
+
+    /**
+     * Deal a card and decide. The shoe is shuffled at the cut card, and as
+     * each shoe is shuffled differently the cards left never repeat.
+     */
+    @Benchmark
+    public DecisionEnum nextDecision() {
+        if (shoe.isCutCardReached()) {
+            shoe.shuffle();
+            game.shoeShuffled();
+        }
+        otherPlayer.getHand().clear();
+        game.deal(shoe.deal(), otherPlayer);
+        return strategy.nextDecision();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.counting.CardCounter;
+import com._17od.blackjack.strategy.HiLoStrategy;
+
+/**
+ * Measures keeping the Hi-Lo count and working out the bet from it.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountingBenchmark {
+
+    private HiLoStrategy strategy;
+    private CardCounter counter;
+    private Card[] cards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        strategy = new HiLoStrategy(new Game(rules), new Player());
+        counter = strategy.getCounter();
+
+        // Half a shoe so the count isn't always zero
+        SplittableRandom random = new SplittableRandom(1);
+        cards = new Card[128];
+        for (int i=0; i<cards.length; i++) {
+            cards[i] = Card.valueOf(random.nextInt(Card.NUMBER_OF_CARDS));
+        }
+        for (int i=0; i<rules.getNumberOfDecks() * 26; i++) {
+            counter.notify(cards[i & (cards.length - 1)]);
+        }
+    }
+
+    /**
+     * Count a card. The count is started again before the shoe would run out.
+     */
+    @Benchmark
+    public void notifyCard() {
+        counter.notify(cards[next]);
+        next = (next + 1) & (cards.length - 1);
+        if (counter.getCardsLeft() < cards.length) {
+            counter.notifyShuffle();
+        }
+    }
+
+    @Benchmark
+    public int amountToBet() {
+        return strategy.amountToBet();
+    }
+
+}
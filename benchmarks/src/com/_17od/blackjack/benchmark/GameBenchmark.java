@@ -0,0 +1,110 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.counting.CardCounter;
+import com._17od.blackjack.counting.CountingSystem;
+
+/**
+ * Measures dealing a card to a player with a number of card counters watching
+ * the game.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    private static final int CARDS_PER_HAND = 4;
+
+    @Param({"0", "1", "4", "16"})
+    public int observers;
+
+    private Game game;
+    private Player player;
+    private Card[] cards;
+    private int shoeSize;
+    private int cardsLeft;
+
+    @Setup
+    public void setUp() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(8);
+        game = new Game(rules);
+        player = new Player();
+
+        // Count in each of the systems in turn
+        CountingSystem[] systems = CountingSystem.values();
+        for (int i=0; i<observers; i++) {
+            game.addCardObserver(new CardCounter(systems[i % systems.length],
+                    rules.getNumberOfDecks()));
+        }
+
+        cards = new Card[CARDS_PER_HAND];
+        for (int i=0; i<cards.length; i++) {
+            cards[i] = Card.valueOf(i * 7);
+        }
+
+        shoeSize = Card.NUMBER_OF_CARDS * rules.getNumberOfDecks();
+        cardsLeft = shoeSize;
+    }
+
+    /**
+     * Deal a hand a card at a time.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_HAND)
+    public void deal() {
+        player.getHand().clear();
+        for (int i=0; i<CARDS_PER_HAND; i++) {
+            game.deal(cards[i], player);
+        }
+        shuffleIfLow();
+    }
+
+    /**
+     * Deal the same hand as a single batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_HAND)
+    public void dealBatch() {
+        player.getHand().clear();
+        game.deal(cards, player);
+        shuffleIfLow();
+    }
+
+    /**
+     * Shuffle when the shoe is down to its last hand, as a table would, so
+     * the counters see most of a shoe between shuffles rather than one a hand
+     * and never run out of cards.
+     */
+    private void shuffleIfLow() {
+        cardsLeft -= CARDS_PER_HAND;
+        if (cardsLeft <= CARDS_PER_HAND) {
+            game.shoeShuffled();
+            cardsLeft = shoeSize;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Hand;
+import com._17od.blackjack.HandTotal;
+
+/**
+ * Measures working out a hand's total, both on its own and while cards are
+ * being added to the hand.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+
+    private static final int CARDS_PER_HAND = 3;
+
+    private Hand hand;
+    private Card[] cards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        hand = new Hand();
+        hand.add(Card.valueOf(0));
+        hand.add(Card.valueOf(Card.NUMBER_OF_CARDS - 1));
+
+        // A fixed run of random cards so every iteration deals the same hands
+        SplittableRandom random = new SplittableRandom(1);
+        cards = new Card[1024];
+        for (int i=0; i<cards.length; i++) {
+            cards[i] = Card.valueOf(random.nextInt(Card.NUMBER_OF_CARDS));
+        }
+    }
+
+    @Benchmark
+    public HandTotal calculateTotal() {
+        return hand.calculateTotal();
+    }
+
+    @Benchmark
+    public int total() {
+        return hand.total();
+    }
+
+    /**
+     * Deal a three card hand and read its total after each card.
+     */
+    @Benchmark
+    @OperationsPerInvocation(CARDS_PER_HAND)
+    public void addAndTotal(Blackhole blackhole) {
+        Hand hand = this.hand;
+        hand.clear();
+        for (int i=0; i<CARDS_PER_HAND; i++) {
+            hand.add(cards[next]);
+            next = (next + 1) & (cards.length - 1);
+            blackhole.consume(hand.total());
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package com._17od.blackjack.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.simulation.SimulationResult;
+import com._17od.blackjack.simulation.Simulator;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+import com._17od.blackjack.strategy.StrategyBuilder;
+
+/**
+ * A macro-benchmark that plays full rounds through the {@link Simulator} to
+ * measure the throughput of the whole dealing and decision path.
+ * <p>
+ * The workload is fixed: the same rules, seed and number of hands every time,
+ * played with basic strategy and then Hi-Lo. As the simulator's results don't
+ * depend on the number of threads the same shoes are dealt however many
+ * threads are used, and the EVs are checked to make sure of it.
+ * <p>
+ * Each strategy is played once to warm up and then on 1 thread, 2 threads,
+ * 4 threads and so on up to the maximum. For each run it reports the hands
+ * per second, per thread and the scaling efficiency, i.e. the hands per
+ * second per thread compared to the single thread run. The bytes allocated
+ * per hand are worked out from the allocation counters of the JVM's threads
+ * where the JVM supports them.
+ *
+ * @author Adrian Smith
+ */
+public class SimulationBenchmark {
+
+    public static final long SEED = 20100417L;
+    public static final long DEFAULT_HANDS = 4000000;
+    public static final int NUMBER_OF_DECKS = 6;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private GameRules rules;
+    private long hands;
+
+    /**
+     * @param rules The rules to play with
+     * @param hands The number of hands played in each run
+     */
+    public SimulationBenchmark(GameRules rules, long hands) {
+        this.rules = rules;
+        this.hands = hands;
+    }
+
+    /**
+     * Play the hands with a strategy on a number of threads.
+     *
+     * @param builder Creates the strategy to play
+     * @param threads The number of threads to play the hands on
+     * @return the measurements for the run
+     */
+    public Run run(StrategyBuilder builder, int threads) {
+        Simulator simulator = new Simulator(rules, builder, SEED);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            HashMap<Long, Long> allocatedBefore = allocatedBytes();
+            SimulationResult result = simulator.run(hands, pool);
+            HashMap<Long, Long> allocatedAfter = allocatedBytes();
+
+            double bytesPerHand = -1;
+            if (allocatedBefore != null && allocatedAfter != null) {
+                bytesPerHand = (double) allocatedBetween(allocatedBefore,
+                        allocatedAfter) / result.getHands();
+            }
+            return new Run(threads, result, bytesPerHand);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The number of bytes allocated so far by each live thread, keyed by
+     * thread ID, or null if the JVM can't measure it.
+     */
+    private static HashMap<Long, Long> allocatedBytes() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) THREADS;
+        if (!threads.isThreadAllocatedMemorySupported()
+                || !threads.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        HashMap<Long, Long> allocated = new HashMap<Long, Long>();
+        for (int i=0; i<ids.length; i++) {
+            if (bytes[i] >= 0) {
+                allocated.put(Long.valueOf(ids[i]), Long.valueOf(bytes[i]));
+            }
+        }
+        return allocated;
+    }
+
+    /**
+     * Add up what each thread allocated between two snapshots. The pool's
+     * threads are started during the run and are still alive at the end of it
+     * so they're counted from zero. Threads that finished in between, such as
+     * those of an earlier pool, are left out.
+     */
+    private static long allocatedBetween(HashMap<Long, Long> before,
+            HashMap<Long, Long> after) {
+        long total = 0;
+        for (Long id : after.keySet()) {
+            Long start = before.get(id);
+            total += after.get(id).longValue()
+                    - (start != null ? start.longValue() : 0);
+        }
+        return total;
+    }
+
+    /**
+     * The measurements from one run.
+     */
+    public static class Run {
+
+        private int threads;
+        private SimulationResult result;
+        private double bytesPerHand;
+
+        Run(int threads, SimulationResult result, double bytesPerHand) {
+            this.threads = threads;
+            this.result = result;
+            this.bytesPerHand = bytesPerHand;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public SimulationResult getResult() {
+            return result;
+        }
+
+        public double getHandsPerSecondPerThread() {
+            return result.getHandsPerSecond() / threads;
+        }
+
+        /**
+         * @return the bytes allocated per hand or -1 if it couldn't be
+         * measured
+         */
+        public double getBytesPerHand() {
+            return bytesPerHand;
+        }
+
+    }
+
+    /**
+     * @return 1, 2, 4 and so on up to and including the maximum
+     */
+    static int[] threadCounts(int maxThreads) {
+        ArrayList<Integer> counts = new ArrayList<Integer>();
+        for (int threads=1; threads<maxThreads; threads*=2) {
+            counts.add(Integer.valueOf(threads));
+        }
+        counts.add(Integer.valueOf(maxThreads));
+
+        int[] result = new int[counts.size()];
+        for (int i=0; i<result.length; i++) {
+            result[i] = counts.get(i).intValue();
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 0) {
+            maxThreads = Integer.parseInt(args[0]);
+        }
+        long hands = DEFAULT_HANDS;
+        if (args.length > 1) {
+            hands = Long.parseLong(args[1]);
+        }
+
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(NUMBER_OF_DECKS);
+        SimulationBenchmark benchmark = new SimulationBenchmark(rules, hands);
+
+        String[] names = { "basic", "hilo" };
+        StrategyBuilder[] builders = { new BasicStrategyBuilder(),
+                new HiLoStrategyBuilder() };
+
+        System.out.println("Rules: " + rules);
+        System.out.println("Seed: " + SEED);
+        System.out.println("Hands per run: " + hands);
+        System.out.println();
+        System.out.println(String.format("%-10s %7s %12s %12s %10s %12s",
+                "Strategy", "Threads", "Hands/sec", "Per thread",
+                "Scaling", "Bytes/hand"));
+
+        boolean consistent = true;
+        for (int i=0; i<builders.length; i++) {
+            benchmark.run(builders[i], maxThreads);
+
+            double singleThread = 0;
+            double ev = Double.NaN;
+            for (int threads : threadCounts(maxThreads)) {
+                Run run = benchmark.run(builders[i], threads);
+                if (threads == 1) {
+                    singleThread = run.getHandsPerSecondPerThread();
+                    ev = run.getResult().getEvPerHand();
+                } else if (run.getResult().getEvPerHand() != ev) {
+                    consistent = false;
+                }
+
+                System.out.println(String.format(
+                        "%-10s %7d %12.0f %12.0f %9.1f%% %12s", names[i],
+                        threads, run.getResult().getHandsPerSecond(),
+                        run.getHandsPerSecondPerThread(),
+                        100 * run.getHandsPerSecondPerThread() / singleThread,
+                        run.getBytesPerHand() < 0 ? "n/a"
+                                : String.format("%.1f", run.getBytesPerHand())));
+            }
+        }
+
+        if (!consistent) {
+            System.out.println();
+            System.out.println("Warning: the EVs changed with the number of threads");
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com._17od.blackjack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.decisions.Decision;
+import com._17od.blackjack.strategy.BasicStrategy;
+import com._17od.blackjack.strategy.Strategy;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Measures looking up the next move with basic strategy for a hard, soft and
+ * pair hand against a dealer 6.
+ *
+ * @author Adrian Smith
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+
+    @Param({"hard", "soft", "pair"})
+    public String hand;
+
+    private Strategy strategy;
+
+    @Setup
+    public void setUp() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        strategy = new BasicStrategy(game, player);
+
+        if (hand.equals("hard")) {
+            player.dealCard(Card.valueOf(Rank.TEN, Suit.CLUBS));
+            player.dealCard(Card.valueOf(Rank.TWO, Suit.HEARTS));
+        } else if (hand.equals("soft")) {
+            player.dealCard(Card.valueOf(Rank.ACE, Suit.CLUBS));
+            player.dealCard(Card.valueOf(Rank.SEVEN, Suit.HEARTS));
+        } else {
+            player.dealCard(Card.valueOf(Rank.EIGHT, Suit.CLUBS));
+            player.dealCard(Card.valueOf(Rank.EIGHT, Suit.HEARTS));
+        }
+        game.getDealer().dealCard(Card.valueOf(Rank.SIX, Suit.SPADES));
+    }
+
+    @Benchmark
+    public Decision whatNext() {
+        return strategy.whatNext();
+    }
+
+    @Benchmark
+    public DecisionEnum nextDecision() {
+        return strategy.nextDecision();
+    }
+
+}
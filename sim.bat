@@ -0,0 +1,2 @@
+@echo off
+java -cp .\bin com._17od.blackjack.simulation.Simulator %1 %2 %3 %4 %5
@@ -2,7 +2,14 @@ package com._17od.blackjack;
 
 /**
  * Represents a card.
- * 
+ * <p>
+ * There are only 52 different cards so rather than create new ones the shared
+ * instances returned by {@link #valueOf(Rank, Suit)} should be used.
+ * <p>
+ * Each card also has a code between 0 and 51, see {@link #getCode()}. Code
+ * that deals a lot of cards can pass these around instead of Card objects and
+ * use the static methods on this class to look up a card's value.
+ *
  * @author Adrian Smith
  */
 public class Card {
@@ -12,12 +19,101 @@ public class Card {
 
     public enum Suit { CLUBS, DIAMONDS, HEARTS, SPADES }
 
+    public static final int NUMBER_OF_RANKS = 13;
+    public static final int NUMBER_OF_SUITS = 4;
+    public static final int NUMBER_OF_CARDS = 52;
+
+    /**
+     * The value of each card indexed by its code. Aces are 11.
+     */
+    private static final byte[] VALUES = new byte[NUMBER_OF_CARDS];
+
+    /**
+     * The Hi-Lo count tag of each card indexed by its code.
+     */
+    private static final byte[] HI_LO_TAGS = new byte[NUMBER_OF_CARDS];
+
+    private static final Card[] CARDS = new Card[NUMBER_OF_CARDS];
+
+    static {
+        byte[] rankValues = { 2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11 };
+        byte[] rankHiLoTags = { 1, 1, 1, 1, 1, 0, 0, 0, -1, -1, -1, -1, -1 };
+
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                int code = code(rank, suit);
+                VALUES[code] = rankValues[rank.ordinal()];
+                HI_LO_TAGS[code] = rankHiLoTags[rank.ordinal()];
+                CARDS[code] = new Card(rank, suit);
+            }
+        }
+    }
+
     private final Rank rank;
     private final Suit suit;
+    private final int code;
 
     public Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.code = code(rank, suit);
+    }
+
+    /**
+     * Get the shared instance of a card.
+     *
+     * @param rank The card's rank
+     * @param suit The card's suit
+     * @return the card with the given rank and suit
+     */
+    public static Card valueOf(Rank rank, Suit suit) {
+        return CARDS[code(rank, suit)];
+    }
+
+    /**
+     * Get the shared instance of a card from its code.
+     *
+     * @param code The card's code
+     * @return the card with the given code
+     */
+    public static Card valueOf(int code) {
+        return CARDS[code];
+    }
+
+    /**
+     * Cards are numbered by rank and then suit, so the two of clubs is 0, the
+     * two of diamonds is 1 and the ace of spades is 51.
+     *
+     * @param rank The card's rank
+     * @param suit The card's suit
+     * @return the code for the card
+     */
+    public static int code(Rank rank, Suit suit) {
+        return rank.ordinal() * NUMBER_OF_SUITS + suit.ordinal();
+    }
+
+    /**
+     * @param code A card code
+     * @return the ordinal of the card's {@link Rank}
+     */
+    public static int rank(int code) {
+        return code >> 2;
+    }
+
+    /**
+     * @param code A card code
+     * @return the value of the card. Aces are 11.
+     */
+    public static int value(int code) {
+        return VALUES[code];
+    }
+
+    /**
+     * @param code A card code
+     * @return +1 for 2 to 6, 0 for 7 to 9 and -1 for 10s and aces
+     */
+    public static int hiLoTag(int code) {
+        return HI_LO_TAGS[code];
     }
 
     public Rank getRank() {
@@ -28,54 +124,12 @@ public class Card {
         return suit;
     }
 
+    public int getCode() {
+        return code;
+    }
+
     public int getValue() {
-        int value = 0;
-
-        switch (rank) {
-        case TWO:
-            value = 2;
-            break;
-        case THREE:
-            value = 3;
-            break;
-        case FOUR:
-            value = 4;
-            break;
-        case FIVE:
-            value = 5;
-            break;
-        case SIX:
-            value = 6;
-            break;
-        case SEVEN:
-            value = 7;
-            break;
-        case EIGHT:
-            value = 8;
-            break;
-        case NINE:
-            value = 9;
-            break;
-        case TEN:
-            value = 10;
-            break;
-        case JACK:
-            value = 10;
-            break;
-        case QUEEN:
-            value = 10;
-            break;
-        case KING:
-            value = 10;
-            break;
-        case ACE:
-            value = 11;
-            break;
-        default:
-            throw new InvalidCardRank(rank);
-        }
-        
-        return value;
+        return VALUES[code];
     }
 
     public String toString() {
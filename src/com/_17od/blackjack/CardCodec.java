@@ -0,0 +1,267 @@
+package com._17od.blackjack;
+
+import java.nio.ByteBuffer;
+
+import com._17od.blackjack.Card.Rank;
+
+/**
+ * Reads and writes cards in the short notation used by scenario files and hand
+ * histories, e.g. <code>5H,KD,AS</code>.
+ * <p>
+ * Each card is a rank followed by a suit. The ranks are 2 to 10, J, Q, K and
+ * A, and an ace can also be written as 1 and a ten as T. The suits are C, D, H
+ * and S. Upper or lower case can be used. Cards are separated by commas
+ * and/or whitespace.
+ * <p>
+ * Cards are read straight into card codes (see {@link Card#getCode()}) in an
+ * array supplied by the caller, one character at a time using lookup tables,
+ * so reading cards doesn't create any objects unless the notation is invalid.
+ * Text can be read from a {@link CharSequence} or, for bulk input, from a
+ * {@link ByteBuffer} of ASCII bytes.
+ *
+ * @author Adrian Smith
+ */
+public class CardCodec {
+
+    /**
+     * The rank ordinal for each character that starts a rank, or -1. 1 is
+     * handled separately as it can start 10.
+     */
+    private static final byte[] RANKS = new byte[128];
+
+    /**
+     * The suit ordinal for each suit character, or -1.
+     */
+    private static final byte[] SUITS = new byte[128];
+
+    private static final char[] RANK_CHARS = { '2', '3', '4', '5', '6', '7',
+        '8', '9', 'T', 'J', 'Q', 'K', 'A' };
+
+    private static final char[] SUIT_CHARS = { 'C', 'D', 'H', 'S' };
+
+    static {
+        for (int i=0; i<RANKS.length; i++) {
+            RANKS[i] = -1;
+            SUITS[i] = -1;
+        }
+        for (int rank=0; rank<RANK_CHARS.length; rank++) {
+            RANKS[RANK_CHARS[rank]] = (byte) rank;
+            RANKS[Character.toLowerCase(RANK_CHARS[rank])] = (byte) rank;
+        }
+        for (int suit=0; suit<SUIT_CHARS.length; suit++) {
+            SUITS[SUIT_CHARS[suit]] = (byte) suit;
+            SUITS[Character.toLowerCase(SUIT_CHARS[suit])] = (byte) suit;
+        }
+    }
+
+    private CardCodec() {
+    }
+
+    /**
+     * Read every card in the text.
+     *
+     * @param text The cards
+     * @param codes Where to put the card codes
+     * @param offset Where to put the first card code
+     * @return the number of cards read
+     * @throws IllegalArgumentException if the notation is invalid or there
+     * are more cards than fit in the array
+     */
+    public static int decode(CharSequence text, byte[] codes, int offset) {
+        return decode(text, 0, text.length(), codes, offset);
+    }
+
+    /**
+     * Read every card in part of the text.
+     *
+     * @param text The cards
+     * @param start The index of the first character to read
+     * @param end The index after the last character to read
+     * @param codes Where to put the card codes
+     * @param offset Where to put the first card code
+     * @return the number of cards read
+     * @throws IllegalArgumentException if the notation is invalid or there
+     * are more cards than fit in the array
+     */
+    public static int decode(CharSequence text, int start, int end,
+            byte[] codes, int offset) {
+        return decode(text, null, start, end, codes, offset);
+    }
+
+    /**
+     * Read every card between the buffer's position and its limit. The
+     * position is moved to the limit.
+     *
+     * @param buffer ASCII text holding the cards
+     * @param codes Where to put the card codes
+     * @param offset Where to put the first card code
+     * @return the number of cards read
+     * @throws IllegalArgumentException if the notation is invalid or there
+     * are more cards than fit in the array
+     */
+    public static int decode(ByteBuffer buffer, byte[] codes, int offset) {
+        int count = decode(null, buffer, buffer.position(), buffer.limit(),
+                codes, offset);
+        buffer.position(buffer.limit());
+        return count;
+    }
+
+    /**
+     * Read a single card.
+     *
+     * @param text The card, e.g. "AS"
+     * @return the card's code
+     * @throws IllegalArgumentException if the text isn't exactly one card
+     */
+    public static int decodeCard(CharSequence text) {
+        byte[] codes = new byte[1];
+        if (decode(text, codes, 0) != 1) {
+            throw new IllegalArgumentException("Expected a single card in " + text);
+        }
+        return codes[0];
+    }
+
+    /**
+     * Read every card in the text into an array of shared {@link Card}
+     * instances.
+     *
+     * @param text The cards
+     * @return the cards
+     * @throws IllegalArgumentException if the notation is invalid
+     */
+    public static Card[] decodeCards(CharSequence text) {
+        // There can't be more cards than half the characters, rounded up
+        byte[] codes = new byte[(text.length() + 1) / 2];
+        int count = decode(text, codes, 0);
+
+        Card[] cards = new Card[count];
+        for (int i=0; i<count; i++) {
+            cards[i] = Card.valueOf(codes[i]);
+        }
+        return cards;
+    }
+
+    /**
+     * Write a card, e.g. "10H" or "AS".
+     *
+     * @param code The card's code
+     * @param out Where to write the card
+     * @return out
+     */
+    public static StringBuilder encode(int code, StringBuilder out) {
+        int rank = Card.rank(code);
+        if (rank == Rank.TEN.ordinal()) {
+            out.append("10");
+        } else {
+            out.append(RANK_CHARS[rank]);
+        }
+        out.append(SUIT_CHARS[code & (Card.NUMBER_OF_SUITS - 1)]);
+        return out;
+    }
+
+    /**
+     * Write cards separated by commas.
+     *
+     * @param codes The card codes
+     * @param offset The index of the first card to write
+     * @param length The number of cards to write
+     * @param out Where to write the cards
+     * @return out
+     */
+    public static StringBuilder encode(byte[] codes, int offset, int length,
+            StringBuilder out) {
+        for (int i=0; i<length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            encode(codes[offset + i], out);
+        }
+        return out;
+    }
+
+    /**
+     * Read cards from either the text or the buffer, whichever isn't null.
+     */
+    private static int decode(CharSequence text, ByteBuffer buffer, int start,
+            int end, byte[] codes, int offset) {
+        int count = 0;
+        int i = start;
+
+        while (i < end) {
+            int c = charAt(text, buffer, i);
+            if (c == ',' || isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            // The rank. A 1 is an ace unless it's followed by a 0.
+            int rank;
+            int cardStart = i;
+            if (c == '1') {
+                if (i + 1 < end && charAt(text, buffer, i + 1) == '0') {
+                    rank = Rank.TEN.ordinal();
+                    i += 2;
+                } else {
+                    rank = Rank.ACE.ordinal();
+                    i++;
+                }
+            } else {
+                rank = c < RANKS.length ? RANKS[c] : -1;
+                if (rank < 0) {
+                    throw invalidCard(text, buffer, cardStart, end);
+                }
+                i++;
+            }
+
+            // The suit, which must be followed by a separator or the end
+            int suit = -1;
+            if (i < end) {
+                c = charAt(text, buffer, i);
+                suit = c < SUITS.length ? SUITS[c] : -1;
+            }
+            if (suit < 0) {
+                throw invalidCard(text, buffer, cardStart, end);
+            }
+            i++;
+            if (i < end) {
+                c = charAt(text, buffer, i);
+                if (c != ',' && !isWhitespace(c)) {
+                    throw invalidCard(text, buffer, cardStart, end);
+                }
+            }
+
+            if (offset + count >= codes.length) {
+                throw new IllegalArgumentException("More than " + (codes.length - offset) + " cards");
+            }
+            codes[offset + count++] = (byte) (rank * Card.NUMBER_OF_SUITS + suit);
+        }
+
+        return count;
+    }
+
+    private static int charAt(CharSequence text, ByteBuffer buffer, int i) {
+        return text != null ? text.charAt(i) : buffer.get(i) & 0xff;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    /**
+     * Build the error for an invalid card, quoting the card up to the next
+     * separator.
+     */
+    private static IllegalArgumentException invalidCard(CharSequence text,
+            ByteBuffer buffer, int cardStart, int end) {
+        StringBuilder card = new StringBuilder();
+        for (int i=cardStart; i<end; i++) {
+            int c = charAt(text, buffer, i);
+            if (c == ',' || isWhitespace(c)) {
+                break;
+            }
+            card.append((char) c);
+        }
+        return new IllegalArgumentException("Invalid card " + card + " at " + cardStart);
+    }
+
+}
@@ -13,5 +13,23 @@ public interface CardObserver {
      * @param card The card dealt.
      */
     public void notify(Card card);
+
+    /**
+     * Called when several cards are dealt at once. By default each card is
+     * passed to {@link #notify(Card)} in turn. Observers that can handle the
+     * cards more cheaply all together should override this.
+     * 
+     * @param cards The cards dealt, in the order they were dealt.
+     */
+    public default void notifyBatch(Card[] cards) {
+        for (Card card : cards) {
+            notify(card);
+        }
+    }
+
+    /**
+     * Called when the shoe has been shuffled and every card is back in play.
+     */
+    public void notifyShuffle();
     
 }
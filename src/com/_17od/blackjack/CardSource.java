@@ -0,0 +1,44 @@
+package com._17od.blackjack;
+
+/**
+ * Where a {@link Round} gets its cards from. Normally this is a {@link Shoe}
+ * but cards can come from anywhere, e.g. shoes recorded at a real table.
+ *
+ * @author Adrian Smith
+ */
+public interface CardSource {
+
+    /**
+     * Deal the next card.
+     *
+     * @return the card dealt
+     */
+    public Card deal();
+
+    /**
+     * @return the number of cards that can be dealt before the source has to
+     * be shuffled
+     */
+    public int getCardsLeft();
+
+    /**
+     * @return true once enough cards have been dealt that the source should
+     * be shuffled before the next round
+     */
+    public boolean isCutCardReached();
+
+    /**
+     * Start again with a freshly shuffled set of cards.
+     */
+    public void shuffle();
+
+    /**
+     * Start again part way through a round with a freshly shuffled set of
+     * cards that doesn't include the cards still in play.
+     *
+     * @param inPlay The codes of the cards in play
+     * @param numInPlay The number of cards in play
+     */
+    public void shuffleDiscards(byte[] inPlay, int numInPlay);
+
+}
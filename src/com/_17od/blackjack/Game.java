@@ -1,6 +1,10 @@
 package com._17od.blackjack;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+
+import com._17od.blackjack.jfr.DealEvent;
+import com._17od.blackjack.metrics.Metrics;
 
 /**
  * Represents a blackjack game.
@@ -12,11 +16,26 @@ public class Game {
     private Dealer dealer;
     private GameRules rules;
     private ArrayList<Player> players = new ArrayList<Player>();
-    private ArrayList<CardObserver> cardObservers = new ArrayList<CardObserver>();
+
+    /**
+     * The observers are copied to a new array each time one is added or
+     * removed. Dealing just reads the current array so observers can be added
+     * or removed at any time, even while cards are being dealt.
+     */
+    private volatile CardObserver[] cardObservers = new CardObserver[0];
+
+    /**
+     * The number of deals, used to pick the ones to time when metrics are
+     * being recorded
+     */
+    private int deals;
 
     public Game(GameRules rules) {
         dealer = new Dealer();
         this.rules = rules;
+        if (Metrics.ENABLED) {
+            Metrics.gameCreated();
+        }
     }
 
     /**
@@ -29,18 +48,122 @@ public class Game {
     public void deal(Card card, Player player) {
         player.dealCard(card);
 
+        DealEvent event = new DealEvent();
+        event.begin();
+        CardObserver[] observers = cardObservers;
+        boolean timed = Metrics.ENABLED
+                && (++deals & Metrics.TIMING_SAMPLE_MASK) == 0;
+        long start = timed ? System.nanoTime() : 0;
+        for (CardObserver cardObserver : observers) {
+            cardObserver.notify(card);
+        }
+        if (timed) {
+            Metrics.dealTimed(System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.commit(card, player == dealer, player.getHand(),
+                    observers.length);
+        }
+    }
+
+    /**
+     * Deal a number of cards to the given player. Each observer is told about
+     * all of the cards in a single call to
+     * {@link CardObserver#notifyBatch(Card[])}.
+     * 
+     * @param cards the cards to deal, in the order they're dealt
+     * @param player The player to deal the cards to.
+     */
+    public void deal(Card[] cards, Player player) {
+        for (Card card : cards) {
+            player.dealCard(card);
+        }
+
+        DealEvent event = new DealEvent();
+        event.begin();
+        CardObserver[] observers = cardObservers;
+        boolean timed = Metrics.ENABLED
+                && (++deals & Metrics.TIMING_SAMPLE_MASK) == 0;
+        long start = timed ? System.nanoTime() : 0;
+        for (CardObserver cardObserver : observers) {
+            cardObserver.notifyBatch(cards);
+        }
+        if (timed) {
+            Metrics.dealTimed(System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.commit(cards, player == dealer, player.getHand(),
+                    observers.length);
+        }
+    }
+
+    /**
+     * Deal the card to the given player face down. Observers aren't notified
+     * until the card is turned over using {@link #revealCard(Card)}.
+     * 
+     * @param card the card to deal
+     * @param player The player to deal a card to.
+     */
+    public void dealFaceDown(Card card, Player player) {
+        player.dealCard(card);
+    }
+
+    /**
+     * Turn over a card that was dealt face down and notify all observers of
+     * it.
+     * 
+     * @param card the card being turned over
+     */
+    public void revealCard(Card card) {
         for (CardObserver cardObserver : cardObservers) {
             cardObserver.notify(card);
         }
     }
 
+    /**
+     * Notify all observers that the shoe has been shuffled.
+     */
+    public void shoeShuffled() {
+        for (CardObserver cardObserver : cardObservers) {
+            cardObserver.notifyShuffle();
+        }
+    }
+
     /**
      * Add the given observer to the list. This object will be notified each
      * time a car is dealt 
      * @param cardObserver The observer to notify when a card is dealt
      */
-    public void addCardObserver(CardObserver cardObserver) {
-        cardObservers.add(cardObserver);
+    public synchronized void addCardObserver(CardObserver cardObserver) {
+        CardObserver[] observers = Arrays.copyOf(cardObservers,
+                cardObservers.length + 1);
+        observers[observers.length - 1] = cardObserver;
+        cardObservers = observers;
+        if (Metrics.ENABLED) {
+            Metrics.observerAdded(observers.length);
+        }
+    }
+
+    /**
+     * Stop notifying the given observer. Nothing happens if it isn't an
+     * observer of this game.
+     * @param cardObserver The observer to remove
+     */
+    public synchronized void removeCardObserver(CardObserver cardObserver) {
+        CardObserver[] observers = cardObservers;
+        for (int i=0; i<observers.length; i++) {
+            if (observers[i] == cardObserver) {
+                CardObserver[] remaining = new CardObserver[observers.length - 1];
+                System.arraycopy(observers, 0, remaining, 0, i);
+                System.arraycopy(observers, i + 1, remaining, i,
+                        observers.length - i - 1);
+                cardObservers = remaining;
+                if (Metrics.ENABLED) {
+                    Metrics.observerRemoved();
+                }
+                return;
+            }
+        }
     }
 
     public void addPlayer(Player player) {
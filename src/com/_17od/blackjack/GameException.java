@@ -13,4 +13,8 @@ public class GameException extends RuntimeException {
         super(message);
     }
 
+    public GameException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
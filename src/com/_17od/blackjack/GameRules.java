@@ -13,6 +13,10 @@ public class GameRules {
     private boolean doubleAfterSplit;
     private int minimumBet;
     private int numberOfDecks;
+    private int maxSplitHands;
+    private double penetration;
+    private boolean dealerHitsSoft17;
+    private boolean resplitAces;
 
     /**
      * Set the default games rules
@@ -24,6 +28,10 @@ public class GameRules {
         doubleOn91011Only = false;
         doubleOn1011Only = false;
         doubleAfterSplit = true;
+        maxSplitHands = 4;
+        penetration = 0.75;
+        dealerHitsSoft17 = false;
+        resplitAces = false;
     }
 
     public boolean isSurrenderAllowed() {
@@ -74,6 +82,61 @@ public class GameRules {
         this.numberOfDecks = numberOfDecks;
     }
 
+    /**
+     * The maximum number of hands a player can end up with by splitting and
+     * resplitting pairs.
+     * 
+     * @return the maximum number of hands allowed after splitting
+     */
+    public int getMaxSplitHands() {
+        return maxSplitHands;
+    }
+
+    public void setMaxSplitHands(int maxSplitHands) {
+        this.maxSplitHands = maxSplitHands;
+    }
+
+    /**
+     * The fraction of the shoe dealt before it's shuffled, i.e. where the cut
+     * card is placed.
+     * 
+     * @return the shoe penetration, greater than 0 and no more than 1
+     */
+    public double getPenetration() {
+        return penetration;
+    }
+
+    public void setPenetration(double penetration) {
+        this.penetration = penetration;
+    }
+
+    /**
+     * Whether the dealer hits a soft 17 (H17) or stands on all 17s (S17).
+     * 
+     * @return true if the dealer hits soft 17
+     */
+    public boolean dealerHitsSoft17() {
+        return dealerHitsSoft17;
+    }
+
+    public void setDealerHitsSoft17(boolean dealerHitsSoft17) {
+        this.dealerHitsSoft17 = dealerHitsSoft17;
+    }
+
+    /**
+     * Whether a split ace that's dealt another ace can be split again. Split
+     * aces are only ever dealt one card each.
+     * 
+     * @return true if aces can be resplit
+     */
+    public boolean resplitAces() {
+        return resplitAces;
+    }
+
+    public void setResplitAces(boolean resplitAces) {
+        this.resplitAces = resplitAces;
+    }
+
     public String toString() {
         StringBuilder rules= new StringBuilder();
         rules.append("surrenderAllowed=");
@@ -93,6 +156,18 @@ public class GameRules {
         rules.append(", ");
         rules.append("numberOfDecks=");
         rules.append(numberOfDecks);
+        rules.append(", ");
+        rules.append("maxSplitHands=");
+        rules.append(maxSplitHands);
+        rules.append(", ");
+        rules.append("penetration=");
+        rules.append(penetration);
+        rules.append(", ");
+        rules.append("dealerHitsSoft17=");
+        rules.append(dealerHitsSoft17);
+        rules.append(", ");
+        rules.append("resplitAces=");
+        rules.append(resplitAces);
         return rules.toString();
     }
 }
@@ -2,10 +2,12 @@ package com._17od.blackjack;
 
 import java.util.ArrayList;
 
-import com._17od.blackjack.Card.Rank;
-
 /**
  * Represents the cards a player is dealt.
+ * <p>
+ * The total is kept up to date as each card is added so asking for it is
+ * cheap. Cards must only be added using {@link #add(Card)}, not through the
+ * list returned by {@link #getCards()}.
  *  
  * @author Adrian Smith
  */
@@ -13,13 +15,40 @@ public class Hand {
 
     private ArrayList<Card> cards = new ArrayList<Card>();
     private boolean cameFromSplit;
+    private int splitCount;
+
+    private int hardTotal;
+    private int numAces;
+    private int total;
+    private boolean soft;
 
     /**
-     * Add a new card to the hand
+     * Add a new card to the hand and update the total.
+     * <p>
+     * The hard total counts every ace as 1. At most one ace can ever be
+     * counted as 11 without going over 21 so if there's an ace and adding 10
+     * to the hard total doesn't bust the hand then it's a soft hand.
+     * 
      * @param card The card to add to the hand
      */
     public void add(Card card) {
         cards.add(card);
+
+        int value = card.getValue();
+        if (value == 11) {
+            numAces++;
+            hardTotal += 1;
+        } else {
+            hardTotal += value;
+        }
+
+        if (numAces > 0 && hardTotal + 10 <= 21) {
+            total = hardTotal + 10;
+            soft = true;
+        } else {
+            total = hardTotal;
+            soft = false;
+        }
     }
 
     /**
@@ -29,30 +58,26 @@ public class Hand {
      * total. 
      */
     public HandTotal calculateTotal() {
-        int total = 0;
-        boolean soft = false;
-
-        // Total up all the cards. Aces have a value of 11 at this stage.
-        for (Card card : cards) {
-            total += card.getValue();
-        }
+        return new HandTotal(total, soft);
+    }
 
-        // If the total is > 21 then one by one give each ace a value of 1 until
-        // the total falls <= 21 or we run out of aces
-        int i = 0;
-        int numAces = getNumAces();
-        while (total > 21 && i < numAces) {
-            total -= 10;
-            i++;
-        }
+    /**
+     * @return the hand's total, counting an ace as 11 if that doesn't bust the
+     * hand
+     */
+    public int total() {
+        return total;
+    }
 
-        // If we still have aces left that are counted as 11 then this is a soft
-        // hand
-        if (i < numAces) {
-            soft = true;
-        }
+    /**
+     * @return true if an ace is being counted as 11
+     */
+    public boolean isSoft() {
+        return soft;
+    }
 
-        return new HandTotal(total, soft);
+    public int getNumAces() {
+        return numAces;
     }
 
     /**
@@ -74,18 +99,6 @@ public class Hand {
         return cards;
     }
 
-    private int getNumAces() {
-        int num = 0;
-
-        for (Card card : cards) {
-            if (card.getRank() == Rank.ACE) {
-                num += 1;
-            }
-        }
-        
-        return num;
-    }
-
     public boolean cameFromSplit() {
         return cameFromSplit;
     }
@@ -94,8 +107,26 @@ public class Hand {
         this.cameFromSplit = cameFromSplit;
     }
 
+    /**
+     * The number of times the player has split during the current round. The
+     * player has one more hand in play than this.
+     * 
+     * @return the number of splits made so far this round
+     */
+    public int getSplitCount() {
+        return splitCount;
+    }
+
+    public void setSplitCount(int splitCount) {
+        this.splitCount = splitCount;
+    }
+
     public void clear() {
         cards.clear();
+        hardTotal = 0;
+        numAces = 0;
+        total = 0;
+        soft = false;
     }
 
     public String toString() {
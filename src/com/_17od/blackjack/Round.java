@@ -0,0 +1,424 @@
+package com._17od.blackjack;
+
+import java.util.Arrays;
+
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.decisions.Decision;
+import com._17od.blackjack.metrics.Metrics;
+import com._17od.blackjack.strategy.Strategy;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Plays complete rounds of blackjack between a player and the dealer.
+ * <p>
+ * The player's {@link Strategy} decides how much to bet and how to play each
+ * hand. Each {@link Decision} it makes is carried out by calling back on to
+ * this class, e.g. {@link #hit()} or {@link #split()}.
+ * <p>
+ * Split hands are played one after the other using the player's
+ * {@link Hand}. The cards split off are held back until the hand being played
+ * is finished.
+ * <p>
+ * The dealer stands on all 17s, or hits soft 17 if the rules say so, and
+ * peeks for blackjack so a player only ever loses their original bet to a
+ * dealer blackjack. A player blackjack pays 3 to 2.
+ * <p>
+ * The shoe is shuffled before a round once the cut card has been reached. If
+ * it runs out during a round the discards are shuffled straight away, leaving
+ * out the cards on the table. The game's observers are told each time the
+ * shoe is shuffled. After a shuffle during a round they're shown the face up
+ * cards on the table again, as those aren't in the new shoe, and the hole
+ * card when it's turned over as usual.
+ * <p>
+ * A {@link RoundListener} can be set to follow every card and decision, e.g.
+ * to record a hand history.
+ *
+ * @author Adrian Smith
+ */
+public class Round {
+
+    private Game game;
+    private Player player;
+    private CardSource shoe;
+
+    private Card[] splitCards;
+    private int numSplitCards;
+    private int[] standingTotals;
+    private int[] standingBets;
+    private int numStandingHands;
+
+    private int originalBet;
+    private int bet;
+    private boolean handFinished;
+    private double result;
+
+    private RoundListener listener;
+
+    /**
+     * The codes of the cards dealt so far this round
+     */
+    private byte[] inPlay = new byte[32];
+    private int numInPlay;
+
+    /**
+     * Where the dealer's hole card is in inPlay while it's face down, or -1
+     */
+    private int holeCardIndex;
+
+    /**
+     * The number of decisions asked for, used to pick the ones to time when
+     * metrics are being recorded
+     */
+    private int decisions;
+
+    /**
+     * @param game The game being played
+     * @param player The player. Their strategy must already be set.
+     * @param shoe The shoe, or other source of cards, to deal from
+     */
+    public Round(Game game, Player player, CardSource shoe) {
+        this.game = game;
+        this.player = player;
+        this.shoe = shoe;
+
+        int maxHands = Math.max(game.getRules().getMaxSplitHands(), 1);
+        splitCards = new Card[maxHands];
+        standingTotals = new int[maxHands];
+        standingBets = new int[maxHands];
+    }
+
+    /**
+     * Play a round from placing the bet through to settling every hand.
+     *
+     * @return the amount the player won or, if negative, lost
+     */
+    public double play() {
+        double won = playRound();
+        if (Metrics.ENABLED) {
+            Metrics.handPlayed();
+        }
+        if (listener != null) {
+            listener.roundFinished(won);
+        }
+        return won;
+    }
+
+    private double playRound() {
+        Hand hand = player.getHand();
+        Hand dealerHand = game.getDealer().getHand();
+        hand.clear();
+        hand.setCameFromSplit(false);
+        hand.setSplitCount(0);
+        dealerHand.clear();
+        numSplitCards = 0;
+        numStandingHands = 0;
+        result = 0;
+        numInPlay = 0;
+        holeCardIndex = -1;
+
+        if (shoe.isCutCardReached()) {
+            shuffle();
+        }
+
+        originalBet = player.getStrategy().amountToBet();
+        bet = originalBet;
+        if (listener != null) {
+            listener.roundStarted(originalBet);
+        }
+
+        deal(player);
+        deal(game.getDealer());
+        deal(player);
+        Card holeCard = nextCard();
+        holeCardIndex = numInPlay - 1;
+        game.dealFaceDown(holeCard, game.getDealer());
+        if (listener != null) {
+            listener.cardDealt(holeCard, true);
+        }
+
+        // The dealer peeks for blackjack before the player gets to play
+        boolean playerBlackjack = isBlackjack(hand);
+        if (isBlackjack(dealerHand)) {
+            revealHoleCard(holeCard);
+            return playerBlackjack ? 0 : -originalBet;
+        } else if (playerBlackjack) {
+            revealHoleCard(holeCard);
+            return originalBet * 1.5;
+        }
+
+        playPlayerHands();
+
+        revealHoleCard(holeCard);
+
+        // The dealer only needs to play if there's a hand left to beat
+        if (numStandingHands > 0) {
+            boolean hitSoft17 = game.getRules().dealerHitsSoft17();
+            while (dealerHand.total() < 17 || (hitSoft17
+                    && dealerHand.total() == 17 && dealerHand.isSoft())) {
+                deal(game.getDealer());
+            }
+
+            int dealerTotal = dealerHand.total();
+            for (int i=0; i<numStandingHands; i++) {
+                if (dealerTotal > 21 || standingTotals[i] > dealerTotal) {
+                    result += standingBets[i];
+                } else if (standingTotals[i] < dealerTotal) {
+                    result -= standingBets[i];
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the amount originally bet on the last round played
+     */
+    public int getAmountBet() {
+        return originalBet;
+    }
+
+    public RoundListener getRoundListener() {
+        return listener;
+    }
+
+    /**
+     * @param listener The listener to tell about each round played or null
+     * for none
+     */
+    public void setRoundListener(RoundListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Deal another card to the hand being played.
+     */
+    public void hit() {
+        if (isSplitAces(player.getHand())) {
+            throw new GameException("Split aces can't be hit");
+        }
+        decided(DecisionEnum.HIT);
+        deal(player);
+    }
+
+    /**
+     * Finish playing the current hand.
+     */
+    public void stand() {
+        decided(DecisionEnum.STAND);
+        finishHand();
+    }
+
+    /**
+     * Double the bet on the current hand and deal it exactly one more card.
+     */
+    public void doubleDown() {
+        if (player.getHand().getCards().size() != 2) {
+            throw new GameException("Can only double on the first two cards");
+        }
+        if (isSplitAces(player.getHand())) {
+            throw new GameException("Split aces can't be doubled");
+        }
+
+        decided(DecisionEnum.DOUBLE);
+        bet *= 2;
+        deal(player);
+        finishHand();
+    }
+
+    /**
+     * Split the pair in the current hand into two hands. The hand being played
+     * keeps the first card and is dealt a new second card. The other card
+     * starts a new hand that's played once this one is finished.
+     * <p>
+     * Split aces are only dealt one more card each. If the rules allow aces to
+     * be resplit a split ace that's dealt another ace can be split again.
+     */
+    public void split() {
+        Hand hand = player.getHand();
+        if (!hand.isPair() ||
+                hand.getSplitCount() + 1 >= game.getRules().getMaxSplitHands()) {
+            throw new GameException("Hand can't be split");
+        }
+
+        decided(DecisionEnum.SPLIT);
+        Card firstCard = hand.getCards().get(0);
+        splitCards[numSplitCards++] = hand.getCards().get(1);
+        hand.clear();
+        player.dealCard(firstCard);
+        hand.setCameFromSplit(true);
+        hand.setSplitCount(hand.getSplitCount() + 1);
+
+        deal(player);
+        if (firstCard.getRank() == Rank.ACE) {
+            finishSplitAces();
+        }
+    }
+
+    /**
+     * Give up the current hand in return for half the bet.
+     */
+    public void surrender() {
+        Hand hand = player.getHand();
+        if (!game.getRules().isSurrenderAllowed() ||
+                hand.getCards().size() != 2 || hand.cameFromSplit()) {
+            throw new GameException("Hand can't be surrendered");
+        }
+        decided(DecisionEnum.SURRENDER);
+
+        result -= bet / 2.0;
+        bet = originalBet;
+        handFinished = true;
+    }
+
+    /**
+     * Keep asking the player's strategy what to do until every hand, including
+     * any split off along the way, is finished.
+     */
+    private void playPlayerHands() {
+        Hand hand = player.getHand();
+        handFinished = false;
+
+        while (true) {
+            while (!handFinished) {
+                if (hand.total() >= 21) {
+                    finishHand();
+                } else if (Metrics.ENABLED
+                        && (++decisions & Metrics.TIMING_SAMPLE_MASK) == 0) {
+                    long start = System.nanoTime();
+                    Decision decision = player.getStrategy().whatNext();
+                    Metrics.decisionTimed(System.nanoTime() - start);
+                    decision.execute(this);
+                } else {
+                    player.getStrategy().whatNext().execute(this);
+                }
+            }
+
+            if (numSplitCards == 0) {
+                break;
+            }
+
+            // Start the next hand using a card that was split off. It's already
+            // been seen by the observers.
+            Card card = splitCards[--numSplitCards];
+            hand.clear();
+            player.dealCard(card);
+            hand.setCameFromSplit(true);
+            handFinished = false;
+
+            deal(player);
+            if (card.getRank() == Rank.ACE) {
+                finishSplitAces();
+            }
+        }
+    }
+
+    /**
+     * A split ace has been dealt its one card. The hand is finished unless
+     * it's another ace that the rules allow to be split again.
+     */
+    private void finishSplitAces() {
+        Hand hand = player.getHand();
+        GameRules rules = game.getRules();
+        if (!rules.resplitAces() || !hand.isPair()
+                || hand.getSplitCount() + 1 >= rules.getMaxSplitHands()) {
+            finishHand();
+        }
+    }
+
+    private static boolean isSplitAces(Hand hand) {
+        return hand.cameFromSplit()
+                && hand.getCards().get(0).getRank() == Rank.ACE;
+    }
+
+    /**
+     * A bust hand loses straight away. Any other hand is kept to be settled
+     * against the dealer.
+     */
+    private void finishHand() {
+        int total = player.getHand().total();
+        if (total > 21) {
+            result -= bet;
+        } else {
+            standingTotals[numStandingHands] = total;
+            standingBets[numStandingHands] = bet;
+            numStandingHands++;
+        }
+
+        bet = originalBet;
+        handFinished = true;
+    }
+
+    /**
+     * Deal the next card face up.
+     */
+    private void deal(Player to) {
+        Card card = nextCard();
+        game.deal(card, to);
+        if (listener != null) {
+            listener.cardDealt(card, to == game.getDealer());
+        }
+    }
+
+    private void decided(DecisionEnum decision) {
+        if (Metrics.ENABLED) {
+            Metrics.decisionMade(decision);
+        }
+        if (listener != null) {
+            listener.decisionMade(decision);
+        }
+    }
+
+    private void revealHoleCard(Card holeCard) {
+        holeCardIndex = -1;
+        game.revealCard(holeCard);
+    }
+
+    private Card nextCard() {
+        if (shoe.getCardsLeft() == 0) {
+            shuffleDiscards();
+        }
+        Card card = shoe.deal();
+        if (numInPlay == inPlay.length) {
+            inPlay = Arrays.copyOf(inPlay, numInPlay * 2);
+        }
+        inPlay[numInPlay++] = (byte) card.getCode();
+        return card;
+    }
+
+    private void shuffle() {
+        shoe.shuffle();
+        shuffled();
+    }
+
+    /**
+     * The shoe has run out part way through the round. The cards on the
+     * table stay out of the new shoe and the observers count the face up
+     * ones again so their counts match it.
+     */
+    private void shuffleDiscards() {
+        shoe.shuffleDiscards(inPlay, numInPlay);
+        shuffled();
+        for (int i=0; i<numInPlay; i++) {
+            if (i != holeCardIndex) {
+                game.revealCard(Card.valueOf(inPlay[i]));
+            }
+        }
+    }
+
+    private void shuffled() {
+        game.shoeShuffled();
+        if (Metrics.ENABLED) {
+            Metrics.shoeShuffled();
+        }
+        if (listener != null) {
+            listener.shoeShuffled();
+        }
+    }
+
+    private boolean isBlackjack(Hand hand) {
+        return hand.getCards().size() == 2 &&
+                hand.total() == 21;
+    }
+
+}
@@ -0,0 +1,54 @@
+package com._17od.blackjack;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Listens to everything that happens in a {@link Round}, in the order it
+ * happens. Unlike a {@link CardObserver}, which only sees what a player at the
+ * table would see, a listener is told about the dealer's hole card as soon as
+ * it's dealt and about every decision the player makes.
+ * <p>
+ * Listeners are called on the thread playing the round.
+ *
+ * @author Adrian Smith
+ */
+public interface RoundListener {
+
+    /**
+     * Called once the player has placed their bet, before any cards are
+     * dealt.
+     *
+     * @param bet The amount bet
+     */
+    public void roundStarted(int bet);
+
+    /**
+     * Called for each card dealt, including the dealer's hole card.
+     *
+     * @param card The card dealt
+     * @param toDealer True if it was dealt to the dealer, false if it was
+     * dealt to the player
+     */
+    public void cardDealt(Card card, boolean toDealer);
+
+    /**
+     * Called when a decision is carried out, before any card it deals.
+     *
+     * @param decision One of STAND, HIT, DOUBLE, SPLIT or SURRENDER
+     */
+    public void decisionMade(DecisionEnum decision);
+
+    /**
+     * Called when the shoe is shuffled, either before a round or, if the shoe
+     * runs out, during one.
+     */
+    public void shoeShuffled();
+
+    /**
+     * Called once every hand has been settled.
+     *
+     * @param result The amount the player won or, if negative, lost
+     */
+    public void roundFinished(double result);
+
+}
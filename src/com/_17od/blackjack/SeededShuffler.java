@@ -0,0 +1,56 @@
+package com._17od.blackjack;
+
+import java.util.SplittableRandom;
+
+/**
+ * Shuffles each shoe using its own seed, worked out from a base seed and the
+ * number of the shoe. Every shoe starts from the same ordered cards so the
+ * cards in a shoe only depend on the base seed and which shoe it is. This
+ * means shoes can be shuffled out of order, or on another thread, and still
+ * come out the same.
+ *
+ * @author Adrian Smith
+ */
+public class SeededShuffler implements ShoeShuffler {
+
+    private final long seed;
+    private long shoeNumber;
+
+    /**
+     * @param seed The base seed for every shoe
+     */
+    public SeededShuffler(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void shuffle(byte[] cards) {
+        shuffle(cards, seed, shoeNumber++);
+    }
+
+    /**
+     * Fill the array with the cards for one shoe.
+     *
+     * @param cards The array to fill. Its length must be a multiple of 52.
+     * @param seed The base seed
+     * @param shoeNumber The number of the shoe, starting from 0
+     */
+    public static void shuffle(byte[] cards, long seed, long shoeNumber) {
+        for (int i=0; i<cards.length; i++) {
+            cards[i] = (byte) (i % Card.NUMBER_OF_CARDS);
+        }
+        Shoe.shuffle(cards, new SplittableRandom(seedFor(seed, shoeNumber)));
+    }
+
+    /**
+     * Mix the shoe number into the base seed so that neighbouring shoes get
+     * unrelated seeds.
+     */
+    private static long seedFor(long seed, long shoeNumber) {
+        long z = seed + (shoeNumber + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,199 @@
+package com._17od.blackjack;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The shoe the dealer deals cards from. It holds one or more decks shuffled
+ * together.
+ * <p>
+ * The cards are held as card codes (see {@link Card#getCode()}) in a byte
+ * array which is shuffled in place, so neither shuffling nor dealing creates
+ * any objects. How the cards are shuffled is up to the shoe's
+ * {@link ShoeShuffler}.
+ * <p>
+ * A cut card is placed in the shoe according to the penetration, the fraction
+ * of the shoe dealt before it's shuffled again. Once it's been reached
+ * {@link #isCutCardReached()} returns true and it's up to the dealer to
+ * shuffle before the next round. If the shoe runs out during a round
+ * {@link #shuffleDiscards(byte[], int)} shuffles a shoe without the cards
+ * still on the table, so they can't be dealt twice in the same round.
+ *
+ * @author Adrian Smith
+ */
+public class Shoe implements CardSource {
+
+    private final byte[] cards;
+    private final ShoeShuffler shuffler;
+    private final int cutCard;
+    private int position;
+
+    /**
+     * The number of cards in the shoe. It's less than the length of the
+     * array after the discards have been shuffled part way through a round.
+     */
+    private int size;
+
+    /**
+     * Create a shuffled shoe.
+     *
+     * @param numberOfDecks The number of decks in the shoe
+     * @param penetration The fraction of the shoe dealt before the cut card is
+     * reached, greater than 0 and no more than 1
+     * @param random The random number generator used to shuffle the shoe
+     */
+    public Shoe(int numberOfDecks, double penetration, RandomGenerator random) {
+        this(numberOfDecks, penetration, randomShuffler(random));
+    }
+
+    /**
+     * Create a shuffled shoe.
+     *
+     * @param numberOfDecks The number of decks in the shoe
+     * @param penetration The fraction of the shoe dealt before the cut card is
+     * reached, greater than 0 and no more than 1
+     * @param shuffler Arranges the cards each time the shoe is shuffled
+     */
+    public Shoe(int numberOfDecks, double penetration, ShoeShuffler shuffler) {
+        if (penetration <= 0 || penetration > 1) {
+            throw new IllegalArgumentException("Penetration must be greater than 0 and no more than 1");
+        }
+
+        this.cards = new byte[numberOfDecks * Card.NUMBER_OF_CARDS];
+        this.shuffler = shuffler;
+        this.cutCard = (int) Math.round(cards.length * penetration);
+
+        for (int i=0; i<cards.length; i++) {
+            cards[i] = (byte) (i % Card.NUMBER_OF_CARDS);
+        }
+
+        shuffle();
+    }
+
+    /**
+     * Create a shoe that deals the given cards in order before shuffling. The
+     * cut card is at the back of the shoe.
+     *
+     * @param cards The codes of the cards in the order they'll be dealt
+     * @param random The random number generator used to shuffle the shoe
+     */
+    Shoe(byte[] cards, RandomGenerator random) {
+        this.cards = cards;
+        this.shuffler = randomShuffler(random);
+        this.cutCard = cards.length;
+        this.size = cards.length;
+    }
+
+    /**
+     * Shuffle all the cards back into the shoe.
+     */
+    public void shuffle() {
+        shuffler.shuffle(cards);
+        position = 0;
+        size = cards.length;
+    }
+
+    /**
+     * Shuffle every card except the ones still in play back into the shoe.
+     * A whole shoe is shuffled as usual and then one copy of each card in
+     * play is taken out, which leaves the rest in a random order. The cut
+     * card stays where it was, so it will have been reached by the end of
+     * the round if the shoe's now smaller than that. The cards in play must
+     * be cards from this shoe.
+     *
+     * @param inPlay The codes of the cards in play
+     * @param numInPlay The number of cards in play
+     * @throws GameException if the cards in play are the whole shoe
+     */
+    @Override
+    public void shuffleDiscards(byte[] inPlay, int numInPlay) {
+        if (numInPlay >= cards.length) {
+            throw new GameException("There are no discards to shuffle");
+        }
+        shuffle();
+
+        int[] toRemove = new int[Card.NUMBER_OF_CARDS];
+        for (int i=0; i<numInPlay; i++) {
+            toRemove[inPlay[i]]++;
+        }
+        int kept = 0;
+        for (int i=0; i<cards.length; i++) {
+            byte card = cards[i];
+            if (toRemove[card] > 0) {
+                toRemove[card]--;
+            } else {
+                cards[kept++] = card;
+            }
+        }
+        size = kept;
+
+        // Keep the whole shoe in the array for shufflers that rearrange
+        // whatever's there
+        System.arraycopy(inPlay, 0, cards, kept, cards.length - kept);
+    }
+
+    /**
+     * Shuffle the cards in place using a Fisher-Yates shuffle.
+     *
+     * @param cards The card codes to shuffle
+     * @param random The random number generator to use
+     */
+    public static void shuffle(byte[] cards, RandomGenerator random) {
+        for (int i=cards.length - 1; i>0; i--) {
+            int j = random.nextInt(i + 1);
+            byte card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+    }
+
+    /**
+     * Take the next card from the shoe. The shoe mustn't be empty.
+     *
+     * @return the code of the next card
+     */
+    public int dealCode() {
+        return cards[position++];
+    }
+
+    /**
+     * Take the next card from the shoe. The shoe mustn't be empty.
+     *
+     * @return the next card
+     */
+    public Card deal() {
+        return Card.valueOf(cards[position++]);
+    }
+
+    /**
+     * @return true once the cut card has come out and the shoe should be
+     * shuffled before the next round
+     */
+    public boolean isCutCardReached() {
+        return position >= Math.min(cutCard, size);
+    }
+
+    public int getCardsLeft() {
+        return size - position;
+    }
+
+    public int getCardsDealt() {
+        return position;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Shuffle whatever order the cards are currently in using the given
+     * generator.
+     */
+    private static ShoeShuffler randomShuffler(final RandomGenerator random) {
+        return new ShoeShuffler() {
+            public void shuffle(byte[] cards) {
+                Shoe.shuffle(cards, random);
+            }
+        };
+    }
+
+}
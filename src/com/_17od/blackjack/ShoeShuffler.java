@@ -0,0 +1,19 @@
+package com._17od.blackjack;
+
+/**
+ * Arranges the cards for each new shoe. A {@link Shoe} asks its shuffler for a
+ * new arrangement every time it's shuffled.
+ *
+ * @author Adrian Smith
+ */
+public interface ShoeShuffler {
+
+    /**
+     * Rearrange the cards into the next shoe.
+     *
+     * @param cards The codes of every card in the shoe. On return they must
+     * hold the same cards in the order they'll be dealt.
+     */
+    public void shuffle(byte[] cards);
+
+}
@@ -0,0 +1,109 @@
+package com._17od.blackjack;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Shuffles shoes ahead of time on other threads so the thread playing the game
+ * only has to copy in a shoe that's ready to go.
+ * <p>
+ * Up to a fixed number of shoes are queued up on an {@link ExecutorService}.
+ * Each time a shoe is taken the next one is queued. The shoes are shuffled in
+ * exactly the same way as {@link SeededShuffler}, so a game gives the same
+ * results whether or not it uses a pipeline.
+ * <p>
+ * A pipeline must only be used by one thread, the one playing the game. It
+ * should be closed once it's no longer needed so any shoes still queued are
+ * cancelled.
+ *
+ * @author Adrian Smith
+ */
+public class ShufflePipeline implements ShoeShuffler {
+
+    private final ExecutorService executor;
+    private final int shoeSize;
+    private final long seed;
+    private final ArrayDeque<Future<byte[]>> queuedShoes;
+    private final ArrayDeque<byte[]> spareShoes;
+    private long nextShoeNumber;
+
+    /**
+     * Create a pipeline and start shuffling the first shoes.
+     *
+     * @param numberOfDecks The number of decks in each shoe
+     * @param seed The base seed, as used by {@link SeededShuffler}
+     * @param executor The executor to shuffle the shoes on
+     * @param depth The number of shoes to keep queued
+     */
+    public ShufflePipeline(int numberOfDecks, long seed,
+            ExecutorService executor, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The pipeline depth must be at least 1");
+        }
+
+        this.executor = executor;
+        this.shoeSize = numberOfDecks * Card.NUMBER_OF_CARDS;
+        this.seed = seed;
+        this.queuedShoes = new ArrayDeque<Future<byte[]>>(depth);
+        this.spareShoes = new ArrayDeque<byte[]>(depth);
+
+        for (int i=0; i<depth; i++) {
+            queueNextShoe();
+        }
+    }
+
+    /**
+     * Copy the next shoe into the cards, waiting for it to be shuffled if it
+     * isn't ready yet.
+     */
+    @Override
+    public void shuffle(byte[] cards) {
+        if (cards.length != shoeSize) {
+            throw new IllegalArgumentException("Expected a shoe of " + shoeSize + " cards");
+        }
+
+        byte[] shoe = null;
+        try {
+            shoe = queuedShoes.remove().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GameException("Interrupted waiting for a shuffled shoe");
+        } catch (ExecutionException e) {
+            throw new GameException("Failed to shuffle a shoe", e.getCause());
+        }
+
+        System.arraycopy(shoe, 0, cards, 0, shoeSize);
+        spareShoes.add(shoe);
+        queueNextShoe();
+    }
+
+    /**
+     * Cancel any shoes still queued.
+     */
+    public void close() {
+        for (Future<byte[]> shoe : queuedShoes) {
+            shoe.cancel(false);
+        }
+        queuedShoes.clear();
+    }
+
+    /**
+     * Shuffle the next shoe reusing a spare array if there is one.
+     */
+    private void queueNextShoe() {
+        byte[] spare = spareShoes.poll();
+        final byte[] shoe = spare != null ? spare : new byte[shoeSize];
+        final long shoeNumber = nextShoeNumber++;
+
+        queuedShoes.add(executor.submit(new Callable<byte[]>() {
+            public byte[] call() {
+                SeededShuffler.shuffle(shoe, seed, shoeNumber);
+                return shoe;
+            }
+        }));
+    }
+
+}
@@ -0,0 +1,51 @@
+package com._17od.blackjack.advisory;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * The answer to one request sent to an {@link AdvisoryServer}.
+ *
+ * @author Adrian Smith
+ */
+public class Advice {
+
+    private static final DecisionEnum[] DECISIONS = DecisionEnum.values();
+
+    private final int status;
+    private final DecisionEnum decision;
+    private final int bet;
+
+    Advice(int status, int decision, int bet) {
+        this.status = status;
+        this.decision = status == AdvisoryProtocol.OK ? DECISIONS[decision] : null;
+        this.bet = bet;
+    }
+
+    /**
+     * @return {@link AdvisoryProtocol#OK} or one of the errors
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the next move, one of STAND, HIT, DOUBLE, SPLIT or SURRENDER,
+     * or null if the request failed
+     */
+    public DecisionEnum getDecision() {
+        return decision;
+    }
+
+    /**
+     * @return the amount to bet
+     */
+    public int getBet() {
+        return bet;
+    }
+
+    @Override
+    public String toString() {
+        return "status=" + status + ", decision=" + decision + ", bet=" + bet;
+    }
+
+}
@@ -0,0 +1,164 @@
+package com._17od.blackjack.advisory;
+
+import static com._17od.blackjack.advisory.AdvisoryProtocol.AFTER_SPLIT;
+import static com._17od.blackjack.advisory.AdvisoryProtocol.INVALID_REQUEST;
+import static com._17od.blackjack.advisory.AdvisoryProtocol.MAX_CARDS;
+import static com._17od.blackjack.advisory.AdvisoryProtocol.OK;
+import static com._17od.blackjack.advisory.AdvisoryProtocol.SHOE_STATE;
+import static com._17od.blackjack.advisory.AdvisoryProtocol.UNKNOWN_RULES;
+
+import java.nio.ByteBuffer;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameException;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Hand;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CardCounter;
+import com._17od.blackjack.counting.CountingSystem;
+import com._17od.blackjack.strategy.BasicStrategy;
+import com._17od.blackjack.strategy.Strategy;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Answers {@link AdvisoryProtocol} requests. The decision comes from basic
+ * strategy for the rules the request names. The bet is the minimum bet unless
+ * the request gives the state of the shoe, in which case it's sized from the
+ * count by a bet ramp as in
+ * {@link com._17od.blackjack.strategy.CountingStrategy}.
+ * <p>
+ * Each set of rules is given an ID, 0 to 255, when it's added. Its game,
+ * hands and strategy are created then, and the strategy's table compiled, so
+ * answering a request only deals the request's cards into the hands and looks
+ * up the move. Nothing is allocated.
+ * <p>
+ * Instances aren't thread safe. Each thread answering requests needs its own
+ * advisor.
+ *
+ * @author Adrian Smith
+ */
+public class Advisor {
+
+    private final CountingSystem system;
+    private final BetRamp betRamp;
+    private final Table[] tables = new Table[256];
+
+    /**
+     * @param system The counting system the running counts in requests are
+     * from
+     * @param betRamp The number of units to bet at each count
+     */
+    public Advisor(CountingSystem system, BetRamp betRamp) {
+        this.system = system;
+        this.betRamp = betRamp;
+    }
+
+    /**
+     * Make a set of rules available to requests.
+     *
+     * @param id The ID requests will use for the rules, 0 to 255
+     * @param rules The rules. They mustn't be changed afterwards.
+     */
+    public void addRules(int id, GameRules rules) {
+        if (id < 0 || id >= tables.length) {
+            throw new IllegalArgumentException("Rules IDs must be between 0 and " + (tables.length - 1));
+        }
+        tables[id] = new Table(rules);
+    }
+
+    /**
+     * Answer the request at the buffer's position. The whole request must be
+     * between the position and the limit. The position is moved past it.
+     *
+     * @param in The request
+     * @param out Where to put the response
+     */
+    public void advise(ByteBuffer in, ByteBuffer out) {
+        int end = in.position() + AdvisoryProtocol.requestSize(in);
+        int rulesId = in.get() & 0xff;
+        int flags = in.get();
+        int splitCount = in.get() & 0xff;
+        int dealerCard = in.get();
+        int numCards = in.get() & 0xff;
+
+        Table table = tables[rulesId];
+        if (table == null) {
+            in.position(end);
+            AdvisoryProtocol.putResponse(out, UNKNOWN_RULES, 0, 0);
+            return;
+        }
+        if (numCards < 2 || numCards > MAX_CARDS || !isCard(dealerCard)
+                || splitCount >= table.rules.getMaxSplitHands()) {
+            in.position(end);
+            AdvisoryProtocol.putResponse(out, INVALID_REQUEST, 0, 0);
+            return;
+        }
+
+        Hand hand = table.player.getHand();
+        hand.clear();
+        hand.setCameFromSplit((flags & AFTER_SPLIT) != 0);
+        hand.setSplitCount(splitCount);
+        for (int i=0; i<numCards; i++) {
+            int code = in.get();
+            if (!isCard(code)) {
+                in.position(end);
+                AdvisoryProtocol.putResponse(out, INVALID_REQUEST, 0, 0);
+                return;
+            }
+            hand.add(Card.valueOf(code));
+        }
+        Hand dealerHand = table.game.getDealer().getHand();
+        dealerHand.clear();
+        dealerHand.add(Card.valueOf(dealerCard));
+
+        int bet = table.rules.getMinimumBet();
+        if ((flags & SHOE_STATE) != 0) {
+            int runningCount = in.getInt();
+            int cardsLeft = in.getShort();
+            if (cardsLeft <= 0) {
+                AdvisoryProtocol.putResponse(out, INVALID_REQUEST, 0, 0);
+                return;
+            }
+            int count = system.isBalanced()
+                    ? CardCounter.trueCount(runningCount, cardsLeft)
+                    : runningCount;
+            bet *= betRamp.units(count);
+        }
+
+        DecisionEnum decision;
+        try {
+            decision = table.strategy.nextDecision();
+        } catch (GameException e) {
+            // The hand is bust
+            AdvisoryProtocol.putResponse(out, INVALID_REQUEST, 0, 0);
+            return;
+        }
+        AdvisoryProtocol.putResponse(out, OK, decision.ordinal(), bet);
+    }
+
+    private static boolean isCard(int code) {
+        return code >= 0 && code < Card.NUMBER_OF_CARDS;
+    }
+
+    /**
+     * A game with one player for a set of rules.
+     */
+    private static class Table {
+
+        private GameRules rules;
+        private Game game;
+        private Player player;
+        private Strategy strategy;
+
+        Table(GameRules rules) {
+            this.rules = rules;
+            this.game = new Game(rules);
+            this.player = new Player();
+            this.strategy = new BasicStrategy(game, player);
+        }
+
+    }
+
+}
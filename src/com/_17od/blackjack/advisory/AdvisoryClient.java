@@ -0,0 +1,225 @@
+package com._17od.blackjack.advisory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+
+/**
+ * A connection to an {@link AdvisoryServer}.
+ * <p>
+ * Requests are buffered by {@link #send} and go to the server when
+ * {@link #flush()} or {@link #receive()} is called, so a batch of requests
+ * can be sent together and their answers received afterwards, in the same
+ * order. {@link #advise} sends one request and waits for its answer. A batch
+ * shouldn't be more than a few thousand requests, otherwise the server will
+ * stop reading until some of the answers have been received.
+ * <p>
+ * Instances aren't thread safe.
+ *
+ * @author Adrian Smith
+ */
+public class AdvisoryClient implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * @param address The server's address, either an
+     * {@link InetSocketAddress} or a {@link UnixDomainSocketAddress}
+     */
+    public AdvisoryClient(SocketAddress address) throws IOException {
+        channel = SocketChannel.open(address);
+        if (address instanceof InetSocketAddress) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+        }
+        in.flip();
+    }
+
+    /**
+     * Ask for the next move on a hand that hasn't been split.
+     */
+    public Advice advise(int rulesId, Card dealerCard, Card... playerCards)
+            throws IOException {
+        send(rulesId, dealerCard, playerCards);
+        return receive();
+    }
+
+    /**
+     * Queue a request for the next move on a hand that hasn't been split.
+     */
+    public void send(int rulesId, Card dealerCard, Card... playerCards)
+            throws IOException {
+        send(rulesId, dealerCard, playerCards, 0, false);
+    }
+
+    /**
+     * Queue a request for the next move.
+     *
+     * @param rulesId The ID the rules were given on the server
+     * @param dealerCard The dealer's faceup card
+     * @param playerCards The cards in the player's hand
+     * @param splitCount The number of times the hand has been split so far
+     * @param afterSplit True if the hand was split off from a pair
+     */
+    public void send(int rulesId, Card dealerCard, Card[] playerCards,
+            int splitCount, boolean afterSplit) throws IOException {
+        int flags = afterSplit ? AdvisoryProtocol.AFTER_SPLIT : 0;
+        putRequest(rulesId, flags, splitCount, dealerCard, playerCards);
+    }
+
+    /**
+     * Queue a request for the next move and for a bet sized from the count.
+     *
+     * @param runningCount The running count of the shoe
+     * @param cardsLeft The number of cards left in the shoe
+     * @see #send(int, Card, Card[], int, boolean)
+     */
+    public void send(int rulesId, Card dealerCard, Card[] playerCards,
+            int splitCount, boolean afterSplit, int runningCount,
+            int cardsLeft) throws IOException {
+        int flags = AdvisoryProtocol.SHOE_STATE
+                | (afterSplit ? AdvisoryProtocol.AFTER_SPLIT : 0);
+        putRequest(rulesId, flags, splitCount, dealerCard, playerCards);
+        out.putInt(runningCount);
+        out.putShort((short) cardsLeft);
+    }
+
+    /**
+     * Send the requests queued so far.
+     */
+    public void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Wait for the answer to the oldest request that hasn't been answered
+     * yet. Any queued requests are sent first.
+     */
+    public Advice receive() throws IOException {
+        if (out.position() > 0) {
+            flush();
+        }
+        while (in.remaining() < AdvisoryProtocol.RESPONSE_SIZE) {
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) {
+                throw new EOFException("The server closed the connection");
+            }
+        }
+        int status = in.get();
+        int decision = in.get();
+        int bet = in.getInt();
+        return new Advice(status, decision, bet);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void putRequest(int rulesId, int flags, int splitCount,
+            Card dealerCard, Card[] playerCards) throws IOException {
+        if (playerCards.length > 255) {
+            throw new IllegalArgumentException("Too many cards: " + playerCards.length);
+        }
+        if (out.remaining() < AdvisoryProtocol.MAX_REQUEST_SIZE) {
+            flush();
+        }
+        out.put((byte) rulesId);
+        out.put((byte) flags);
+        out.put((byte) splitCount);
+        out.put((byte) dealerCard.getCode());
+        out.put((byte) playerCards.length);
+        for (Card card : playerCards) {
+            out.put((byte) card.getCode());
+        }
+    }
+
+    /**
+     * Measure the time a server takes to answer one request at a time and
+     * how many requests a second it answers in batches.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AdvisoryClient <host> <port> | <socket path> [requests] [batch size]");
+            System.exit(1);
+        }
+
+        // The server's socket file exists while it's listening
+        SocketAddress address;
+        int next;
+        if (new File(args[0]).exists()) {
+            address = UnixDomainSocketAddress.of(args[0]);
+            next = 1;
+        } else if (args.length > 1) {
+            address = new InetSocketAddress(args[0], Integer.parseInt(args[1]));
+            next = 2;
+        } else {
+            System.err.println("No such socket: " + args[0]);
+            System.exit(1);
+            return;
+        }
+        int requests = args.length > next ? Integer.parseInt(args[next]) : 100000;
+        int batchSize = args.length > next + 1 ? Integer.parseInt(args[next + 1]) : 1000;
+
+        Card dealerCard = Card.valueOf(Rank.TEN, Suit.SPADES);
+        Card[] playerCards = new Card[] {
+                Card.valueOf(Rank.TEN, Suit.HEARTS),
+                Card.valueOf(Rank.SIX, Suit.CLUBS)};
+
+        AdvisoryClient client = new AdvisoryClient(address);
+        try {
+            // Warm up both ends before measuring
+            for (int i=0; i<requests / 10; i++) {
+                client.advise(0, dealerCard, playerCards);
+            }
+
+            long[] latencies = new long[requests];
+            for (int i=0; i<requests; i++) {
+                long start = System.nanoTime();
+                client.advise(0, dealerCard, playerCards);
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            System.out.println("p50 " + latencies[requests / 2] / 1000.0 + "us");
+            System.out.println("p99 " + latencies[(int) (requests * 0.99)] / 1000.0 + "us");
+            System.out.println("p99.9 " + latencies[(int) (requests * 0.999)] / 1000.0 + "us");
+
+            long start = System.nanoTime();
+            for (int sent=0; sent<requests; sent+=batchSize) {
+                for (int i=0; i<batchSize; i++) {
+                    client.send(0, dealerCard, playerCards);
+                }
+                for (int i=0; i<batchSize; i++) {
+                    client.receive();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("Batches of " + batchSize + ": "
+                    + (long) (requests / (elapsed / 1e9)) + " requests/s");
+        } finally {
+            client.close();
+        }
+    }
+
+}
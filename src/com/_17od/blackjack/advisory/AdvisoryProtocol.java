@@ -0,0 +1,81 @@
+package com._17od.blackjack.advisory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol spoken between an {@link AdvisoryClient} and an
+ * {@link AdvisoryServer}.
+ * <p>
+ * A client sends any number of requests without waiting and the server
+ * answers each one, in the order they were sent. Every number is big-endian.
+ * A request is:
+ * <pre>
+ *   byte   rules ID
+ *   byte   flags, {@link #AFTER_SPLIT} and {@link #SHOE_STATE}
+ *   byte   the number of times the hand has been split so far, less than
+ *          the rules' maximum number of split hands
+ *   byte   the dealer's faceup card code
+ *   byte   the number of cards in the player's hand, n
+ *   n bytes  the player's card codes
+ *   int    running count, only if {@link #SHOE_STATE} is set
+ *   short  cards left in the shoe, only if {@link #SHOE_STATE} is set
+ * </pre>
+ * and a response is:
+ * <pre>
+ *   byte   status, {@link #OK} or one of the errors
+ *   byte   the {@link com._17od.blackjack.strategy.Strategy.DecisionEnum}
+ *          ordinal
+ *   int    the amount to bet
+ * </pre>
+ * Card codes are as {@link com._17od.blackjack.Card#getCode()}.
+ *
+ * @author Adrian Smith
+ */
+public final class AdvisoryProtocol {
+
+    /** The hand was split off from a pair */
+    public static final int AFTER_SPLIT = 1;
+
+    /** The running count and cards left follow the cards */
+    public static final int SHOE_STATE = 2;
+
+    public static final int OK = 0;
+    public static final int UNKNOWN_RULES = 1;
+    public static final int INVALID_REQUEST = 2;
+
+    /** No hand can have more cards than this without being bust */
+    public static final int MAX_CARDS = 21;
+
+    static final int HEADER_SIZE = 5;
+    static final int SHOE_STATE_SIZE = 6;
+    static final int MAX_REQUEST_SIZE = HEADER_SIZE + 255 + SHOE_STATE_SIZE;
+    static final int RESPONSE_SIZE = 6;
+
+    private AdvisoryProtocol() {
+    }
+
+    /**
+     * @param buffer Bytes received, from the position to the limit
+     * @return the size of the request at the buffer's position or -1 if not
+     * enough of it has been received to tell
+     */
+    static int requestSize(ByteBuffer buffer) {
+        int position = buffer.position();
+        if (buffer.limit() - position < HEADER_SIZE) {
+            return -1;
+        }
+        int size = HEADER_SIZE + (buffer.get(position + 4) & 0xff);
+        if ((buffer.get(position + 1) & SHOE_STATE) != 0) {
+            size += SHOE_STATE_SIZE;
+        }
+        return size;
+    }
+
+    static void putResponse(ByteBuffer out, int status, int decision,
+            int bet) {
+        out.put((byte) status);
+        out.put((byte) decision);
+        out.putInt(bet);
+    }
+
+}
@@ -0,0 +1,268 @@
+package com._17od.blackjack.advisory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.util.Iterator;
+
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CountingSystem;
+
+/**
+ * A long-running server that answers {@link AdvisoryProtocol} requests using
+ * an {@link Advisor}, so a client can ask for the next move and bet without
+ * starting a JVM each time. It listens on either a TCP port or a Unix domain
+ * socket. A client on the same machine gets its answers sooner over a Unix
+ * domain socket as the requests don't go through the TCP stack.
+ * <p>
+ * Every connection is served by one thread using a NIO {@link Selector}.
+ * Whatever requests have arrived on a connection are answered together and
+ * the responses written back in a single write, so a client that sends
+ * requests without waiting for the answers gets them in batches. If a client
+ * doesn't read its responses the server stops reading its requests until it
+ * does. TCP connections have Nagle's algorithm turned off so a lone request is
+ * answered straight away.
+ * <p>
+ * The advisor's strategies are built when the rules are added, before the
+ * server starts, so they're warm before the first request arrives.
+ *
+ * @author Adrian Smith
+ */
+public class AdvisoryServer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Advisor advisor;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final UnixDomainSocketAddress unixAddress;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Start listening on the given address.
+     *
+     * @param advisor Answers the requests. It's only used by the server's
+     * thread.
+     * @param address The address to listen on, either an
+     * {@link InetSocketAddress}, where port 0 picks a free port, or a
+     * {@link UnixDomainSocketAddress}. The socket file mustn't exist yet and
+     * is deleted when the server is closed.
+     */
+    public AdvisoryServer(Advisor advisor, SocketAddress address)
+            throws IOException {
+        this.advisor = advisor;
+        this.selector = Selector.open();
+        if (address instanceof UnixDomainSocketAddress) {
+            this.unixAddress = (UnixDomainSocketAddress) address;
+            this.serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            this.unixAddress = null;
+            this.serverChannel = ServerSocketChannel.open();
+        }
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.thread = new Thread("advisory-server") {
+            public void run() {
+                serve();
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the port the server is listening on or -1 if it's listening on
+     * a Unix domain socket
+     */
+    public int getPort() {
+        if (unixAddress != null) {
+            return -1;
+        }
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return the address the server is listening on
+     */
+    public SocketAddress getAddress() throws IOException {
+        return serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Stop the server and close every connection.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (unixAddress != null) {
+            Files.deleteIfExists(unixAddress.getPath());
+        }
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            service(key);
+                        }
+                    } catch (IOException e) {
+                        // The client has gone away. Just drop the connection.
+                        closeConnection(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeConnection(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        if (unixAddress == null) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+        }
+        channel.register(selector, SelectionKey.OP_READ, new Connection());
+    }
+
+    /**
+     * Read whatever has arrived, answer every complete request and write the
+     * responses.
+     */
+    private void service(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+
+        if (key.isReadable()) {
+            if (channel.read(connection.in) < 0) {
+                closeConnection(key);
+                return;
+            }
+        }
+
+        // Keep going until every request read has been answered or the
+        // client stops taking the responses
+        boolean unanswered;
+        boolean pending;
+        do {
+            unanswered = answer(connection);
+            connection.out.flip();
+            channel.write(connection.out);
+            pending = connection.out.hasRemaining();
+            connection.out.compact();
+        } while (unanswered && !pending);
+
+        // Stop reading while responses are waiting to be written
+        key.interestOps(pending ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * Answer the complete requests read so far, as many as there's room for.
+     *
+     * @return true if complete requests were left unanswered for lack of room
+     */
+    private boolean answer(Connection connection) {
+        ByteBuffer in = connection.in;
+        in.flip();
+        boolean unanswered = false;
+        while (true) {
+            int size = AdvisoryProtocol.requestSize(in);
+            if (size < 0 || size > in.remaining()) {
+                break;
+            }
+            if (connection.out.remaining() < AdvisoryProtocol.RESPONSE_SIZE) {
+                unanswered = true;
+                break;
+            }
+            advisor.advise(in, connection.out);
+        }
+        in.compact();
+        return unanswered;
+    }
+
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+        }
+    }
+
+    /**
+     * The bytes waiting to be answered and written on one connection.
+     */
+    private static class Connection {
+
+        private ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: AdvisoryServer <port or socket path> [decks for rules 0] [decks for rules 1] ...");
+            System.exit(1);
+        }
+
+        Advisor advisor = new Advisor(CountingSystem.HI_LO, BetRamp.hiLo());
+        if (args.length == 1) {
+            advisor.addRules(0, new GameRules());
+        }
+        for (int i=1; i<args.length; i++) {
+            GameRules rules = new GameRules();
+            rules.setNumberOfDecks(Integer.parseInt(args[i]));
+            advisor.addRules(i - 1, rules);
+        }
+
+        // Anything that isn't a port number is the path of a Unix domain socket
+        SocketAddress address;
+        if (args[0].matches("[0-9]+")) {
+            address = new InetSocketAddress(Integer.parseInt(args[0]));
+        } else {
+            address = UnixDomainSocketAddress.of(args[0]);
+        }
+        AdvisoryServer server = new AdvisoryServer(advisor, address);
+        System.out.println("Listening on " + server.getAddress());
+        server.thread.join();
+    }
+
+}
@@ -0,0 +1,181 @@
+package com._17od.blackjack.analysis;
+
+import com._17od.blackjack.Card;
+
+/**
+ * The cards left in a shoe, counted by value. Suits don't matter when working
+ * out probabilities and 10s, Jacks, Queens and Kings are all worth 10 so
+ * there are only ten different values, 2 to 11 (aces).
+ * <p>
+ * As well as the counts a composition keeps a single long key made by packing
+ * the counts together, 6 bits for each value apart from 10 which gets 8. Two
+ * compositions with the same counts have the same key so the key can be used
+ * to cache calculations. The key is kept up to date as cards are removed and
+ * added back so it costs nothing to get. The packing allows shoes of up to
+ * {@link #MAX_DECKS} decks.
+ *
+ * @author Adrian Smith
+ */
+public class Composition {
+
+    public static final int MAX_DECKS = 15;
+
+    public static final int MIN_VALUE = 2;
+    public static final int MAX_VALUE = 11;
+
+    /**
+     * Where each value's count starts in the key, indexed by value.
+     */
+    private static final int[] SHIFTS = new int[MAX_VALUE + 1];
+
+    static {
+        for (int value=MIN_VALUE; value<=9; value++) {
+            SHIFTS[value] = (value - MIN_VALUE) * 6;
+        }
+        SHIFTS[11] = 48;
+        SHIFTS[10] = 54;
+    }
+
+    private final int[] counts = new int[MAX_VALUE + 1];
+    private int total;
+    private long key;
+
+    /**
+     * Create a full shoe.
+     *
+     * @param numberOfDecks The number of decks in the shoe, 1 to MAX_DECKS
+     */
+    public Composition(int numberOfDecks) {
+        if (numberOfDecks < 1 || numberOfDecks > MAX_DECKS) {
+            throw new IllegalArgumentException("The number of decks must be between 1 and " + MAX_DECKS);
+        }
+
+        for (int value=MIN_VALUE; value<=MAX_VALUE; value++) {
+            int perDeck = value == 10 ? 16 : 4;
+            for (int i=0; i<perDeck * numberOfDecks; i++) {
+                add(value);
+            }
+        }
+    }
+
+    /**
+     * Create a copy of another composition.
+     *
+     * @param composition The composition to copy
+     */
+    public Composition(Composition composition) {
+        System.arraycopy(composition.counts, 0, counts, 0, counts.length);
+        this.total = composition.total;
+        this.key = composition.key;
+    }
+
+    private Composition() {
+    }
+
+    /**
+     * Rebuild a composition from its key.
+     *
+     * @param key A key returned by {@link #key()}
+     * @return the composition
+     */
+    public static Composition fromKey(long key) {
+        Composition composition = new Composition();
+        for (int value=MIN_VALUE; value<=MAX_VALUE; value++) {
+            long mask = value == 10 ? 0xFF : 0x3F;
+            int count = (int) ((key >>> SHIFTS[value]) & mask);
+            composition.counts[value] = count;
+            composition.total += count;
+        }
+        composition.key = key;
+        return composition;
+    }
+
+    /**
+     * Take a card out of the shoe.
+     *
+     * @param value The card's value, 2 to 11
+     */
+    public void remove(int value) {
+        if (counts[value] == 0) {
+            throw new IllegalStateException("There are no cards of value " + value + " left");
+        }
+        counts[value]--;
+        total--;
+        key -= 1L << SHIFTS[value];
+    }
+
+    /**
+     * Take a card out of the shoe.
+     *
+     * @param card The card
+     */
+    public void remove(Card card) {
+        remove(card.getValue());
+    }
+
+    /**
+     * Put a card back in the shoe.
+     *
+     * @param value The card's value, 2 to 11
+     */
+    public void add(int value) {
+        counts[value]++;
+        total++;
+        key += 1L << SHIFTS[value];
+    }
+
+    /**
+     * @param value A card value, 2 to 11
+     * @return the number of cards of that value left
+     */
+    public int count(int value) {
+        return counts[value];
+    }
+
+    /**
+     * @return the number of cards left
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @param value A card value, 2 to 11
+     * @return the value of the card counting aces as 1
+     */
+    public static int hardValue(int value) {
+        return value == MAX_VALUE ? 1 : value;
+    }
+
+    /**
+     * @return the packed counts
+     */
+    public long key() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Composition && ((Composition) obj).key == key;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (key ^ (key >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        for (int value=MIN_VALUE; value<=MAX_VALUE; value++) {
+            if (value > MIN_VALUE) {
+                buf.append(", ");
+            }
+            buf.append(value == 11 ? "A" : String.valueOf(value));
+            buf.append('=');
+            buf.append(counts[value]);
+        }
+        return buf.toString();
+    }
+
+}
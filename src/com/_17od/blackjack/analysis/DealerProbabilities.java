@@ -0,0 +1,252 @@
+package com._17od.blackjack.analysis;
+
+import java.util.HashMap;
+
+import com._17od.blackjack.GameRules;
+
+/**
+ * Works out the exact probability of each way the dealer's hand can finish
+ * given the dealer's faceup card and the cards left in the shoe.
+ * <p>
+ * The dealer's play is fixed by the rules so the probabilities can be found by
+ * following every card the dealer could draw, removing it from the shoe as it
+ * goes. The same part-played hands come up again and again so the result for
+ * each one is cached. The cache is keyed by the dealer's hard total, whether
+ * the dealer holds an ace and the {@link Composition#key()} of the shoe, which
+ * means results are reused across calls for different shoes too. Once the cache
+ * holds more than a set number of hands it's cleared.
+ * <p>
+ * If the shoe runs out while the dealer is drawing it's shuffled, as it would
+ * be in a game, so the dealer carries on drawing from a full shoe.
+ * <p>
+ * The probabilities are returned in an array indexed by DEALER_17 to
+ * DEALER_21, BUST and BLACKJACK.
+ * <p>
+ * Instances aren't thread safe. Use one per thread.
+ *
+ * @author Adrian Smith
+ */
+public class DealerProbabilities {
+
+    public static final int DEALER_17 = 0;
+    public static final int DEALER_18 = 1;
+    public static final int DEALER_19 = 2;
+    public static final int DEALER_20 = 3;
+    public static final int DEALER_21 = 4;
+    public static final int BUST = 5;
+    public static final int BLACKJACK = 6;
+
+    public static final int OUTCOMES = 7;
+
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1 << 20;
+
+    /**
+     * The outcome of a hand the dealer stands on, indexed by final total - 17
+     * and then BUST.
+     */
+    private static final double[][] FINISHED = new double[BUST + 1][BUST + 1];
+
+    static {
+        for (int outcome=0; outcome<=BUST; outcome++) {
+            FINISHED[outcome][outcome] = 1;
+        }
+    }
+
+    /**
+     * One map per dealer state, indexed by hard total * 2 plus 1 if the dealer
+     * holds an ace. Only hands the dealer still has to draw to are cached.
+     */
+    private HashMap<Long, double[]>[] cache;
+    private int cacheSize;
+    private int maxCacheSize;
+    private boolean hitsSoft17;
+    private int numberOfDecks;
+
+    /**
+     * @param rules The rules of the game. The soft 17 rule and the number of
+     * decks are used.
+     */
+    public DealerProbabilities(GameRules rules) {
+        this(rules.dealerHitsSoft17(), rules.getNumberOfDecks());
+    }
+
+    /**
+     * @param hitsSoft17 True if the dealer hits a soft 17
+     * @param numberOfDecks The number of decks in a full shoe
+     */
+    public DealerProbabilities(boolean hitsSoft17, int numberOfDecks) {
+        this(hitsSoft17, numberOfDecks, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * @param hitsSoft17 True if the dealer hits a soft 17
+     * @param numberOfDecks The number of decks in a full shoe
+     * @param maxCacheSize The number of hands to cache before the cache is
+     * cleared
+     */
+    @SuppressWarnings("unchecked")
+    public DealerProbabilities(boolean hitsSoft17, int numberOfDecks,
+            int maxCacheSize) {
+        this.hitsSoft17 = hitsSoft17;
+        this.numberOfDecks = numberOfDecks;
+        this.maxCacheSize = maxCacheSize;
+        this.cache = (HashMap<Long, double[]>[]) new HashMap<?, ?>[17 * 2];
+        for (int i=0; i<cache.length; i++) {
+            cache[i] = new HashMap<Long, double[]>();
+        }
+    }
+
+    /**
+     * Work out how the dealer's hand will finish.
+     *
+     * @param upcard The value of the dealer's faceup card, 2 to 11
+     * @param shoe The cards left in the shoe, not counting the faceup card.
+     * It's changed while the probabilities are worked out but is put back as
+     * it was before this method returns.
+     * @return the probability of each outcome
+     */
+    public double[] probabilities(int upcard, Composition shoe) {
+        return probabilities(upcard, shoe, false);
+    }
+
+    /**
+     * Work out how the dealer's hand will finish given that the dealer has
+     * peeked and doesn't have blackjack. The hole card can't be the card that
+     * would have made blackjack so the BLACKJACK probability is always 0.
+     *
+     * @param upcard The value of the dealer's faceup card, 2 to 11
+     * @param shoe The cards left in the shoe, not counting the faceup card
+     * @return the probability of each outcome
+     */
+    public double[] probabilitiesNoBlackjack(int upcard, Composition shoe) {
+        return probabilities(upcard, shoe, true);
+    }
+
+    public boolean hitsSoft17() {
+        return hitsSoft17;
+    }
+
+    public int getNumberOfDecks() {
+        return numberOfDecks;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void clearCache() {
+        for (HashMap<Long, double[]> map : cache) {
+            map.clear();
+        }
+        cacheSize = 0;
+    }
+
+    /**
+     * Deal the hole card. This is handled separately from the rest of the
+     * dealer's cards as it's the only one that can make blackjack.
+     */
+    private double[] probabilities(int upcard, Composition shoe,
+            boolean noBlackjack) {
+        int blackjackValue = 0;
+        if (upcard == 11) {
+            blackjackValue = 10;
+        } else if (upcard == 10) {
+            blackjackValue = 11;
+        }
+
+        int cards = shoe.getTotal();
+        if (noBlackjack && blackjackValue != 0) {
+            cards -= shoe.count(blackjackValue);
+        }
+
+        double[] result = new double[OUTCOMES];
+        for (int value=Composition.MIN_VALUE; value<=Composition.MAX_VALUE; value++) {
+            int count = shoe.count(value);
+            if (count == 0) {
+                continue;
+            }
+
+            double p = (double) count / cards;
+            if (value == blackjackValue) {
+                if (!noBlackjack) {
+                    result[BLACKJACK] += p;
+                }
+                continue;
+            }
+
+            shoe.remove(value);
+            int hard = Composition.hardValue(upcard) + Composition.hardValue(value);
+            double[] outcome = play(hard, upcard == 11 || value == 11, shoe);
+            shoe.add(value);
+
+            for (int i=0; i<BUST + 1; i++) {
+                result[i] += p * outcome[i];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Play out the rest of the dealer's hand.
+     *
+     * @param hard The dealer's total counting aces as 1
+     * @param ace True if the dealer holds an ace
+     * @param shoe The cards left
+     * @return the probability of each outcome, not including BLACKJACK
+     */
+    private double[] play(int hard, boolean ace, Composition shoe) {
+        int total = hard;
+        boolean soft = false;
+        if (ace && hard + 10 <= 21) {
+            total = hard + 10;
+            soft = true;
+        }
+
+        if (total > 21) {
+            return FINISHED[BUST];
+        }
+        if (total >= 17 && !(hitsSoft17 && soft && total == 17)) {
+            return FINISHED[total - 17];
+        }
+
+        HashMap<Long, double[]> stateCache = cache[hard * 2 + (ace ? 1 : 0)];
+        Long key = Long.valueOf(shoe.key());
+        double[] result = stateCache.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        int cards = shoe.getTotal();
+        if (cards == 0) {
+            return play(hard, ace, new Composition(numberOfDecks));
+        }
+
+        result = new double[BUST + 1];
+        for (int value=Composition.MIN_VALUE; value<=Composition.MAX_VALUE; value++) {
+            int count = shoe.count(value);
+            if (count == 0) {
+                continue;
+            }
+
+            double p = (double) count / cards;
+            shoe.remove(value);
+            double[] outcome = play(hard + Composition.hardValue(value),
+                    ace || value == 11, shoe);
+            shoe.add(value);
+
+            for (int i=0; i<result.length; i++) {
+                result[i] += p * outcome[i];
+            }
+        }
+
+        if (cacheSize >= maxCacheSize) {
+            clearCache();
+        }
+        stateCache.put(key, result);
+        cacheSize++;
+
+        return result;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com._17od.blackjack.analysis;
+
+import java.util.Arrays;
+
+/**
+ * A cache of EVs keyed by the {@link Composition#key()} of the cards left and
+ * an int describing the hand. The composition key uses nearly all of a long so
+ * the two are stored side by side in an open addressing hash table held in
+ * plain arrays, which means looking an EV up or caching one doesn't allocate
+ * anything. The table grows as it fills and is cleared once it holds the
+ * maximum number of entries.
+ * <p>
+ * Every method is synchronized. The work done between lookups is far larger
+ * than the lookups themselves so threads sharing a cache rarely wait.
+ *
+ * @author Adrian Smith
+ */
+class EvCache {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final int maxSize;
+    private long[] compositions;
+    private int[] situations;
+    private double[] evs;
+    private int size;
+
+    /**
+     * @param maxSize The number of entries the cache can hold before it's
+     * cleared
+     */
+    EvCache(int maxSize) {
+        this.maxSize = maxSize;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param composition The key of the cards left
+     * @param situation The hand, which mustn't be 0
+     * @return the EV or NaN if it isn't cached
+     */
+    synchronized double get(long composition, int situation) {
+        int mask = situations.length - 1;
+        int i = index(composition, situation, mask);
+        while (situations[i] != 0) {
+            if (situations[i] == situation && compositions[i] == composition) {
+                return evs[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * @param composition The key of the cards left
+     * @param situation The hand, which mustn't be 0
+     * @param ev The EV to cache
+     */
+    synchronized void put(long composition, int situation, double ev) {
+        if (size >= maxSize) {
+            clear();
+        } else if (size * 2 >= situations.length) {
+            grow();
+        }
+
+        int mask = situations.length - 1;
+        int i = index(composition, situation, mask);
+        while (situations[i] != 0) {
+            if (situations[i] == situation && compositions[i] == composition) {
+                evs[i] = ev;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        compositions[i] = composition;
+        situations[i] = situation;
+        evs[i] = ev;
+        size++;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Empty the cache. It keeps the space it's grown to.
+     */
+    synchronized void clear() {
+        Arrays.fill(situations, 0);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldCompositions = compositions;
+        int[] oldSituations = situations;
+        double[] oldEvs = evs;
+        allocate(oldSituations.length * 2);
+
+        int mask = situations.length - 1;
+        for (int j=0; j<oldSituations.length; j++) {
+            if (oldSituations[j] != 0) {
+                int i = index(oldCompositions[j], oldSituations[j], mask);
+                while (situations[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                compositions[i] = oldCompositions[j];
+                situations[i] = oldSituations[j];
+                evs[i] = oldEvs[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        compositions = new long[capacity];
+        situations = new int[capacity];
+        evs = new double[capacity];
+    }
+
+    private static int index(long composition, int situation, int mask) {
+        long h = (composition * 31 + situation) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+}
@@ -0,0 +1,207 @@
+package com._17od.blackjack.analysis;
+
+import java.util.HashMap;
+
+/**
+ * Works out the expected value (EV) of standing, hitting and doubling for a
+ * player's hand given the exact cards left in the shoe. EVs are per unit of the
+ * original bet so standing on a sure winner is 1 and doubling on one is 2.
+ * <p>
+ * The dealer's outcome probabilities are worked out once from the cards left
+ * at the point of the decision, assuming the dealer has peeked and doesn't
+ * have blackjack. The cards the player draws are taken out of the shoe as the
+ * player's hand is played out but the dealer's probabilities aren't worked out
+ * again for each one. This is the usual approximation made by composition
+ * dependent strategy calculators and is very close to the exact answer. If
+ * the shoe runs out the player draws from a full shoe.
+ * <p>
+ * Instances aren't thread safe. Use one per thread.
+ *
+ * @author Adrian Smith
+ */
+public class ExpectedValues {
+
+    private DealerProbabilities dealer;
+
+    private static final int MAX_HIT_CACHE_SIZE = 1 << 20;
+
+    /**
+     * The best EV of each part-played hand, one map per hand indexed by hard
+     * total * 2 plus 1 if the player holds an ace and keyed by the cards left.
+     * The EVs depend on the dealer's outcome probabilities so the maps are
+     * only kept while hit EVs are worked out against the same array of
+     * outcomes. Hands dealt from the same shoe often end up in the same place
+     * so this saves a lot of work when several are played out in turn.
+     */
+    private HashMap<Long, Double>[] hitCache;
+    private int hitCacheSize;
+    private double[] cachedOutcomes;
+
+    /**
+     * @param dealer Used to work out the dealer's outcome probabilities
+     */
+    @SuppressWarnings("unchecked")
+    public ExpectedValues(DealerProbabilities dealer) {
+        this.dealer = dealer;
+        this.hitCache = (HashMap<Long, Double>[]) new HashMap<?, ?>[21 * 2];
+        for (int i=0; i<hitCache.length; i++) {
+            hitCache[i] = new HashMap<Long, Double>();
+        }
+    }
+
+    /**
+     * Work out the dealer's outcome probabilities given the dealer doesn't
+     * have blackjack.
+     *
+     * @param upcard The value of the dealer's faceup card, 2 to 11
+     * @param shoe The cards not seen yet, which includes the dealer's hole
+     * card
+     * @return the probability of each of the outcomes in
+     * {@link DealerProbabilities}
+     */
+    public double[] dealerOutcomes(int upcard, Composition shoe) {
+        return dealer.probabilitiesNoBlackjack(upcard, shoe);
+    }
+
+    /**
+     * @param total The player's total
+     * @param dealerOutcomes The dealer's outcome probabilities
+     * @return the EV of standing
+     */
+    public static double stand(int total, double[] dealerOutcomes) {
+        if (total > 21) {
+            return -1;
+        }
+
+        double ev = dealerOutcomes[DealerProbabilities.BUST];
+        for (int dealerTotal=17; dealerTotal<=21; dealerTotal++) {
+            double p = dealerOutcomes[dealerTotal - 17];
+            if (total > dealerTotal) {
+                ev += p;
+            } else if (total < dealerTotal) {
+                ev -= p;
+            }
+        }
+        return ev;
+    }
+
+    /**
+     * Work out the EV of hitting and then playing on as well as possible,
+     * hitting again or standing after each card.
+     *
+     * @param hard The player's total counting aces as 1
+     * @param ace True if the player holds an ace
+     * @param shoe The cards not seen yet. It's changed while the EV is worked
+     * out but is put back as it was before this method returns.
+     * @param dealerOutcomes The dealer's outcome probabilities. Pass the same
+     * array each time for hands played against the same outcomes so the
+     * part-played hands they have in common are reused.
+     * @return the EV of hitting
+     */
+    public double hit(int hard, boolean ace, Composition shoe,
+            double[] dealerOutcomes) {
+        if (dealerOutcomes != cachedOutcomes
+                || hitCacheSize >= MAX_HIT_CACHE_SIZE) {
+            clearHitCache();
+            cachedOutcomes = dealerOutcomes;
+        }
+        return hitValue(hard, ace, shoe, dealerOutcomes);
+    }
+
+    /**
+     * Work out the EV of doubling, i.e. taking exactly one more card for twice
+     * the bet.
+     *
+     * @param hard The player's total counting aces as 1
+     * @param ace True if the player holds an ace
+     * @param shoe The cards not seen yet
+     * @param dealerOutcomes The dealer's outcome probabilities
+     * @return the EV of doubling
+     */
+    public double doubleDown(int hard, boolean ace, Composition shoe,
+            double[] dealerOutcomes) {
+        if (shoe.getTotal() == 0) {
+            shoe = new Composition(dealer.getNumberOfDecks());
+        }
+
+        int cards = shoe.getTotal();
+        double ev = 0;
+        for (int value=Composition.MIN_VALUE; value<=Composition.MAX_VALUE; value++) {
+            int count = shoe.count(value);
+            if (count > 0) {
+                int newHard = hard + Composition.hardValue(value);
+                ev += (double) count / cards * stand(
+                        total(newHard, ace || value == 11), dealerOutcomes);
+            }
+        }
+        return 2 * ev;
+    }
+
+    /**
+     * @param hard The player's total counting aces as 1
+     * @param ace True if the player holds an ace
+     * @return the player's total counting an ace as 11 if it doesn't bust
+     */
+    public static int total(int hard, boolean ace) {
+        if (ace && hard + 10 <= 21) {
+            return hard + 10;
+        }
+        return hard;
+    }
+
+    /**
+     * The EV of drawing a card and then playing on as well as possible.
+     */
+    private double hitValue(int hard, boolean ace, Composition shoe,
+            double[] dealerOutcomes) {
+        HashMap<Long, Double> handCache = hitCache[hard * 2 + (ace ? 1 : 0)];
+        Long key = Long.valueOf(shoe.key());
+        Double cached = handCache.get(key);
+        if (cached != null) {
+            return cached.doubleValue();
+        }
+
+        int cards = shoe.getTotal();
+        if (cards == 0) {
+            return hitValue(hard, ace, new Composition(dealer.getNumberOfDecks()),
+                    dealerOutcomes);
+        }
+
+        double ev = 0;
+        for (int value=Composition.MIN_VALUE; value<=Composition.MAX_VALUE; value++) {
+            int count = shoe.count(value);
+            if (count == 0) {
+                continue;
+            }
+
+            double p = (double) count / cards;
+            int newHard = hard + Composition.hardValue(value);
+            boolean newAce = ace || value == 11;
+            int newTotal = total(newHard, newAce);
+
+            if (newTotal > 21) {
+                ev -= p;
+            } else if (newTotal == 21) {
+                ev += p * stand(21, dealerOutcomes);
+            } else {
+                shoe.remove(value);
+                double best = Math.max(stand(newTotal, dealerOutcomes),
+                        hitValue(newHard, newAce, shoe, dealerOutcomes));
+                shoe.add(value);
+                ev += p * best;
+            }
+        }
+
+        handCache.put(key, Double.valueOf(ev));
+        hitCacheSize++;
+        return ev;
+    }
+
+    private void clearHitCache() {
+        for (HashMap<Long, Double> handCache : hitCache) {
+            handCache.clear();
+        }
+        hitCacheSize = 0;
+    }
+
+}
@@ -0,0 +1,337 @@
+package com._17od.blackjack.analysis;
+
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveAction;
+
+import com._17od.blackjack.GameRules;
+
+/**
+ * Works out the expected value (EV) of splitting a pair. Pairs are resplit up
+ * to the maximum number of hands, aces are only resplit if the rules allow it
+ * and doubling after a split follows the rules. Split aces get one card each.
+ * <p>
+ * Each split hand is dealt a second card. If that pairs it again and there's
+ * room for another hand it's split again if that's worth more, otherwise it's
+ * played out as well as possible. Only the paired cards are taken out of the
+ * shoe as the hands are split, the cards drawn to the other hands aren't.
+ * This is the usual approximation made by split calculators and it means the
+ * EV only depends on how many times the pair has been resplit and how many
+ * hands are still waiting for their second card, so the whole split is worked
+ * out from a small table. As in {@link com._17od.blackjack.Round} only a card
+ * of the same rank pairs a hand again, so a quarter of the tens left are
+ * taken to pair a ten. As in {@link ExpectedValues} the dealer's outcome
+ * probabilities aren't worked out again for every card the player draws,
+ * only once for each number of resplits.
+ * <p>
+ * Most of the work is playing out each two card hand. The hands don't depend
+ * on each other so they're worked out in parallel as fork-join tasks, unless
+ * the calculator is told to play them one after another on the calling
+ * thread. That's quicker for a single split while the other threads are
+ * busy, such as during a simulation.
+ * <p>
+ * The EVs of the two card hands are cached, keyed by the
+ * {@link Composition#key()} of the cards left, the hand and the dealer's
+ * faceup card, as are the EVs of whole splits. The caches are
+ * {@link EvCache}s so nothing is allocated for a lookup, and both are cleared
+ * once they hold more than a set number of entries.
+ * <p>
+ * Instances are thread safe. Each thread plays its hands with its own
+ * {@link ExpectedValues}.
+ *
+ * @author Adrian Smith
+ */
+public class SplitCalculator {
+
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1 << 16;
+
+    /**
+     * The fraction of the ten-value cards left taken to be of the same rank
+     * as a pair of tens, as the cards left are only known by value.
+     */
+    private static final double SAME_RANK_TENS = 0.25;
+
+    private final GameRules rules;
+    private final boolean parallel;
+    private final ThreadLocal<ExpectedValues> expectedValues;
+    private final EvCache handCache;
+    private final EvCache splitCache;
+
+    /**
+     * @param rules The rules of the game. They're read each time a split is
+     * worked out so they mustn't be changed while it's in use.
+     */
+    public SplitCalculator(GameRules rules) {
+        this(rules, DEFAULT_MAX_CACHE_SIZE, true);
+    }
+
+    /**
+     * @param rules The rules of the game
+     * @param maxCacheSize The number of entries each cache can hold before
+     * it's cleared
+     * @param parallel True to play the hands out as fork-join tasks, false to
+     * play them one after another on the calling thread
+     */
+    public SplitCalculator(GameRules rules, int maxCacheSize,
+            boolean parallel) {
+        this.rules = rules;
+        this.parallel = parallel;
+        this.handCache = new EvCache(maxCacheSize);
+        this.splitCache = new EvCache(maxCacheSize);
+
+        final boolean hitsSoft17 = rules.dealerHitsSoft17();
+        final int numberOfDecks = rules.getNumberOfDecks();
+        this.expectedValues = new ThreadLocal<ExpectedValues>() {
+            @Override
+            protected ExpectedValues initialValue() {
+                return new ExpectedValues(new DealerProbabilities(hitsSoft17,
+                        numberOfDecks));
+            }
+        };
+    }
+
+    /**
+     * Work out the EV of splitting a pair.
+     *
+     * @param value The value of each card in the pair, 2 to 11
+     * @param upcard The value of the dealer's faceup card, 2 to 11
+     * @param shoe The cards not seen yet, not counting the pair or the
+     * dealer's faceup card. It isn't changed.
+     * @param maxHands The most hands the pair can end up as, at least 2
+     * @return the EV of all the hands added together, per unit of the original
+     * bet
+     */
+    public double split(int value, int upcard, Composition shoe, int maxHands) {
+        if (maxHands < 2) {
+            throw new IllegalArgumentException(
+                    "A pair must be split into at least 2 hands");
+        }
+
+        long shoeKey = shoe.key();
+        int situation = value | upcard << 4 | maxHands << 8;
+        double cached = splitCache.get(shoeKey, situation);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+
+        if (shoe.getTotal() == 0) {
+            shoe = new Composition(rules.getNumberOfDecks());
+        }
+
+        int maxResplits = 0;
+        if (value != 11 || rules.resplitAces()) {
+            maxResplits = Math.min(maxHands - 2, shoe.count(value));
+        }
+
+        // The EV of each two card hand indexed by the number of resplits so
+        // far and the second card
+        double[][] handEvs =
+            new double[maxResplits + 1][Composition.MAX_VALUE + 1];
+        HandsTask hands = new HandsTask(value, upcard, shoe, maxResplits,
+                handEvs);
+        if (parallel) {
+            hands.invoke();
+        } else {
+            hands.compute();
+        }
+
+        double ev = splitValue(value, shoe, maxResplits, handEvs);
+        splitCache.put(shoeKey, situation, ev);
+        return ev;
+    }
+
+    /**
+     * @return the number of split EVs cached
+     */
+    public int getCacheSize() {
+        return splitCache.size();
+    }
+
+    public void clearCache() {
+        splitCache.clear();
+        handCache.clear();
+    }
+
+    /**
+     * Add up the hands. evs[r][k] is the EV of the k hands still waiting for
+     * their second card once the pair has been resplit r times. A hand that
+     * draws another paired card can be split again, which leaves one more hand
+     * waiting. Otherwise it's finished and played out.
+     */
+    private static double splitValue(int value, Composition shoe,
+            int maxResplits, double[][] handEvs) {
+        double[][] evs = new double[maxResplits + 2][maxResplits + 4];
+
+        for (int resplits=maxResplits; resplits>=0; resplits--) {
+            int cards = shoe.getTotal() - resplits;
+            for (int waiting=1; waiting<=resplits + 2; waiting++) {
+                double ev = 0;
+                for (int second=Composition.MIN_VALUE;
+                        second<=Composition.MAX_VALUE; second++) {
+                    int count = shoe.count(second);
+                    if (second == value) {
+                        count -= resplits;
+                    }
+                    if (count <= 0) {
+                        continue;
+                    }
+
+                    double p = (double) count / cards;
+                    double played = handEvs[resplits][second]
+                            + evs[resplits][waiting - 1];
+                    if (second == value && resplits < maxResplits) {
+                        // Only a card of the same rank pairs a ten again
+                        double pairs = value == 10 ? SAME_RANK_TENS : 1;
+                        double resplit = Math.max(played,
+                                evs[resplits + 1][waiting + 1]);
+                        ev += p * (pairs * resplit + (1 - pairs) * played);
+                    } else {
+                        ev += p * played;
+                    }
+                }
+                evs[resplits][waiting] = ev;
+            }
+        }
+
+        return evs[0][2];
+    }
+
+    /**
+     * Work out the EV of a hand made from one of the paired cards and its
+     * second card, playing it out as well as possible.
+     *
+     * @param shoe The cards left once the hand has been dealt
+     * @param dealerOutcomes The dealer's outcome probabilities
+     */
+    private double handValue(int value, int second, int upcard,
+            Composition shoe, double[] dealerOutcomes) {
+        long shoeKey = shoe.key();
+        int situation = value | second << 4 | upcard << 8;
+        double cached = handCache.get(shoeKey, situation);
+        if (!Double.isNaN(cached)) {
+            return cached;
+        }
+
+        ExpectedValues ev = expectedValues.get();
+        int hard = Composition.hardValue(value) + Composition.hardValue(second);
+        boolean ace = value == 11 || second == 11;
+        int total = ExpectedValues.total(hard, ace);
+
+        // Split aces get one card and have to stand
+        double best = ExpectedValues.stand(total, dealerOutcomes);
+        if (value != 11) {
+            best = Math.max(best, ev.hit(hard, ace, shoe, dealerOutcomes));
+            if (canDouble(total)) {
+                best = Math.max(best, ev.doubleDown(hard, ace, shoe,
+                        dealerOutcomes));
+            }
+        }
+
+        handCache.put(shoeKey, situation, best);
+        return best;
+    }
+
+    /**
+     * Whether a split hand with the given total can be doubled. A soft total
+     * counts the ace as 11 so soft hands can never be doubled under the Reno
+     * rules.
+     */
+    private boolean canDouble(int total) {
+        if (!rules.doubleAfterSplit()) {
+            return false;
+        }
+        if (rules.doubleOn91011Only()) {
+            return total >= 9 && total <= 11;
+        } else if (rules.doubleOn1011Only()) {
+            return total == 10 || total == 11;
+        }
+        return true;
+    }
+
+    /**
+     * Plays out every two card hand a split can lead to, one task per hand.
+     */
+    private class HandsTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private int value;
+        private int upcard;
+        private long shoeKey;
+        private int maxResplits;
+        private double[][] handEvs;
+
+        HandsTask(int value, int upcard, Composition shoe, int maxResplits,
+                double[][] handEvs) {
+            this.value = value;
+            this.upcard = upcard;
+            this.shoeKey = shoe.key();
+            this.maxResplits = maxResplits;
+            this.handEvs = handEvs;
+        }
+
+        @Override
+        protected void compute() {
+            Composition shoe = Composition.fromKey(shoeKey);
+            ExpectedValues ev = expectedValues.get();
+            ArrayList<HandTask> tasks = new ArrayList<HandTask>();
+
+            for (int resplits=0; resplits<=maxResplits; resplits++) {
+                if (resplits > 0) {
+                    shoe.remove(value);
+                }
+                double[] dealerOutcomes = ev.dealerOutcomes(upcard, shoe);
+                for (int second=Composition.MIN_VALUE;
+                        second<=Composition.MAX_VALUE; second++) {
+                    if (shoe.count(second) > 0) {
+                        tasks.add(new HandTask(resplits, second, shoe.key(),
+                                dealerOutcomes));
+                    }
+                }
+            }
+
+            if (parallel) {
+                invokeAll(tasks);
+            } else {
+                for (HandTask task : tasks) {
+                    task.compute();
+                }
+            }
+        }
+
+        private class HandTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private int resplits;
+            private int second;
+            private long shoeKey;
+            private double[] dealerOutcomes;
+
+            /**
+             * @param shoeKey The key of the cards left once the pair and any
+             * resplit cards have been taken out
+             */
+            HandTask(int resplits, int second, long shoeKey,
+                    double[] dealerOutcomes) {
+                this.resplits = resplits;
+                this.second = second;
+                this.shoeKey = shoeKey;
+                this.dealerOutcomes = dealerOutcomes;
+            }
+
+            @Override
+            protected void compute() {
+                Composition shoe = Composition.fromKey(shoeKey);
+                shoe.remove(second);
+                if (shoe.getTotal() == 0) {
+                    shoe = new Composition(rules.getNumberOfDecks());
+                }
+                handEvs[resplits][second] = handValue(value, second, upcard,
+                        shoe, dealerOutcomes);
+            }
+
+        }
+
+    }
+
+}
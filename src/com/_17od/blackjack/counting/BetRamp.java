@@ -0,0 +1,65 @@
+package com._17od.blackjack.counting;
+
+import java.util.Arrays;
+
+/**
+ * How many units to bet for each count. The units are held in an array
+ * indexed from the lowest count in the ramp. Counts below the lowest bet the
+ * first number of units and counts above the highest bet the last.
+ * <p>
+ * A ramp never changes once it's built so one ramp can be shared by any number
+ * of strategies.
+ *
+ * @author Adrian Smith
+ */
+public class BetRamp {
+
+    private final int lowestCount;
+    private final int[] units;
+
+    /**
+     * @param lowestCount The count the first number of units is bet at
+     * @param units The number of units to bet at lowestCount, lowestCount + 1
+     * and so on
+     */
+    public BetRamp(int lowestCount, int... units) {
+        if (units.length == 0) {
+            throw new IllegalArgumentException("A bet ramp needs at least one bet");
+        }
+        this.lowestCount = lowestCount;
+        this.units = units.clone();
+    }
+
+    /**
+     * The spread used by the Hi-Lo strategy. One unit at a true count of 0 or
+     * less rising by a unit for each count up to 6 units at 5 or more.
+     *
+     * @return the ramp
+     */
+    public static BetRamp hiLo() {
+        return new BetRamp(0, 1, 2, 3, 4, 5, 6);
+    }
+
+    /**
+     * @param count The current count
+     * @return the number of units to bet
+     */
+    public int units(int count) {
+        int index = count - lowestCount;
+        if (index <= 0) {
+            return units[0];
+        } else if (index >= units.length) {
+            return units[units.length - 1];
+        }
+        return units[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("lowestCount=").append(lowestCount);
+        buf.append(", units=").append(Arrays.toString(units));
+        return buf.toString();
+    }
+
+}
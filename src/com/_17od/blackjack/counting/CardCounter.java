@@ -0,0 +1,146 @@
+package com._17od.blackjack.counting;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardObserver;
+import com._17od.blackjack.jfr.ShoeResetEvent;
+import com._17od.blackjack.metrics.Metrics;
+
+/**
+ * Keeps a running count of the cards seen using one {@link CountingSystem}.
+ * <p>
+ * The true count is the running count divided by the number of decks left,
+ * rounded to the nearest whole number. It's worked out with integer
+ * arithmetic only.
+ *
+ * @author Adrian Smith
+ */
+public class CardCounter implements CardObserver {
+
+    private final CountingSystem system;
+    private final int numberOfDecks;
+    private int runningCount;
+    private int cardsLeft;
+
+    /**
+     * @param system The counting system to use
+     * @param numberOfDecks The number of decks in the shoe
+     */
+    public CardCounter(CountingSystem system, int numberOfDecks) {
+        this.system = system;
+        this.numberOfDecks = numberOfDecks;
+        this.runningCount = system.initialRunningCount(numberOfDecks);
+        this.cardsLeft = Card.NUMBER_OF_CARDS * numberOfDecks;
+    }
+
+    @Override
+    public void notify(Card card) {
+        runningCount += system.tag(card.getCode());
+
+        cardsLeft -= 1;
+
+        // If there are not more cards then reinitialise the shoe
+        if (cardsLeft == 0) {
+            initialiseShoe();
+        }
+    }
+
+    @Override
+    /**
+     * Count all the cards in one go. The count is only written back once the
+     * whole batch has been counted, unless the shoe runs out part way through.
+     */
+    public void notifyBatch(Card[] cards) {
+        int count = runningCount;
+        int left = cardsLeft;
+
+        for (Card card : cards) {
+            count += system.tag(card.getCode());
+            left -= 1;
+
+            if (left == 0) {
+                runningCount = count;
+                cardsLeft = left;
+                initialiseShoe();
+                count = runningCount;
+                left = cardsLeft;
+            }
+        }
+
+        runningCount = count;
+        cardsLeft = left;
+    }
+
+    @Override
+    /**
+     * The shoe has been shuffled so start counting again.
+     */
+    public void notifyShuffle() {
+        initialiseShoe();
+    }
+
+    /**
+     * Work out the true count, rounding halves up like {@link Math#round}.
+     * <p>
+     * The true count is runningCount / (cardsLeft / 52). Adding a half and
+     * taking the floor rounds it, which, multiplying through by
+     * 2 * cardsLeft, is the floor of
+     * (2 * runningCount * 52 + cardsLeft) / (2 * cardsLeft).
+     *
+     * @return the true count
+     */
+    public int getTrueCount() {
+        return trueCount(runningCount, cardsLeft);
+    }
+
+    /**
+     * @param runningCount The running count
+     * @param cardsLeft The number of cards left in the shoe, at least 1
+     * @return the true count, see {@link #getTrueCount()}
+     */
+    public static int trueCount(int runningCount, int cardsLeft) {
+        return Math.floorDiv(2 * runningCount * Card.NUMBER_OF_CARDS + cardsLeft,
+                2 * cardsLeft);
+    }
+
+    /**
+     * @return the count to size bets by. This is the true count for a
+     * balanced system and the running count for an unbalanced one.
+     */
+    public int getBettingCount() {
+        if (system.isBalanced()) {
+            return getTrueCount();
+        }
+        return runningCount;
+    }
+
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    public int getCardsLeft() {
+        return cardsLeft;
+    }
+
+    /**
+     * Initialise the running count and refresh the shoe with a full complement
+     * of cards. This is only done when a shoe is finished with, not when the
+     * counter is created, so the event and metric count real resets.
+     */
+    private void initialiseShoe() {
+        ShoeResetEvent event = new ShoeResetEvent();
+        if (event.shouldCommit()) {
+            event.commit(system.toString(), numberOfDecks, runningCount,
+                    cardsLeft);
+        }
+        runningCount = system.initialRunningCount(numberOfDecks);
+        cardsLeft = Card.NUMBER_OF_CARDS * numberOfDecks;
+        if (Metrics.ENABLED) {
+            Metrics.counterShoeReset();
+        }
+    }
+
+}
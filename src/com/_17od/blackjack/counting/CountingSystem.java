@@ -0,0 +1,79 @@
+package com._17od.blackjack.counting;
+
+import com._17od.blackjack.Card;
+
+/**
+ * The card counting systems a {@link CardCounter} can keep. Each system is
+ * just a tag for each rank which is added to the running count when a card of
+ * that rank is seen.
+ * <p>
+ * A balanced system's tags add up to zero over a full deck, so the running
+ * count starts at zero and is divided by the number of decks left to get the
+ * true count. An unbalanced system (KO) starts from an initial running count
+ * that depends on the number of decks and is bet on the running count alone.
+ *
+ * @author Adrian Smith
+ */
+public enum CountingSystem {
+
+    //                        2  3  4  5  6  7  8  9  T  J  Q  K  A
+    HI_LO(new int[]     {  1, 1, 1, 1, 1, 0, 0, 0,-1,-1,-1,-1,-1 }),
+    KO(new int[]        {  1, 1, 1, 1, 1, 1, 0, 0,-1,-1,-1,-1,-1 }),
+    HI_OPT_I(new int[]  {  0, 1, 1, 1, 1, 0, 0, 0,-1,-1,-1,-1, 0 }),
+    HI_OPT_II(new int[] {  1, 1, 2, 2, 1, 1, 0, 0,-2,-2,-2,-2, 0 }),
+    OMEGA_II(new int[]  {  1, 1, 2, 2, 2, 1, 0,-1,-2,-2,-2,-2, 0 }),
+    ZEN(new int[]       {  1, 1, 2, 2, 2, 1, 0, 0,-2,-2,-2,-2,-1 });
+
+    private final byte[] rankTags = new byte[Card.NUMBER_OF_RANKS];
+    private final byte[] tags = new byte[Card.NUMBER_OF_CARDS];
+    private final int deckTotal;
+
+    private CountingSystem(int[] rankTags) {
+        int total = 0;
+        for (int rank=0; rank<Card.NUMBER_OF_RANKS; rank++) {
+            this.rankTags[rank] = (byte) rankTags[rank];
+            total += rankTags[rank] * Card.NUMBER_OF_SUITS;
+        }
+        for (int code=0; code<Card.NUMBER_OF_CARDS; code++) {
+            tags[code] = this.rankTags[Card.rank(code)];
+        }
+        this.deckTotal = total;
+    }
+
+    /**
+     * @param code A card code
+     * @return the tag for the card
+     */
+    public int tag(int code) {
+        return tags[code];
+    }
+
+    /**
+     * @param rank The ordinal of a {@link Card.Rank}
+     * @return the tag for cards of that rank
+     */
+    public int rankTag(int rank) {
+        return rankTags[rank];
+    }
+
+    /**
+     * @return true if the tags add up to zero over a full deck
+     */
+    public boolean isBalanced() {
+        return deckTotal == 0;
+    }
+
+    /**
+     * The running count at the start of a shoe. This is zero for a balanced
+     * system. For an unbalanced system it's the usual 4 - 4 * decks for KO,
+     * chosen so the count finishes the shoe on the same total as a single
+     * deck would.
+     *
+     * @param numberOfDecks The number of decks in the shoe
+     * @return the initial running count
+     */
+    public int initialRunningCount(int numberOfDecks) {
+        return deckTotal * (1 - numberOfDecks);
+    }
+
+}
@@ -0,0 +1,149 @@
+package com._17od.blackjack.counting;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardObserver;
+
+/**
+ * Keeps a running count for several {@link CountingSystem}s at once from a
+ * single pass over the cards dealt. Comparing a dozen systems over the same
+ * shoes costs one observer call per card rather than a dozen.
+ * <p>
+ * The tags are held in one matrix with a row per card code and a column per
+ * system, so counting a card adds one contiguous row to the array of running
+ * counts. This is a simple loop over two int arrays the JIT can vectorise.
+ *
+ * @author Adrian Smith
+ */
+public class MultiCounter implements CardObserver {
+
+    private final CountingSystem[] systems;
+    private final int numberOfDecks;
+
+    /**
+     * The tag for each card code and system, at code * systems.length +
+     * system.
+     */
+    private final int[] tags;
+    private final int[] initialCounts;
+    private final int[] runningCounts;
+    private int cardsLeft;
+
+    /**
+     * @param numberOfDecks The number of decks in the shoe
+     * @param systems The systems to count. The same system may appear more
+     * than once.
+     */
+    public MultiCounter(int numberOfDecks, CountingSystem... systems) {
+        this.systems = systems.clone();
+        this.numberOfDecks = numberOfDecks;
+        this.tags = new int[Card.NUMBER_OF_CARDS * systems.length];
+        this.initialCounts = new int[systems.length];
+        this.runningCounts = new int[systems.length];
+
+        for (int s=0; s<systems.length; s++) {
+            for (int code=0; code<Card.NUMBER_OF_CARDS; code++) {
+                tags[code * systems.length + s] = systems[s].tag(code);
+            }
+            initialCounts[s] = systems[s].initialRunningCount(numberOfDecks);
+        }
+
+        initialiseShoe();
+    }
+
+    @Override
+    public void notify(Card card) {
+        count(card.getCode());
+    }
+
+    @Override
+    public void notifyBatch(Card[] cards) {
+        for (Card card : cards) {
+            count(card.getCode());
+        }
+    }
+
+    @Override
+    /**
+     * The shoe has been shuffled so start counting again.
+     */
+    public void notifyShuffle() {
+        initialiseShoe();
+    }
+
+    /**
+     * @return the number of systems being counted
+     */
+    public int size() {
+        return systems.length;
+    }
+
+    /**
+     * @param index The position of the system in the list given to the
+     * constructor
+     * @return the system
+     */
+    public CountingSystem getSystem(int index) {
+        return systems[index];
+    }
+
+    public int getRunningCount(int index) {
+        return runningCounts[index];
+    }
+
+    /**
+     * @param index The position of the system in the list given to the
+     * constructor
+     * @return the true count, worked out the same way as
+     * {@link CardCounter#getTrueCount()}
+     */
+    public int getTrueCount(int index) {
+        return CardCounter.trueCount(runningCounts[index], cardsLeft);
+    }
+
+    /**
+     * @param index The position of the system in the list given to the
+     * constructor
+     * @return the true count for a balanced system and the running count for
+     * an unbalanced one
+     */
+    public int getBettingCount(int index) {
+        if (systems[index].isBalanced()) {
+            return getTrueCount(index);
+        }
+        return runningCounts[index];
+    }
+
+    public int getCardsLeft() {
+        return cardsLeft;
+    }
+
+    /**
+     * Add the card's row of tags to the running counts.
+     */
+    private void count(int code) {
+        int[] counts = runningCounts;
+        int n = counts.length;
+        int row = code * n;
+        for (int s=0; s<n; s++) {
+            counts[s] += tags[row + s];
+        }
+
+        cardsLeft -= 1;
+
+        // If there are not more cards then reinitialise the shoe
+        if (cardsLeft == 0) {
+            initialiseShoe();
+        }
+    }
+
+    /**
+     * Reset every running count and refresh the shoe with a full complement
+     * of cards.
+     */
+    private void initialiseShoe() {
+        System.arraycopy(initialCounts, 0, runningCounts, 0,
+                runningCounts.length);
+        cardsLeft = Card.NUMBER_OF_CARDS * numberOfDecks;
+    }
+
+}
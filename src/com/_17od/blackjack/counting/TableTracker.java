@@ -0,0 +1,139 @@
+package com._17od.blackjack.counting;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com._17od.blackjack.GameRules;
+
+/**
+ * Tracks the count at any number of tables at once, e.g. from the cards dealt
+ * at real tables.
+ * <p>
+ * Each table is a {@link TrackedTable} that can be updated and read from any
+ * thread without locking. The tables are held in a
+ * {@link ConcurrentHashMap} keyed by table ID, so opening, finding and closing
+ * tables doesn't block reporting cards at the others either. Threads that
+ * report a lot of cards to the same table should look it up once and hold on
+ * to it rather than going through the tracker for every card.
+ * <p>
+ * Every table is counted with the same system and bet ramp. The number of
+ * decks and the minimum bet can differ from table to table.
+ *
+ * @author Adrian Smith
+ */
+public class TableTracker {
+
+    private final CountingSystem system;
+    private final BetRamp betRamp;
+    private final ConcurrentHashMap<String, TrackedTable> tables =
+        new ConcurrentHashMap<String, TrackedTable>();
+
+    /**
+     * @param system The counting system to use at every table
+     * @param betRamp The number of units to bet at each count. Ramps never
+     * change so one can be shared by every table.
+     */
+    public TableTracker(CountingSystem system, BetRamp betRamp) {
+        this.system = system;
+        this.betRamp = betRamp;
+    }
+
+    /**
+     * Start tracking a table with a freshly shuffled shoe. If the table is
+     * already being tracked it's left as it is.
+     *
+     * @param id The table's ID
+     * @param rules The table's rules, which give the number of decks and the
+     * minimum bet
+     * @return the table
+     */
+    public TrackedTable openTable(String id, GameRules rules) {
+        TrackedTable table = tables.get(id);
+        if (table != null) {
+            return table;
+        }
+
+        table = new TrackedTable(id, system, betRamp, rules.getNumberOfDecks(),
+                rules.getMinimumBet());
+        TrackedTable existing = tables.putIfAbsent(id, table);
+        return existing != null ? existing : table;
+    }
+
+    /**
+     * @param id The table's ID
+     * @return the table or null if it isn't being tracked
+     */
+    public TrackedTable getTable(String id) {
+        return tables.get(id);
+    }
+
+    /**
+     * Stop tracking a table.
+     *
+     * @param id The table's ID
+     * @return the table or null if it wasn't being tracked
+     */
+    public TrackedTable closeTable(String id) {
+        return tables.remove(id);
+    }
+
+    /**
+     * Count a card dealt at a table.
+     *
+     * @param id The table's ID
+     * @param code The card's code
+     * @throws IllegalArgumentException if the table isn't being tracked
+     */
+    public void dealt(String id, int code) {
+        table(id).dealt(code);
+    }
+
+    /**
+     * Start counting a table's shoe again.
+     *
+     * @param id The table's ID
+     * @throws IllegalArgumentException if the table isn't being tracked
+     */
+    public void shuffled(String id) {
+        table(id).shuffled();
+    }
+
+    /**
+     * @param id The table's ID
+     * @return the amount to bet at the table's current count
+     * @throws IllegalArgumentException if the table isn't being tracked
+     */
+    public int amountToBet(String id) {
+        return table(id).amountToBet();
+    }
+
+    /**
+     * @return the tables being tracked. The collection can be iterated while
+     * tables are opened and closed.
+     */
+    public Collection<TrackedTable> getTables() {
+        return Collections.unmodifiableCollection(tables.values());
+    }
+
+    public int getNumberOfTables() {
+        return tables.size();
+    }
+
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    public BetRamp getBetRamp() {
+        return betRamp;
+    }
+
+    private TrackedTable table(String id) {
+        TrackedTable table = tables.get(id);
+        if (table == null) {
+            throw new IllegalArgumentException("Table " + id + " isn't being tracked");
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,212 @@
+package com._17od.blackjack.counting;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardObserver;
+
+/**
+ * The count at one table being tracked by a {@link TableTracker}.
+ * <p>
+ * Any number of threads can report cards and shuffles while others read the
+ * count. The running count and the number of cards left are packed into a
+ * single {@link AtomicLong}, the running count in the top 32 bits and the
+ * cards left in the bottom 32, and updated with compare-and-set. Nothing is
+ * ever locked and every read sees a running count and cards left that go
+ * together, so the true count and bet worked out from them are always
+ * consistent.
+ * <p>
+ * As with {@link CardCounter} the count starts again once every card in the
+ * shoe has been seen. A table can also be added to a {@link com._17od.blackjack.Game}
+ * as an observer.
+ *
+ * @author Adrian Smith
+ */
+public class TrackedTable implements CardObserver {
+
+    private final String id;
+    private final CountingSystem system;
+    private final BetRamp betRamp;
+    private final int numberOfDecks;
+    private final int minimumBet;
+    private final long initialState;
+    private final AtomicLong state;
+
+    /**
+     * @param id The table's ID
+     * @param system The counting system to use
+     * @param betRamp The number of units to bet at each count
+     * @param numberOfDecks The number of decks in the table's shoe
+     * @param minimumBet The size of a unit
+     */
+    public TrackedTable(String id, CountingSystem system, BetRamp betRamp,
+            int numberOfDecks, int minimumBet) {
+        this.id = id;
+        this.system = system;
+        this.betRamp = betRamp;
+        this.numberOfDecks = numberOfDecks;
+        this.minimumBet = minimumBet;
+        this.initialState = pack(system.initialRunningCount(numberOfDecks),
+                numberOfDecks * Card.NUMBER_OF_CARDS);
+        this.state = new AtomicLong(initialState);
+    }
+
+    /**
+     * Count a card dealt at the table.
+     *
+     * @param code The card's code
+     */
+    public void dealt(int code) {
+        int tag = system.tag(code);
+        while (true) {
+            long current = state.get();
+            int cardsLeft = cardsLeft(current) - 1;
+            long next = cardsLeft == 0 ? initialState
+                    : pack(runningCount(current) + tag, cardsLeft);
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Count several cards dealt at the table in one update.
+     *
+     * @param codes The card codes
+     * @param offset The index of the first card
+     * @param length The number of cards
+     */
+    public void dealt(byte[] codes, int offset, int length) {
+        int total = 0;
+        for (int i=0; i<length; i++) {
+            total += system.tag(codes[offset + i]);
+        }
+
+        while (true) {
+            long current = state.get();
+            long next;
+            if (length < cardsLeft(current)) {
+                next = pack(runningCount(current) + total,
+                        cardsLeft(current) - length);
+            } else {
+                next = current;
+                for (int i=0; i<length; i++) {
+                    next = count(next, codes[offset + i]);
+                }
+            }
+            if (state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The table's shoe has been shuffled so start counting again.
+     */
+    public void shuffled() {
+        state.set(initialState);
+    }
+
+    @Override
+    public void notify(Card card) {
+        dealt(card.getCode());
+    }
+
+    @Override
+    public void notifyBatch(Card[] cards) {
+        byte[] codes = new byte[cards.length];
+        for (int i=0; i<cards.length; i++) {
+            codes[i] = (byte) cards[i].getCode();
+        }
+        dealt(codes, 0, codes.length);
+    }
+
+    @Override
+    public void notifyShuffle() {
+        shuffled();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public CountingSystem getSystem() {
+        return system;
+    }
+
+    public int getNumberOfDecks() {
+        return numberOfDecks;
+    }
+
+    public int getRunningCount() {
+        return runningCount(state.get());
+    }
+
+    public int getCardsLeft() {
+        return cardsLeft(state.get());
+    }
+
+    /**
+     * @return the true count, see {@link CardCounter#getTrueCount()}
+     */
+    public int getTrueCount() {
+        long current = state.get();
+        return CardCounter.trueCount(runningCount(current), cardsLeft(current));
+    }
+
+    /**
+     * @return the true count for a balanced system and the running count for
+     * an unbalanced one
+     */
+    public int getBettingCount() {
+        long current = state.get();
+        if (system.isBalanced()) {
+            return CardCounter.trueCount(runningCount(current),
+                    cardsLeft(current));
+        }
+        return runningCount(current);
+    }
+
+    /**
+     * @return the amount the bet ramp says to bet at the current count, as
+     * {@link com._17od.blackjack.strategy.CountingStrategy#amountToBet()}
+     */
+    public int amountToBet() {
+        return minimumBet * betRamp.units(getBettingCount());
+    }
+
+    /**
+     * Count one card on top of a packed state.
+     */
+    private long count(long current, int code) {
+        int cardsLeft = cardsLeft(current) - 1;
+        if (cardsLeft == 0) {
+            return initialState;
+        }
+        return pack(runningCount(current) + system.tag(code), cardsLeft);
+    }
+
+    private static long pack(int runningCount, int cardsLeft) {
+        return ((long) runningCount << 32) | (cardsLeft & 0xFFFFFFFFL);
+    }
+
+    private static int runningCount(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int cardsLeft(long state) {
+        return (int) state;
+    }
+
+    @Override
+    public String toString() {
+        long current = state.get();
+        StringBuilder buf = new StringBuilder();
+        buf.append("id=").append(id);
+        buf.append(", system=").append(system);
+        buf.append(", runningCount=").append(runningCount(current));
+        buf.append(", cardsLeft=").append(cardsLeft(current));
+        return buf.toString();
+    }
+
+}
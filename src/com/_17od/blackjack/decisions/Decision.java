@@ -1,12 +1,22 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * This interface represents the various decisions a player can take.
+ * <p>
+ * Decisions have no state, so each implementation has a single shared
+ * <code>INSTANCE</code> rather than being created for every move.
  * 
  * @author Adrian Smith
  */
 public interface Decision {
 
-    public void execute();
+    /**
+     * Carry out this decision on the player's current hand.
+     * 
+     * @param round The round being played
+     */
+    public void execute(Round round);
 
 }
@@ -1,5 +1,7 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * Double the bet.
  * 
@@ -7,9 +9,11 @@ package com._17od.blackjack.decisions;
  */
 public class DoubleDown implements Decision {
 
+    public static final DoubleDown INSTANCE = new DoubleDown();
+
     @Override
-    public void execute() {
-        // TODO Auto-generated method stub
+    public void execute(Round round) {
+        round.doubleDown();
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * Take another card.
  * 
@@ -7,9 +9,11 @@ package com._17od.blackjack.decisions;
  */
 public class Hit implements Decision {
 
+    public static final Hit INSTANCE = new Hit();
+
     @Override
-    public void execute() {
-        // TODO Auto-generated method stub
+    public void execute(Round round) {
+        round.hit();
     }
 
     @Override
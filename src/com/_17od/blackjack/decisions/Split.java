@@ -1,5 +1,7 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * Split the hand into two.
  * 
@@ -7,9 +9,11 @@ package com._17od.blackjack.decisions;
  */
 public class Split implements Decision {
 
+    public static final Split INSTANCE = new Split();
+
     @Override
-    public void execute() {
-        // TODO Auto-generated method stub
+    public void execute(Round round) {
+        round.split();
     }
 
     @Override
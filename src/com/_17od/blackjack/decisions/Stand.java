@@ -1,5 +1,7 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * Take not action. Play moves to the next player or dealer.
  * 
@@ -7,9 +9,11 @@ package com._17od.blackjack.decisions;
  */
 public class Stand implements Decision {
 
+    public static final Stand INSTANCE = new Stand();
+
     @Override
-    public void execute() {
-        // TODO Auto-generated method stub
+    public void execute(Round round) {
+        round.stand();
     }
 
     @Override
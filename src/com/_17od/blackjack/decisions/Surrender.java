@@ -1,5 +1,7 @@
 package com._17od.blackjack.decisions;
 
+import com._17od.blackjack.Round;
+
 /**
  * Surrender the hand.
  * 
@@ -7,9 +9,11 @@ package com._17od.blackjack.decisions;
  */
 public class Surrender implements Decision {
 
+    public static final Surrender INSTANCE = new Surrender();
+
     @Override
-    public void execute() {
-        // TODO Auto-generated method stub
+    public void execute(Round round) {
+        round.surrender();
     }
 
     @Override
@@ -0,0 +1,86 @@
+package com._17od.blackjack.history;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Arrays;
+
+/**
+ * The layout of hand history segment files, shared by the writer and reader.
+ * <p>
+ * A history is written to a series of segment files named
+ * <code>&lt;name&gt;-&lt;segment number&gt;.hh</code>. Each segment starts with
+ * a header:
+ * <pre>
+ *   int    magic number, "BJHH"
+ *   short  format version
+ *   short  flags, {@link #SUITS} if the cards' suits are recorded
+ * </pre>
+ * followed by one record per round:
+ * <pre>
+ *   varint  length of the rest of the record
+ *   varint  amount bet
+ *   varint  amount won in half units, zigzag encoded
+ *   varint  number of events
+ *   bytes   the events, 4 bits each, low bits first
+ *   bytes   if suits are recorded, the suit of each card, 2 bits each
+ * </pre>
+ * A record length of 0 or the end of the file marks the end of the segment.
+ * <p>
+ * The events are the round's cards and decisions in the order they happened.
+ * A card is its rank's ordinal, 0 to 12. The first four cards go to the
+ * player, the dealer, the player and the dealer's hole card. After that cards
+ * go to the player until a {@link #DEALER_DRAWS} event and then to the
+ * dealer. A decision is {@link #DECISION} followed by the
+ * {@link com._17od.blackjack.strategy.Strategy.DecisionEnum} ordinal. A
+ * {@link #SHUFFLE} event is written wherever the shoe was shuffled, which is
+ * normally right at the start of the round.
+ *
+ * @author Adrian Smith
+ */
+final class HandHistoryFormat {
+
+    static final int MAGIC = 0x424A4848;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    static final short SUITS = 1;
+
+    static final int SHUFFLE = 13;
+    static final int DEALER_DRAWS = 14;
+    static final int DECISION = 15;
+
+    static final String SUFFIX = ".hh";
+
+    private HandHistoryFormat() {
+    }
+
+    static File segmentFile(File directory, String name, int segment) {
+        return new File(directory, String.format("%s-%06d%s", name, segment,
+                SUFFIX));
+    }
+
+    /**
+     * @param name The history's name or null for every history in the
+     * directory
+     * @return the segment files in order. Histories are in order of name and
+     * each one's segments in the order they were written.
+     */
+    static File[] segmentFiles(File directory, final String name) {
+        File[] files = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                String fileName = file.getName();
+                if (!file.isFile() || !fileName.endsWith(SUFFIX)) {
+                    return false;
+                }
+                return name == null || (fileName.startsWith(name + "-")
+                        && fileName.length() == name.length() + 7 + SUFFIX.length());
+            }
+        });
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+}
@@ -0,0 +1,265 @@
+package com._17od.blackjack.history;
+
+import static com._17od.blackjack.history.HandHistoryFormat.DEALER_DRAWS;
+import static com._17od.blackjack.history.HandHistoryFormat.DECISION;
+import static com._17od.blackjack.history.HandHistoryFormat.HEADER_SIZE;
+import static com._17od.blackjack.history.HandHistoryFormat.MAGIC;
+import static com._17od.blackjack.history.HandHistoryFormat.SHUFFLE;
+import static com._17od.blackjack.history.HandHistoryFormat.SUITS;
+import static com._17od.blackjack.history.HandHistoryFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Reads the rounds in a hand history one after the other, see
+ * {@link HandHistoryFormat} for the layout.
+ * <p>
+ * Each segment is mapped into memory in turn. The reader is a cursor:
+ * {@link #next()} moves on to the next round and the getters describe the
+ * current one. The current round is decoded into arrays that are reused from
+ * round to round so scanning a history doesn't create any objects apart from
+ * the mapping for each segment.
+ * <p>
+ * Instances aren't thread safe.
+ *
+ * @author Adrian Smith
+ */
+public class HandHistoryReader implements Closeable {
+
+    private static final DecisionEnum[] DECISIONS = DecisionEnum.values();
+
+    private File[] segmentFiles;
+    private int segment = -1;
+    private MappedByteBuffer buffer;
+    private boolean suits;
+
+    private int bet;
+    private double result;
+    private boolean shuffled;
+    private byte[] cards = new byte[32];
+    private boolean[] toDealer = new boolean[32];
+    private int numCards;
+    private DecisionEnum[] decisions = new DecisionEnum[16];
+    private int numDecisions;
+
+    /**
+     * Read every history in a directory, one after the other in order of
+     * name.
+     *
+     * @param directory The directory holding the segment files
+     */
+    public HandHistoryReader(File directory) {
+        this.segmentFiles = HandHistoryFormat.segmentFiles(directory, null);
+    }
+
+    /**
+     * @param directory The directory holding the segment files
+     * @param name The name of the history to read
+     */
+    public HandHistoryReader(File directory, String name) {
+        this.segmentFiles = HandHistoryFormat.segmentFiles(directory, name);
+    }
+
+    /**
+     * Move on to the next round.
+     *
+     * @return false if there are no more rounds
+     * @throws IOException if a segment can't be read or isn't a hand history
+     */
+    public boolean next() throws IOException {
+        int length = 0;
+        while (buffer == null || !buffer.hasRemaining()
+                || (length = (int) readVarint()) == 0) {
+            if (!nextSegment()) {
+                return false;
+            }
+        }
+
+        int end = buffer.position() + length;
+        bet = (int) readVarint();
+        long zigzag = readVarint();
+        result = ((zigzag >>> 1) ^ -(zigzag & 1)) / 2.0;
+        decodeEvents((int) readVarint());
+        buffer.position(end);
+        return true;
+    }
+
+    /**
+     * @return the amount bet on the round
+     */
+    public int getBet() {
+        return bet;
+    }
+
+    /**
+     * @return the amount won or, if negative, lost
+     */
+    public double getResult() {
+        return result;
+    }
+
+    /**
+     * @return whether the shoe was shuffled before or during the round
+     */
+    public boolean isShuffled() {
+        return shuffled;
+    }
+
+    /**
+     * @return whether the cards' suits were recorded
+     */
+    public boolean hasSuits() {
+        return suits;
+    }
+
+    /**
+     * @return the number of cards dealt in the round, including the
+     * dealer's hole card
+     */
+    public int getNumberOfCards() {
+        return numCards;
+    }
+
+    /**
+     * @param i The card's position in the order the cards were dealt
+     * @return the ordinal of the card's {@link Card.Rank}
+     */
+    public int getCardRank(int i) {
+        return suits ? Card.rank(cards[i]) : cards[i];
+    }
+
+    /**
+     * @param i The card's position in the order the cards were dealt
+     * @return the card's code, see {@link Card#getCode()}
+     * @throws IllegalStateException if the suits weren't recorded
+     */
+    public int getCardCode(int i) {
+        if (!suits) {
+            throw new IllegalStateException("The suits weren't recorded");
+        }
+        return cards[i];
+    }
+
+    /**
+     * @param i The card's position in the order the cards were dealt
+     * @return true if the card went to the dealer, false if it went to the
+     * player
+     */
+    public boolean isDealerCard(int i) {
+        return toDealer[i];
+    }
+
+    /**
+     * @return the number of decisions the player made
+     */
+    public int getNumberOfDecisions() {
+        return numDecisions;
+    }
+
+    /**
+     * @param i The decision's position in the order they were made
+     * @return the decision
+     */
+    public DecisionEnum getDecision(int i) {
+        return decisions[i];
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+        segment = segmentFiles.length;
+    }
+
+    private void decodeEvents(int numEvents) {
+        int eventsStart = buffer.position();
+        numCards = 0;
+        numDecisions = 0;
+        shuffled = false;
+        boolean dealerDrawing = false;
+
+        for (int i=0; i<numEvents; i++) {
+            int event = event(eventsStart, i);
+            if (event == SHUFFLE) {
+                shuffled = true;
+            } else if (event == DEALER_DRAWS) {
+                dealerDrawing = true;
+            } else if (event == DECISION) {
+                if (numDecisions == decisions.length) {
+                    decisions = Arrays.copyOf(decisions,
+                            decisions.length * 2);
+                }
+                decisions[numDecisions++] = DECISIONS[event(eventsStart, ++i)];
+            } else {
+                if (numCards == cards.length) {
+                    cards = Arrays.copyOf(cards, cards.length * 2);
+                    toDealer = Arrays.copyOf(toDealer,
+                            toDealer.length * 2);
+                }
+                toDealer[numCards] = numCards == 1 || numCards == 3
+                        || dealerDrawing;
+                cards[numCards++] = (byte) event;
+            }
+        }
+
+        if (suits) {
+            int suitsStart = eventsStart + ((numEvents + 1) >> 1);
+            for (int i=0; i<numCards; i++) {
+                int suit = (buffer.get(suitsStart + (i >> 2)) >> ((i & 3) * 2)) & 3;
+                cards[i] = (byte) (cards[i] * Card.NUMBER_OF_SUITS + suit);
+            }
+        }
+    }
+
+    private int event(int eventsStart, int i) {
+        return (buffer.get(eventsStart + (i >> 1)) >> ((i & 1) * 4)) & 0xF;
+    }
+
+    private long readVarint() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private boolean nextSegment() throws IOException {
+        buffer = null;
+        if (++segment >= segmentFiles.length) {
+            return false;
+        }
+
+        File file = segmentFiles[segment];
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+                    in.length());
+        } finally {
+            // The mapping stays valid once the file is closed
+            in.close();
+        }
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " isn't a hand history");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException(file + " is version " + version + " of the format, expected " + VERSION);
+        }
+        suits = (buffer.getShort() & SUITS) != 0;
+        return true;
+    }
+
+}
@@ -0,0 +1,255 @@
+package com._17od.blackjack.history;
+
+import static com._17od.blackjack.history.HandHistoryFormat.DEALER_DRAWS;
+import static com._17od.blackjack.history.HandHistoryFormat.DECISION;
+import static com._17od.blackjack.history.HandHistoryFormat.HEADER_SIZE;
+import static com._17od.blackjack.history.HandHistoryFormat.MAGIC;
+import static com._17od.blackjack.history.HandHistoryFormat.SHUFFLE;
+import static com._17od.blackjack.history.HandHistoryFormat.SUITS;
+import static com._17od.blackjack.history.HandHistoryFormat.VERSION;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.RoundListener;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Writes every round played to a hand history, see {@link HandHistoryFormat}
+ * for the layout. Set it as a {@link com._17od.blackjack.Round}'s listener to
+ * record the rounds played.
+ * <p>
+ * Each round is built up in memory and then copied in one go to a segment
+ * file that's mapped into memory, so recording a round doesn't involve any
+ * system calls or allocate any objects. A new segment is started when the
+ * current one is full. Segments are only ever appended to. If there are
+ * already segments with the same name the history carries on after them.
+ * <p>
+ * Closing the writer truncates the last segment to the length written.
+ * <p>
+ * Instances aren't thread safe. Each round being played at the same time needs
+ * its own writer, with its own name.
+ *
+ * @author Adrian Smith
+ */
+public class HandHistoryWriter implements RoundListener, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    public static final int MIN_SEGMENT_SIZE = 4096;
+
+    private final File directory;
+    private final String name;
+    private final boolean suits;
+    private final int segmentSize;
+
+    private int segment;
+    private RandomAccessFile file;
+    private MappedByteBuffer buffer;
+    private long rounds;
+
+    private int bet;
+    private byte[] events = new byte[64];
+    private int numEvents;
+    private byte[] cardSuits = new byte[32];
+    private int numCards;
+    private boolean dealerDrawing;
+    private byte[] record = new byte[64];
+
+    /**
+     * @param directory Where to write the segment files
+     * @param name The name of the history
+     * @param suits Whether to record the suit of each card as well as its
+     * rank
+     */
+    public HandHistoryWriter(File directory, String name, boolean suits)
+            throws IOException {
+        this(directory, name, suits, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param directory Where to write the segment files
+     * @param name The name of the history
+     * @param suits Whether to record the suit of each card as well as its
+     * rank
+     * @param segmentSize The size of each segment file in bytes
+     */
+    public HandHistoryWriter(File directory, String name, boolean suits,
+            int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("Segments must be at least " + MIN_SEGMENT_SIZE + " bytes");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.suits = suits;
+        this.segmentSize = segmentSize;
+
+        File[] existing = HandHistoryFormat.segmentFiles(directory, name);
+        segment = existing.length;
+        openSegment();
+    }
+
+    @Override
+    public void roundStarted(int bet) {
+        this.bet = bet;
+    }
+
+    @Override
+    public void cardDealt(Card card, boolean toDealer) {
+        if (toDealer && numCards >= 4 && !dealerDrawing) {
+            addEvent(DEALER_DRAWS);
+            dealerDrawing = true;
+        }
+        addEvent(card.getRank().ordinal());
+
+        if (suits) {
+            if (numCards >> 2 == cardSuits.length) {
+                cardSuits = Arrays.copyOf(cardSuits, cardSuits.length * 2);
+            }
+            cardSuits[numCards >> 2] |= card.getSuit().ordinal() << ((numCards & 3) * 2);
+        }
+        numCards++;
+    }
+
+    @Override
+    public void decisionMade(DecisionEnum decision) {
+        addEvent(DECISION);
+        addEvent(decision.ordinal());
+    }
+
+    @Override
+    public void shoeShuffled() {
+        addEvent(SHUFFLE);
+    }
+
+    @Override
+    public void roundFinished(double result) {
+        int eventBytes = (numEvents + 1) >> 1;
+        int suitBytes = suits ? (numCards + 3) >> 2 : 0;
+
+        // Leave room for the length at the front
+        int maxLength = 5 + 5 + 10 + 5 + eventBytes + suitBytes;
+        if (record.length < maxLength) {
+            record = new byte[maxLength * 2];
+        }
+        int length = 5;
+        length = putVarint(record, length, bet);
+        long halfUnits = Math.round(result * 2);
+        length = putVarint(record, length, (halfUnits << 1) ^ (halfUnits >> 63));
+        length = putVarint(record, length, numEvents);
+        System.arraycopy(events, 0, record, length, eventBytes);
+        length += eventBytes;
+        System.arraycopy(cardSuits, 0, record, length, suitBytes);
+        length += suitBytes;
+
+        int start = 5 - varintLength(length - 5);
+        putVarint(record, start, length - 5);
+
+        if (buffer.remaining() < length - start) {
+            nextSegment();
+        }
+        buffer.put(record, start, length - start);
+        rounds++;
+
+        Arrays.fill(events, 0, eventBytes, (byte) 0);
+        Arrays.fill(cardSuits, 0, suitBytes, (byte) 0);
+        numEvents = 0;
+        numCards = 0;
+        dealerDrawing = false;
+    }
+
+    /**
+     * @return the number of rounds written
+     */
+    public long getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Write the rounds recorded so far out to disk.
+     */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Close the current segment. Any round that's only partly played is
+     * dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        if (file == null) {
+            return;
+        }
+        closeSegment();
+    }
+
+    private void addEvent(int event) {
+        if (numEvents >> 1 == events.length) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        events[numEvents >> 1] |= event << ((numEvents & 1) * 4);
+        numEvents++;
+    }
+
+    private void nextSegment() {
+        try {
+            closeSegment();
+            segment++;
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        File segmentFile = HandHistoryFormat.segmentFile(directory, name,
+                segment);
+        file = new RandomAccessFile(segmentFile, "rw");
+        file.setLength(0);
+        buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                segmentSize);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort(suits ? SUITS : 0);
+    }
+
+    private void closeSegment() throws IOException {
+        int length = Math.max(buffer.position(), HEADER_SIZE);
+        buffer = null;
+        try {
+            // This fails on platforms that can't truncate a file that's
+            // still mapped. The rest of the segment is zeros which readers
+            // take as the end so it's left as it is.
+            file.getChannel().truncate(length);
+        } catch (IOException e) {
+        }
+        file.close();
+        file = null;
+    }
+
+    private static int putVarint(byte[] bytes, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com._17od.blackjack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import com._17od.blackjack.counting.CardCounter;
+
+/**
+ * A counting strategy sizing its bet in
+ * {@link com._17od.blackjack.strategy.CountingStrategy#amountToBet()}.
+ * <p>
+ * Only bets that take longer than 20us to size are recorded unless the
+ * recording's settings give a lower threshold.
+ *
+ * @author Adrian Smith
+ */
+@Name("com._17od.blackjack.Bet")
+@Label("Bet")
+@Category("Blackjack")
+@StackTrace(false)
+@Description("A counting strategy sizing its bet from the count")
+@Threshold("20 us")
+public class BetEvent extends Event {
+
+    @Label("Counting System")
+    String system;
+
+    @Label("Running Count")
+    int runningCount;
+
+    @Label("Cards Left")
+    int cardsLeft;
+
+    @Label("True Count")
+    int trueCount;
+
+    @Label("Bet")
+    int bet;
+
+    /**
+     * Fill in the event and commit it, if it's sampled. Only call this once
+     * {@link #shouldCommit()} has returned true.
+     *
+     * @param counter The strategy's count
+     * @param bet The amount bet
+     */
+    public void commit(CardCounter counter, int bet) {
+        if (Sampler.sampled()) {
+            this.system = counter.getSystem().toString();
+            this.runningCount = counter.getRunningCount();
+            this.cardsLeft = counter.getCardsLeft();
+            this.trueCount = counter.getTrueCount();
+            this.bet = bet;
+            commit();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com._17od.blackjack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardCodec;
+import com._17od.blackjack.Hand;
+
+/**
+ * Cards dealt by {@link com._17od.blackjack.Game#deal(Card, com._17od.blackjack.Player)}
+ * and {@link com._17od.blackjack.Game#deal(Card[], com._17od.blackjack.Player)}.
+ * The duration is the time taken to tell the game's observers.
+ * <p>
+ * Only deals that take longer than 20us are recorded unless the recording's
+ * settings give a lower threshold.
+ *
+ * @author Adrian Smith
+ */
+@Name("com._17od.blackjack.Deal")
+@Label("Deal")
+@Category("Blackjack")
+@StackTrace(false)
+@Description("Cards dealt and the time taken to notify the game's observers")
+@Threshold("20 us")
+public class DealEvent extends Event {
+
+    @Label("Cards")
+    String cards;
+
+    @Label("To Dealer")
+    boolean toDealer;
+
+    @Label("Hand Total")
+    int handTotal;
+
+    @Label("Soft")
+    boolean soft;
+
+    @Label("Observers")
+    int observers;
+
+    /**
+     * Fill in the event and commit it, if it's sampled. Only call this once
+     * {@link #shouldCommit()} has returned true.
+     *
+     * @param card The card dealt
+     * @param toDealer True if the dealer was dealt the card
+     * @param hand The hand it was dealt to
+     * @param observers The number of observers told about it
+     */
+    public void commit(Card card, boolean toDealer, Hand hand, int observers) {
+        if (Sampler.sampled()) {
+            this.cards = CardCodec.encode(card.getCode(), new StringBuilder()).toString();
+            set(toDealer, hand, observers);
+        }
+    }
+
+    /**
+     * As {@link #commit(Card, boolean, Hand, int)} for several cards dealt
+     * together.
+     */
+    public void commit(Card[] cards, boolean toDealer, Hand hand, int observers) {
+        if (Sampler.sampled()) {
+            StringBuilder buf = new StringBuilder();
+            for (int i=0; i<cards.length; i++) {
+                if (i > 0) {
+                    buf.append(',');
+                }
+                CardCodec.encode(cards[i].getCode(), buf);
+            }
+            this.cards = buf.toString();
+            set(toDealer, hand, observers);
+        }
+    }
+
+    private void set(boolean toDealer, Hand hand, int observers) {
+        this.toDealer = toDealer;
+        this.handTotal = hand.total();
+        this.soft = hand.isSoft();
+        this.observers = observers;
+        commit();
+    }
+
+}
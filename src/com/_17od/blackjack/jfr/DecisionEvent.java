@@ -0,0 +1,90 @@
+package com._17od.blackjack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import com._17od.blackjack.CardCodec;
+import com._17od.blackjack.Hand;
+import com._17od.blackjack.strategy.CountingStrategy;
+import com._17od.blackjack.strategy.Strategy;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * A strategy deciding what to do next in
+ * {@link com._17od.blackjack.strategy.Strategy#whatNext()}. The duration is
+ * the time taken to decide. The true count is only filled in for a
+ * {@link CountingStrategy}.
+ * <p>
+ * Only decisions that take longer than 20us are recorded unless the
+ * recording's settings give a lower threshold.
+ *
+ * @author Adrian Smith
+ */
+@Name("com._17od.blackjack.Decision")
+@Label("Decision")
+@Category("Blackjack")
+@StackTrace(false)
+@Description("A strategy deciding the next move")
+@Threshold("20 us")
+public class DecisionEvent extends Event {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Hand Total")
+    int handTotal;
+
+    @Label("Soft")
+    boolean soft;
+
+    @Label("Cards In Hand")
+    int cardsInHand;
+
+    @Label("Dealer Upcard")
+    String dealerUpcard;
+
+    @Label("Counting")
+    boolean counting;
+
+    @Label("True Count")
+    int trueCount;
+
+    @Label("Decision")
+    String decision;
+
+    /**
+     * Fill in the event and commit it, if it's sampled. Only call this once
+     * {@link #shouldCommit()} has returned true.
+     *
+     * @param strategy The strategy that decided
+     * @param hand The player's hand
+     * @param dealerHand The dealer's hand
+     * @param decision The decision made
+     */
+    public void commit(Strategy strategy, Hand hand, Hand dealerHand,
+            DecisionEnum decision) {
+        if (!Sampler.sampled()) {
+            return;
+        }
+        this.strategy = strategy.toString();
+        this.handTotal = hand.total();
+        this.soft = hand.isSoft();
+        this.cardsInHand = hand.getCards().size();
+        if (!dealerHand.getCards().isEmpty()) {
+            this.dealerUpcard = CardCodec.encode(
+                    dealerHand.getCards().get(0).getCode(), new StringBuilder()).toString();
+        }
+        if (strategy instanceof CountingStrategy) {
+            this.counting = true;
+            this.trueCount = ((CountingStrategy) strategy).getCounter().getTrueCount();
+        }
+        this.decision = decision.name();
+        commit();
+    }
+
+}
@@ -0,0 +1,27 @@
+package com._17od.blackjack.jfr;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which of the events that pass their threshold are recorded. Starting
+ * the JVM with <code>-Dblackjack.jfr.sample=N</code> records about one in N
+ * of the events fired for every card, decision and bet. By default they're
+ * all recorded.
+ *
+ * @author Adrian Smith
+ */
+final class Sampler {
+
+    static final int RATE = Math.max(Integer.getInteger("blackjack.jfr.sample", 1), 1);
+
+    private Sampler() {
+    }
+
+    /**
+     * @return true if the event should be recorded
+     */
+    static boolean sampled() {
+        return RATE == 1 || ThreadLocalRandom.current().nextInt(RATE) == 0;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com._17od.blackjack.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A {@link com._17od.blackjack.counting.CardCounter} starting to count a fresh
+ * shoe, either because the shoe was shuffled or because every card in it has
+ * been seen. Every reset is recorded, there's no threshold or sampling.
+ *
+ * @author Adrian Smith
+ */
+@Name("com._17od.blackjack.ShoeReset")
+@Label("Shoe Reset")
+@Category("Blackjack")
+@StackTrace(false)
+@Description("A card counter starting again on a fresh shoe")
+public class ShoeResetEvent extends Event {
+
+    @Label("Counting System")
+    String system;
+
+    @Label("Decks")
+    int numberOfDecks;
+
+    @Label("Running Count Before")
+    int runningCountBefore;
+
+    @Label("Cards Left Before")
+    int cardsLeftBefore;
+
+    /**
+     * Fill in the event and commit it. Only call this once
+     * {@link #shouldCommit()} has returned true.
+     */
+    public void commit(String system, int numberOfDecks,
+            int runningCountBefore, int cardsLeftBefore) {
+        this.system = system;
+        this.numberOfDecks = numberOfDecks;
+        this.runningCountBefore = runningCountBefore;
+        this.cardsLeftBefore = cardsLeftBefore;
+        commit();
+    }
+
+}
@@ -0,0 +1,96 @@
+package com._17od.blackjack.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how long something took in buckets whose sizes double, so 0ns, 1ns,
+ * 2-3ns, 4-7ns and so on up to the largest long. Recording a time only
+ * increments a {@link LongAdder} so any number of threads can record at once
+ * without getting in each other's way.
+ *
+ * @author Adrian Smith
+ */
+public class LatencyHistogram {
+
+    public static final int NUMBER_OF_BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[NUMBER_OF_BUCKETS];
+    private final LongAdder totalNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i=0; i<buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos How long it took
+     */
+    public void record(long nanos) {
+        buckets[bucket(nanos)].increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return the number of times recorded in each bucket
+     */
+    public long[] getCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i=0; i<buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @param fraction The fraction of times to be covered, e.g. 0.99
+     * @return the longest time in the bucket that takes the count of times
+     * recorded past the fraction, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double fraction) {
+        long[] counts = getCounts();
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        long wanted = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i=0; i<counts.length; i++) {
+            seen += counts[i];
+            if (seen >= wanted && seen > 0) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the index of the bucket the time goes in
+     */
+    static int bucket(long nanos) {
+        if (nanos <= 0) {
+            return 0;
+        }
+        return NUMBER_OF_BUCKETS - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * @return the longest time that goes in the bucket
+     */
+    public static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+}
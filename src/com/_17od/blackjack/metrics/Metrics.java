@@ -0,0 +1,292 @@
+package com._17od.blackjack.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Counters and timings for the game loop, shared by every game in the JVM.
+ * <p>
+ * Recording is turned on by starting the JVM with
+ * <code>-Dblackjack.metrics=true</code>. The code being measured checks
+ * {@link #ENABLED} before recording anything and, as it's a static final, the
+ * JIT compiler removes the checks and everything inside them when it's off,
+ * so there's no cost at all. When it's on everything is recorded with
+ * {@link LongAdder}s so threads playing at the same time don't contend.
+ * Reading the clock costs more than most of what's being timed so only one
+ * in every {@link #TIMING_SAMPLE_MASK} + 1 deals and decisions is timed, 64
+ * unless <code>-Dblackjack.metrics.timingSample</code> says otherwise. The
+ * counts are always exact.
+ * <p>
+ * {@link #start()} makes the metrics available over JMX and, if
+ * <code>-Dblackjack.metrics.port</code> is given, as text over HTTP.
+ *
+ * @author Adrian Smith
+ */
+public final class Metrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean("blackjack.metrics");
+
+    /**
+     * Something is timed when the number of times it's happened ANDed with
+     * this is 0. The sample rate is rounded up to a power of 2 to make this
+     * work.
+     */
+    public static final int TIMING_SAMPLE_MASK = Integer.highestOneBit(
+            Math.max(Integer.getInteger("blackjack.metrics.timingSample", 64) * 2 - 1, 1)) - 1;
+
+    public static final String OBJECT_NAME = "com._17od.blackjack:type=Metrics";
+
+    private static final DecisionEnum[] DECISION_VALUES = DecisionEnum.values();
+
+    private static final LongAdder hands = new LongAdder();
+    private static final LongAdder[] decisions = new LongAdder[DECISION_VALUES.length];
+    private static final LatencyHistogram decisionLatency = new LatencyHistogram();
+    private static final LatencyHistogram dealLatency = new LatencyHistogram();
+    private static final LongAdder shoeShuffles = new LongAdder();
+    private static final LongAdder counterShoeResets = new LongAdder();
+    private static final LongAdder games = new LongAdder();
+    private static final LongAdder observers = new LongAdder();
+    private static final AtomicInteger maxObserversPerGame = new AtomicInteger();
+
+    private static final long startTime = System.nanoTime();
+    private static long sampleTime = startTime;
+    private static long sampleHands;
+    private static double handsPerSecond;
+
+    static {
+        for (int i=0; i<decisions.length; i++) {
+            decisions[i] = new LongAdder();
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * A round has been played.
+     */
+    public static void handPlayed() {
+        hands.increment();
+    }
+
+    /**
+     * A strategy's decision has been carried out.
+     */
+    public static void decisionMade(DecisionEnum decision) {
+        decisions[decision.ordinal()].increment();
+    }
+
+    /**
+     * @param nanos How long a strategy took to decide what to do
+     */
+    public static void decisionTimed(long nanos) {
+        decisionLatency.record(nanos);
+    }
+
+    /**
+     * @param nanos How long a game took to tell its observers about a card
+     * dealt
+     */
+    public static void dealTimed(long nanos) {
+        dealLatency.record(nanos);
+    }
+
+    /**
+     * A shoe has been shuffled during play.
+     */
+    public static void shoeShuffled() {
+        shoeShuffles.increment();
+    }
+
+    /**
+     * A card counter has started counting a fresh shoe.
+     */
+    public static void counterShoeReset() {
+        counterShoeResets.increment();
+    }
+
+    public static void gameCreated() {
+        games.increment();
+    }
+
+    /**
+     * @param observersNow The number of observers the game has now
+     */
+    public static void observerAdded(int observersNow) {
+        observers.increment();
+        int max;
+        do {
+            max = maxObserversPerGame.get();
+        } while (observersNow > max
+                && !maxObserversPerGame.compareAndSet(max, observersNow));
+    }
+
+    public static void observerRemoved() {
+        observers.decrement();
+    }
+
+    public static long getHands() {
+        return hands.sum();
+    }
+
+    /**
+     * The rate is worked out over at least a second, from the last time it
+     * was asked for that long ago, so it follows changes in throughput.
+     *
+     * @return the number of hands played a second recently
+     */
+    public static synchronized double getHandsPerSecond() {
+        long now = System.nanoTime();
+        if (now - sampleTime >= 1000000000L) {
+            long handsNow = hands.sum();
+            handsPerSecond = (handsNow - sampleHands) / ((now - sampleTime) / 1e9);
+            sampleTime = now;
+            sampleHands = handsNow;
+        }
+        return handsPerSecond;
+    }
+
+    /**
+     * @return the number of hands played a second since the JVM started
+     */
+    public static double getAverageHandsPerSecond() {
+        return hands.sum() / ((System.nanoTime() - startTime) / 1e9);
+    }
+
+    public static long getDecisions(DecisionEnum decision) {
+        return decisions[decision.ordinal()].sum();
+    }
+
+    public static LatencyHistogram getDecisionLatency() {
+        return decisionLatency;
+    }
+
+    public static LatencyHistogram getDealLatency() {
+        return dealLatency;
+    }
+
+    public static long getShoeShuffles() {
+        return shoeShuffles.sum();
+    }
+
+    public static long getCounterShoeResets() {
+        return counterShoeResets.sum();
+    }
+
+    public static long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * @return the number of observers across every game
+     */
+    public static long getObservers() {
+        return observers.sum();
+    }
+
+    public static int getMaxObserversPerGame() {
+        return maxObserversPerGame.get();
+    }
+
+    /**
+     * Write every metric in the Prometheus text format.
+     */
+    public static String format() {
+        StringBuilder buf = new StringBuilder();
+        type(buf, "blackjack_hands_total", "counter");
+        value(buf, "blackjack_hands_total", getHands());
+        type(buf, "blackjack_hands_per_second", "gauge");
+        value(buf, "blackjack_hands_per_second", getHandsPerSecond());
+
+        type(buf, "blackjack_decisions_total", "counter");
+        for (DecisionEnum decision : DECISION_VALUES) {
+            value(buf, "blackjack_decisions_total{decision=\"" + decision + "\"}",
+                    getDecisions(decision));
+        }
+        histogram(buf, "blackjack_decision_latency_nanos", decisionLatency);
+        histogram(buf, "blackjack_deal_latency_nanos", dealLatency);
+
+        type(buf, "blackjack_shoe_shuffles_total", "counter");
+        value(buf, "blackjack_shoe_shuffles_total", getShoeShuffles());
+        type(buf, "blackjack_counter_shoe_resets_total", "counter");
+        value(buf, "blackjack_counter_shoe_resets_total", getCounterShoeResets());
+        type(buf, "blackjack_games_total", "counter");
+        value(buf, "blackjack_games_total", getGames());
+        type(buf, "blackjack_observers", "gauge");
+        value(buf, "blackjack_observers", getObservers());
+        type(buf, "blackjack_observers_per_game_max", "gauge");
+        value(buf, "blackjack_observers_per_game_max", getMaxObserversPerGame());
+        return buf.toString();
+    }
+
+    private static void type(StringBuilder buf, String name, String type) {
+        buf.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void value(StringBuilder buf, String name, long value) {
+        buf.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void value(StringBuilder buf, String name, double value) {
+        buf.append(name).append(' ').append(String.format("%.1f", value)).append('\n');
+    }
+
+    /**
+     * The buckets are cumulative and stop at the last one with anything in
+     * it.
+     */
+    private static void histogram(StringBuilder buf, String name,
+            LatencyHistogram histogram) {
+        long[] counts = histogram.getCounts();
+        int last = counts.length - 1;
+        while (last > 0 && counts[last] == 0) {
+            last--;
+        }
+
+        type(buf, name, "histogram");
+        long count = 0;
+        for (int i=0; i<=last; i++) {
+            count += counts[i];
+            value(buf, name + "_bucket{le=\"" + LatencyHistogram.upperBound(i) + "\"}", count);
+        }
+        value(buf, name + "_bucket{le=\"+Inf\"}", count);
+        value(buf, name + "_sum", histogram.getTotalNanos());
+        value(buf, name + "_count", count);
+    }
+
+    /**
+     * Register the metrics MXBean with the platform MBean server and, if
+     * <code>-Dblackjack.metrics.port</code> is set, serve the metrics as text
+     * on that port. Calling it again does nothing.
+     *
+     * @return the HTTP server or null if there's no port
+     */
+    public static synchronized MetricsHttpServer start() throws IOException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                return null;
+            }
+            server.registerMBean(new MetricsBean(), name);
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Integer port = Integer.getInteger("blackjack.metrics.port");
+        if (port == null) {
+            return null;
+        }
+        return new MetricsHttpServer(new InetSocketAddress(port));
+    }
+
+}
@@ -0,0 +1,84 @@
+package com._17od.blackjack.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Reads the {@link Metrics} for JMX.
+ *
+ * @author Adrian Smith
+ */
+class MetricsBean implements MetricsMXBean {
+
+    @Override
+    public long getHands() {
+        return Metrics.getHands();
+    }
+
+    @Override
+    public double getHandsPerSecond() {
+        return Metrics.getHandsPerSecond();
+    }
+
+    @Override
+    public double getAverageHandsPerSecond() {
+        return Metrics.getAverageHandsPerSecond();
+    }
+
+    @Override
+    public Map<String, Long> getDecisions() {
+        Map<String, Long> decisions = new LinkedHashMap<String, Long>();
+        for (DecisionEnum decision : DecisionEnum.values()) {
+            decisions.put(decision.name(), Metrics.getDecisions(decision));
+        }
+        return decisions;
+    }
+
+    @Override
+    public long getDecisionLatencyP50Nanos() {
+        return Metrics.getDecisionLatency().getPercentile(0.5);
+    }
+
+    @Override
+    public long getDecisionLatencyP99Nanos() {
+        return Metrics.getDecisionLatency().getPercentile(0.99);
+    }
+
+    @Override
+    public long getDealLatencyP50Nanos() {
+        return Metrics.getDealLatency().getPercentile(0.5);
+    }
+
+    @Override
+    public long getDealLatencyP99Nanos() {
+        return Metrics.getDealLatency().getPercentile(0.99);
+    }
+
+    @Override
+    public long getShoeShuffles() {
+        return Metrics.getShoeShuffles();
+    }
+
+    @Override
+    public long getCounterShoeResets() {
+        return Metrics.getCounterShoeResets();
+    }
+
+    @Override
+    public long getGames() {
+        return Metrics.getGames();
+    }
+
+    @Override
+    public long getObservers() {
+        return Metrics.getObservers();
+    }
+
+    @Override
+    public int getMaxObserversPerGame() {
+        return Metrics.getMaxObserversPerGame();
+    }
+
+}
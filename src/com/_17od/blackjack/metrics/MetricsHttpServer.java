@@ -0,0 +1,76 @@
+package com._17od.blackjack.metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves {@link Metrics#format()} at <code>/metrics</code> for anything that
+ * scrapes metrics over HTTP. The server's thread is a daemon so it won't keep
+ * the JVM running.
+ *
+ * @author Adrian Smith
+ */
+public class MetricsHttpServer implements Closeable {
+
+    private final HttpServer server;
+
+    /**
+     * Start serving on the given address.
+     *
+     * @param address The address to listen on. Port 0 picks a free port.
+     */
+    public MetricsHttpServer(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/metrics", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = Metrics.format().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type",
+                        "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream out = exchange.getResponseBody();
+                try {
+                    out.write(body);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+        server.setExecutor(null);
+
+        // The server's dispatch thread takes its daemon status from the
+        // thread that starts it
+        Thread thread = new Thread("metrics-http") {
+            public void run() {
+                server.start();
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+}
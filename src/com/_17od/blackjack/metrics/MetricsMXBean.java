@@ -0,0 +1,42 @@
+package com._17od.blackjack.metrics;
+
+import java.util.Map;
+
+/**
+ * The {@link Metrics} as seen over JMX, registered as
+ * {@value Metrics#OBJECT_NAME}.
+ *
+ * @author Adrian Smith
+ */
+public interface MetricsMXBean {
+
+    long getHands();
+
+    double getHandsPerSecond();
+
+    double getAverageHandsPerSecond();
+
+    /**
+     * @return the number of times each decision has been made, by name
+     */
+    Map<String, Long> getDecisions();
+
+    long getDecisionLatencyP50Nanos();
+
+    long getDecisionLatencyP99Nanos();
+
+    long getDealLatencyP50Nanos();
+
+    long getDealLatencyP99Nanos();
+
+    long getShoeShuffles();
+
+    long getCounterShoeResets();
+
+    long getGames();
+
+    long getObservers();
+
+    int getMaxObserversPerGame();
+
+}
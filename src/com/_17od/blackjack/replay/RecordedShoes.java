@@ -0,0 +1,258 @@
+package com._17od.blackjack.replay;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardCodec;
+import com._17od.blackjack.CardSource;
+import com._17od.blackjack.GameException;
+
+/**
+ * Deals the cards from a file of recorded shoes, e.g. shoes seen at a real
+ * table.
+ * <p>
+ * Each line of the file is one shoe, the cards in the order they were dealt
+ * in the notation read by {@link CardCodec}, e.g.
+ * <code>10H 5D AS KC ...</code>. Blank lines and lines starting with # are
+ * skipped.
+ * <p>
+ * Shuffling moves on to the next shoe in the file. The cut card is reached
+ * once every card in the current shoe has been dealt. If a round needs more
+ * cards than are left, the round shuffles and carries on with the next shoe.
+ * Once the last shoe has been dealt {@link #isFinished()} returns true.
+ * Shuffling after that, or dealing from an empty shoe, throws a
+ * {@link GameException}.
+ * <p>
+ * The file is read through a window that's mapped into memory and slid along
+ * the file a shoe at a time, so files of any size can be read without
+ * loading them. Each shoe is decoded into an array of card codes that's
+ * reused from shoe to shoe.
+ * <p>
+ * Instances aren't thread safe. Several instances can read the same file at
+ * once.
+ *
+ * @author Adrian Smith
+ */
+public class RecordedShoes implements CardSource, Closeable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 << 20;
+
+    private final File file;
+    private final RandomAccessFile in;
+    private final long fileSize;
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int lineEnd;
+
+    private byte[] cards = new byte[8 * Card.NUMBER_OF_CARDS];
+    private int numCards;
+    private int position;
+    private long shoes;
+    private boolean finished;
+
+    /**
+     * @param file The file of recorded shoes
+     */
+    public RecordedShoes(File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param file The file of recorded shoes
+     * @param windowSize The most bytes of the file mapped at once. No shoe
+     * can be longer than this.
+     */
+    public RecordedShoes(File file, int windowSize) throws IOException {
+        this.file = file;
+        this.in = new RandomAccessFile(file, "r");
+        this.fileSize = in.length();
+        this.windowSize = windowSize;
+        map(0);
+    }
+
+    /**
+     * Take the next card from the current shoe.
+     *
+     * @return the next card
+     * @throws GameException if the shoe is empty
+     */
+    @Override
+    public Card deal() {
+        if (position == numCards) {
+            throw new GameException("No cards left in shoe " + shoes + " of " + file);
+        }
+        return Card.valueOf(cards[position++]);
+    }
+
+    @Override
+    public int getCardsLeft() {
+        return numCards - position;
+    }
+
+    @Override
+    public boolean isCutCardReached() {
+        return position == numCards;
+    }
+
+    /**
+     * Move on to the next shoe in the file.
+     *
+     * @throws GameException if there are no shoes left
+     * @throws UncheckedIOException if the file can't be read
+     */
+    @Override
+    public void shuffle() {
+        try {
+            if (!nextShoe()) {
+                finished = true;
+                numCards = 0;
+                position = 0;
+                throw new GameException("No shoes left in " + file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Move on to the next shoe in the file. A recorded shoe is the cards as
+     * they were dealt so it already leaves out any cards that were in play.
+     */
+    @Override
+    public void shuffleDiscards(byte[] inPlay, int numInPlay) {
+        shuffle();
+    }
+
+    /**
+     * @return true once the last shoe in the file has been dealt and there
+     * are no more to shuffle to
+     */
+    public boolean isFinished() {
+        if (!finished && position == numCards) {
+            try {
+                finished = !skipToShoe();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return finished;
+    }
+
+    /**
+     * @return the number of shoes started so far
+     */
+    public long getShoes() {
+        return shoes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        in.close();
+    }
+
+    /**
+     * Decode the next shoe in the file.
+     *
+     * @return false if there are no more shoes
+     */
+    private boolean nextShoe() throws IOException {
+        while (skipToShoe()) {
+            int start = window.position();
+            int end = lineEnd;
+
+            if (cards.length < (end - start + 1) / 2) {
+                cards = new byte[(end - start + 1) / 2];
+            }
+            window.limit(end);
+            try {
+                numCards = CardCodec.decode(window, cards, 0);
+            } catch (IllegalArgumentException e) {
+                throw new GameException("Shoe at byte " + (windowStart + start) + " of " + file + ": " + e.getMessage());
+            }
+            window.limit(window.capacity());
+            window.position(Math.min(end + 1, window.capacity()));
+
+            position = 0;
+            shoes++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move past any blank lines and comments to the start of the next shoe,
+     * making sure the whole of it is in the window. The end of its line is
+     * left in lineEnd.
+     *
+     * @return false if the end of the file has been reached
+     */
+    private boolean skipToShoe() throws IOException {
+        while (true) {
+            // Skip whitespace
+            while (window.hasRemaining()) {
+                byte b = window.get(window.position());
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    break;
+                }
+                window.position(window.position() + 1);
+            }
+            if (!window.hasRemaining()) {
+                if (windowStart + window.capacity() >= fileSize) {
+                    return false;
+                }
+                map(windowStart + window.position());
+                continue;
+            }
+
+            // Make sure the whole line is in the window
+            int start = window.position();
+            lineEnd = lineEnd(start);
+            if (lineEnd == window.capacity()
+                    && windowStart + window.capacity() < fileSize) {
+                if (start == 0) {
+                    throw new GameException("Shoe at byte " + windowStart + " of " + file + " is longer than " + windowSize + " bytes");
+                }
+                map(windowStart + start);
+                continue;
+            }
+
+            if (window.get(start) == '#') {
+                window.position(Math.min(lineEnd + 1, window.capacity()));
+                continue;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return the index of the newline ending the line that starts at the
+     * given index, or the end of the window
+     */
+    private int lineEnd(int start) {
+        int end = start;
+        int capacity = window.capacity();
+        while (end < capacity && window.get(end) != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * Map the window starting at the given offset in the file.
+     */
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = in.getChannel().map(FileChannel.MapMode.READ_ONLY, start,
+                Math.min(windowSize, fileSize - start));
+    }
+
+}
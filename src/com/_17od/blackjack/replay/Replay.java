@@ -0,0 +1,215 @@
+package com._17od.blackjack.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com._17od.blackjack.CardObserver;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameException;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.Round;
+import com._17od.blackjack.simulation.SimulationResult;
+import com._17od.blackjack.simulation.Simulator;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+import com._17od.blackjack.strategy.StrategyBuilder;
+
+/**
+ * Plays a file of recorded shoes (see {@link RecordedShoes}) through any
+ * number of strategies and reports what each one bet, won and decided.
+ * <p>
+ * Each strategy plays every shoe in the file from start to finish on its own
+ * game, player and {@link Round}, so the cards are dealt through
+ * {@link Game#deal(com._17od.blackjack.Card, Player)} and seen by the
+ * strategy's observers, along with any extra observers given for it, exactly
+ * as in a real game. As strategies play their hands differently they take
+ * different cards from the same shoe. The strategies don't share anything so
+ * they're played in parallel, each reading the file through its own window.
+ *
+ * @author Adrian Smith
+ */
+public class Replay {
+
+    private GameRules rules;
+    private File file;
+    private int windowSize = RecordedShoes.DEFAULT_WINDOW_SIZE;
+    private ArrayList<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * @param rules The rules to play by. The number of decks should match
+     * the recorded shoes. They mustn't be changed while a replay is running.
+     * @param file The file of recorded shoes
+     */
+    public Replay(GameRules rules, File file) {
+        this.rules = rules;
+        this.file = file;
+    }
+
+    /**
+     * Add a strategy to play the shoes with.
+     *
+     * @param name The name to report the strategy's results under
+     * @param builder Creates the strategy
+     * @param observers Any other observers to tell about the cards dealt to
+     * this strategy's game
+     */
+    public void addStrategy(String name, StrategyBuilder builder,
+            CardObserver... observers) {
+        entries.add(new Entry(name, builder, observers));
+    }
+
+    /**
+     * @param windowSize The most bytes of the file each strategy maps at
+     * once, see {@link RecordedShoes#RecordedShoes(File, int)}
+     */
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Play every strategy on the common fork-join pool.
+     *
+     * @return the results in the order the strategies were added
+     */
+    public List<ReplayResult> run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Play every strategy on the given pool.
+     *
+     * @param pool The pool to play the strategies on
+     * @return the results in the order the strategies were added
+     * @throws UncheckedIOException if the file can't be read
+     * @throws GameException if the file isn't valid
+     */
+    public List<ReplayResult> run(ForkJoinPool pool) {
+        ArrayList<ReplayTask> tasks = new ArrayList<ReplayTask>();
+        for (Entry entry : entries) {
+            ReplayTask task = new ReplayTask(entry);
+            pool.execute(task);
+            tasks.add(task);
+        }
+
+        ArrayList<ReplayResult> results = new ArrayList<ReplayResult>();
+        for (ReplayTask task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    /**
+     * Play every shoe in the file with one strategy.
+     */
+    private ReplayResult play(Entry entry) throws IOException {
+        Game game = new Game(rules);
+        Player player = new Player();
+        entry.builder.create(game, player);
+        for (CardObserver observer : entry.observers) {
+            game.addCardObserver(observer);
+        }
+
+        ReplayResult result = new ReplayResult(entry.name);
+        RecordedShoes shoes = new RecordedShoes(file, windowSize);
+        try {
+            Round round = new Round(game, player, shoes);
+            round.setRoundListener(result);
+
+            long start = System.nanoTime();
+            while (!shoes.isFinished()) {
+                try {
+                    round.play();
+                } catch (GameException e) {
+                    // The last shoe ran out part way through a round
+                    if (shoes.isFinished()) {
+                        break;
+                    }
+                    throw e;
+                }
+            }
+            result.getResult().setElapsedNanos(System.nanoTime() - start);
+        } finally {
+            shoes.close();
+        }
+        return result;
+    }
+
+    private static class Entry {
+
+        private String name;
+        private StrategyBuilder builder;
+        private CardObserver[] observers;
+
+        Entry(String name, StrategyBuilder builder, CardObserver[] observers) {
+            this.name = name;
+            this.builder = builder;
+            this.observers = observers;
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private class ReplayTask extends RecursiveTask<ReplayResult> {
+
+        private Entry entry;
+
+        ReplayTask(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        protected ReplayResult compute() {
+            try {
+                return play(entry);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: Replay <shoe file> <decks> <strategy> [strategy...]");
+            System.err.println("Strategies are named as for the Simulator, e.g. basic, hilo or ko");
+            System.exit(1);
+        }
+
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(Integer.parseInt(args[1]));
+        Replay replay = new Replay(rules, new File(args[0]));
+        for (int i=2; i<args.length; i++) {
+            replay.addStrategy(args[i], Simulator.createStrategyBuilder(args[i]));
+        }
+
+        List<ReplayResult> results = replay.run();
+
+        System.out.println("Shoes: " + args[0]);
+        System.out.println("Rules: " + rules);
+        System.out.println();
+        System.out.println(String.format(
+                "%-12s %10s %8s %12s %12s %10s %10s %10s %10s %8s %8s %10s",
+                "Strategy", "Rounds", "Shoes", "Total bet", "P&L", "EV/unit",
+                "Stand", "Hit", "Double", "Split", "Surr.", "Hands/sec"));
+        for (ReplayResult result : results) {
+            SimulationResult played = result.getResult();
+            System.out.println(String.format(
+                    "%-12s %10d %8d %12d %12.1f %10.6f %10d %10d %10d %8d %8d %10.0f",
+                    result.getName(), played.getHands(), result.getShoes(),
+                    played.getTotalBet(), played.getTotalWon(),
+                    played.getEvPerUnitBet(),
+                    result.getDecisions(DecisionEnum.STAND),
+                    result.getDecisions(DecisionEnum.HIT),
+                    result.getDecisions(DecisionEnum.DOUBLE),
+                    result.getDecisions(DecisionEnum.SPLIT),
+                    result.getDecisions(DecisionEnum.SURRENDER),
+                    played.getHandsPerSecond()));
+        }
+    }
+
+}
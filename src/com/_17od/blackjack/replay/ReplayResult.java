@@ -0,0 +1,117 @@
+package com._17od.blackjack.replay;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.RoundListener;
+import com._17od.blackjack.simulation.SimulationResult;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * What one strategy did over a {@link Replay}: its bets and profit or loss,
+ * kept as a {@link SimulationResult}, and how many times it made each
+ * decision.
+ * <p>
+ * It's filled in by listening to the strategy's rounds. Only rounds that are
+ * finished are counted, so a round cut short by the end of the recorded
+ * shoes is left out.
+ *
+ * @author Adrian Smith
+ */
+public class ReplayResult implements RoundListener {
+
+    private static final int NUMBER_OF_DECISIONS = DecisionEnum.values().length;
+
+    private String name;
+    private SimulationResult result = new SimulationResult();
+    private long[] decisions = new long[NUMBER_OF_DECISIONS];
+    private long shoes;
+
+    private int bet;
+    private int[] roundDecisions = new int[NUMBER_OF_DECISIONS];
+
+    /**
+     * @param name The name of the strategy
+     */
+    public ReplayResult(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void roundStarted(int bet) {
+        this.bet = bet;
+        for (int i=0; i<NUMBER_OF_DECISIONS; i++) {
+            roundDecisions[i] = 0;
+        }
+    }
+
+    @Override
+    public void cardDealt(Card card, boolean toDealer) {
+    }
+
+    @Override
+    public void decisionMade(DecisionEnum decision) {
+        roundDecisions[decision.ordinal()]++;
+    }
+
+    @Override
+    public void shoeShuffled() {
+        shoes++;
+    }
+
+    @Override
+    public void roundFinished(double won) {
+        result.record(bet, won);
+        for (int i=0; i<NUMBER_OF_DECISIONS; i++) {
+            decisions[i] += roundDecisions[i];
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the rounds played, amount bet and amount won
+     */
+    public SimulationResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return the number of shoes played
+     */
+    public long getShoes() {
+        return shoes;
+    }
+
+    /**
+     * @param decision One of STAND, HIT, DOUBLE, SPLIT or SURRENDER
+     * @return the number of times the decision was made
+     */
+    public long getDecisions(DecisionEnum decision) {
+        return decisions[decision.ordinal()];
+    }
+
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("name=");
+        text.append(name);
+        text.append(", shoes=");
+        text.append(shoes);
+        text.append(", ");
+        text.append(result);
+        text.append(", totalBet=");
+        text.append(result.getTotalBet());
+        text.append(", totalWon=");
+        text.append(result.getTotalWon());
+        for (DecisionEnum decision : DecisionEnum.values()) {
+            if (decisions[decision.ordinal()] > 0) {
+                text.append(", ");
+                text.append(decision.name().toLowerCase());
+                text.append("=");
+                text.append(decisions[decision.ordinal()]);
+            }
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,125 @@
+package com._17od.blackjack.simulation;
+
+/**
+ * The outcome of playing a number of rounds. Results from rounds played in
+ * parallel are combined using {@link #add(SimulationResult)}.
+ * <p>
+ * Enough is kept to work out the expected value (EV) and variance of a hand
+ * without keeping the result of every round.
+ *
+ * @author Adrian Smith
+ */
+public class SimulationResult {
+
+    private long hands;
+    private long totalBet;
+    private double totalWon;
+    private double totalWonSquared;
+    private long elapsedNanos;
+
+    public SimulationResult() {
+    }
+
+    /**
+     * Record the result of one hand (one round for one player).
+     *
+     * @param bet The amount originally bet
+     * @param won The amount won or, if negative, lost
+     */
+    public void record(int bet, double won) {
+        hands++;
+        totalBet += bet;
+        totalWon += won;
+        totalWonSquared += won * won;
+    }
+
+    /**
+     * Combine another set of results into this one.
+     *
+     * @param other The results to add
+     * @return this result
+     */
+    public SimulationResult add(SimulationResult other) {
+        hands += other.hands;
+        totalBet += other.totalBet;
+        totalWon += other.totalWon;
+        totalWonSquared += other.totalWonSquared;
+        return this;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public long getTotalBet() {
+        return totalBet;
+    }
+
+    public double getTotalWon() {
+        return totalWon;
+    }
+
+    /**
+     * @return the average amount won per hand
+     */
+    public double getEvPerHand() {
+        return hands == 0 ? 0 : totalWon / hands;
+    }
+
+    /**
+     * @return the average amount won for each unit originally bet
+     */
+    public double getEvPerUnitBet() {
+        return totalBet == 0 ? 0 : totalWon / totalBet;
+    }
+
+    /**
+     * @return the sample variance of the amount won per hand
+     */
+    public double getVariance() {
+        if (hands < 2) {
+            return 0;
+        }
+        double mean = totalWon / hands;
+        return (totalWonSquared - hands * mean * mean) / (hands - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of hands played per second of wall clock time
+     */
+    public double getHandsPerSecond() {
+        return elapsedNanos == 0 ? 0 : hands / (elapsedNanos / 1e9);
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("hands=");
+        result.append(hands);
+        result.append(", ");
+        result.append("handsPerSecond=");
+        result.append(String.format("%.0f", getHandsPerSecond()));
+        result.append(", ");
+        result.append("evPerHand=");
+        result.append(String.format("%.6f", getEvPerHand()));
+        result.append(", ");
+        result.append("evPerUnitBet=");
+        result.append(String.format("%.6f", getEvPerUnitBet()));
+        result.append(", ");
+        result.append("variance=");
+        result.append(String.format("%.6f", getVariance()));
+        return result.toString();
+    }
+
+}
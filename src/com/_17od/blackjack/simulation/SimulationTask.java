@@ -0,0 +1,155 @@
+package com._17od.blackjack.simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.Round;
+import com._17od.blackjack.SeededShuffler;
+import com._17od.blackjack.Shoe;
+import com._17od.blackjack.ShoeShuffler;
+import com._17od.blackjack.ShufflePipeline;
+import com._17od.blackjack.history.HandHistoryWriter;
+
+/**
+ * Plays a range of batches for a {@link Simulator}. Ranges are split in half
+ * until a single batch is left which is played on its own game, player and
+ * shoe.
+ *
+ * @author Adrian Smith
+ */
+@SuppressWarnings("serial")
+class SimulationTask extends RecursiveTask<SimulationResult> {
+
+    private Simulator simulator;
+    private long hands;
+    private long firstBatch;
+    private long lastBatch;
+
+    /**
+     * @param simulator The simulator this task is part of
+     * @param hands The total number of hands being played by the simulator
+     * @param firstBatch The first batch to play
+     * @param lastBatch One past the last batch to play
+     */
+    SimulationTask(Simulator simulator, long hands, long firstBatch,
+            long lastBatch) {
+        this.simulator = simulator;
+        this.hands = hands;
+        this.firstBatch = firstBatch;
+        this.lastBatch = lastBatch;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+        if (lastBatch - firstBatch == 1) {
+            return playBatch(firstBatch);
+        }
+
+        long middle = (firstBatch + lastBatch) >>> 1;
+        SimulationTask left = new SimulationTask(simulator, hands, firstBatch,
+                middle);
+        SimulationTask right = new SimulationTask(simulator, hands, middle,
+                lastBatch);
+        left.fork();
+        SimulationResult result = right.compute();
+        return result.add(left.join());
+    }
+
+    /**
+     * Each batch is seeded from its number so the results don't depend on
+     * which thread plays it. Every batch is full apart from, possibly, the last
+     * one. If the simulator has a shuffle executor the batch's shoes are
+     * shuffled ahead of time on it, otherwise they're shuffled here. Either way
+     * they come out the same. If the rounds are being recorded the batch has
+     * its own history writer.
+     */
+    private SimulationResult playBatch(long batch) {
+        Game game = new Game(simulator.getRules());
+        Player player = new Player();
+        simulator.getStrategyBuilder().create(game, player);
+        long shoeSeed = shoeSeed(simulator.getSeed(), batch);
+        int numberOfDecks = game.getRules().getNumberOfDecks();
+
+        ShufflePipeline pipeline = null;
+        ShoeShuffler shuffler = null;
+        if (simulator.getShuffleExecutor() != null) {
+            pipeline = new ShufflePipeline(numberOfDecks, shoeSeed,
+                    simulator.getShuffleExecutor(), simulator.getShuffleDepth());
+            shuffler = pipeline;
+        } else {
+            shuffler = new SeededShuffler(shoeSeed);
+        }
+
+        HandHistoryWriter history = null;
+        Throwable failure = null;
+        try {
+            Shoe shoe = new Shoe(numberOfDecks, game.getRules().getPenetration(),
+                    shuffler);
+            Round round = new Round(game, player, shoe);
+            if (simulator.getHistoryDirectory() != null) {
+                history = new HandHistoryWriter(simulator.getHistoryDirectory(),
+                        String.format("batch-%08d", batch),
+                        simulator.isHistorySuits());
+                round.setRoundListener(history);
+            }
+            return playHands(batch, round);
+        } catch (IOException e) {
+            UncheckedIOException unchecked = new UncheckedIOException(e);
+            failure = unchecked;
+            throw unchecked;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+            closeHistory(history, failure);
+        }
+    }
+
+    /**
+     * Mix the batch number in properly. The shuffler steps through seeds one
+     * shoe at a time so batches whose seeds were only a step apart would deal
+     * the same shoes.
+     *
+     * @return the base seed for the batch's shoes
+     */
+    static long shoeSeed(long seed, long batch) {
+        return new SplittableRandom(seed ^ (batch * 0x9E3779B97F4A7C15L)).nextLong();
+    }
+
+    /**
+     * If the batch has already failed a failure to close its history is
+     * added to that as suppressed rather than hiding it.
+     */
+    private static void closeHistory(HandHistoryWriter history, Throwable failure) {
+        if (history != null) {
+            try {
+                history.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    throw new UncheckedIOException(e);
+                }
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private SimulationResult playHands(long batch, Round round) {
+        SimulationResult result = new SimulationResult();
+        long batchSize = simulator.getBatchSize();
+        long handsInBatch = Math.min(batchSize, hands - batch * batchSize);
+        for (long i=0; i<handsInBatch; i++) {
+            double won = round.play();
+            result.record(round.getAmountBet(), won);
+        }
+
+        return result;
+    }
+
+}
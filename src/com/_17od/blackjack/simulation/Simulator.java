@@ -0,0 +1,263 @@
+package com._17od.blackjack.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CountingSystem;
+import com._17od.blackjack.metrics.Metrics;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.CompositionStrategyBuilder;
+import com._17od.blackjack.strategy.CountingStrategyBuilder;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+import com._17od.blackjack.strategy.StrategyBuilder;
+
+/**
+ * A Monte Carlo simulation of a strategy. Complete rounds are played and the
+ * amount won or lost on each is used to estimate the strategy's expected value
+ * (EV) and variance.
+ * <p>
+ * The hands are split into fixed size batches. Each batch is played on its own
+ * game, player and shoe so batches can be played in parallel on a
+ * {@link ForkJoinPool}. Each batch's shoe is seeded from the simulator's seed
+ * and the batch number so a simulation gives the same results no matter how
+ * many threads it's run on.
+ * <p>
+ * Shoes can optionally be shuffled ahead of time on a separate executor, see
+ * {@link #setShuffleExecutor(ExecutorService, int)}. The shoes are the same
+ * either way so this doesn't change the results.
+ * <p>
+ * Every round played can be recorded to a hand history, see
+ * {@link #setHistoryDirectory(File, boolean)}. Each batch writes its own
+ * history named after the batch number so batches never wait on each other.
+ * <p>
+ * Run from the command line with <code>-Dblackjack.metrics=true</code> the
+ * simulation's {@link Metrics} can be watched over JMX while it runs, and
+ * over HTTP too if <code>-Dblackjack.metrics.port</code> is given.
+ *
+ * @author Adrian Smith
+ */
+public class Simulator {
+
+    public static final int DEFAULT_BATCH_SIZE = 100000;
+    public static final int DEFAULT_SHUFFLE_DEPTH = 2;
+
+    private GameRules rules;
+    private StrategyBuilder strategyBuilder;
+    private long seed;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private ExecutorService shuffleExecutor;
+    private int shuffleDepth = DEFAULT_SHUFFLE_DEPTH;
+    private File historyDirectory;
+    private boolean historySuits;
+
+    /**
+     * @param rules The rules every game is played with. They mustn't be changed
+     * while a simulation is running.
+     * @param strategyBuilder Creates the strategy the player in each game uses
+     * @param seed The seed used to shuffle the shoes
+     */
+    public Simulator(GameRules rules, StrategyBuilder strategyBuilder, long seed) {
+        this.rules = rules;
+        this.strategyBuilder = strategyBuilder;
+        this.seed = seed;
+    }
+
+    /**
+     * Play the given number of hands on the common fork-join pool.
+     *
+     * @param hands The number of hands to play
+     * @return the combined results of every hand played
+     */
+    public SimulationResult run(long hands) {
+        return run(hands, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Play the given number of hands on the given pool.
+     *
+     * @param hands The number of hands to play
+     * @param pool The pool to play the hands on
+     * @return the combined results of every hand played
+     */
+    public SimulationResult run(long hands, ForkJoinPool pool) {
+        if (hands <= 0) {
+            return new SimulationResult();
+        }
+
+        long batches = (hands + batchSize - 1) / batchSize;
+
+        long start = System.nanoTime();
+        SimulationResult result = pool.invoke(
+                new SimulationTask(this, hands, 0, batches));
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    public GameRules getRules() {
+        return rules;
+    }
+
+    public StrategyBuilder getStrategyBuilder() {
+        return strategyBuilder;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the number of hands played in each batch. Changing this changes how
+     * the shoes are seeded and so the results.
+     *
+     * @param batchSize The number of hands in a batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public ExecutorService getShuffleExecutor() {
+        return shuffleExecutor;
+    }
+
+    public int getShuffleDepth() {
+        return shuffleDepth;
+    }
+
+    /**
+     * Shuffle shoes ahead of time on the given executor rather than on the
+     * threads playing the hands. The executor isn't shut down by the
+     * simulator.
+     *
+     * @param shuffleExecutor The executor to shuffle on or null to shuffle on
+     * the threads playing the hands
+     * @param shuffleDepth The number of shoes each batch keeps shuffled ahead
+     */
+    public void setShuffleExecutor(ExecutorService shuffleExecutor,
+            int shuffleDepth) {
+        this.shuffleExecutor = shuffleExecutor;
+        this.shuffleDepth = shuffleDepth;
+    }
+
+    public File getHistoryDirectory() {
+        return historyDirectory;
+    }
+
+    public boolean isHistorySuits() {
+        return historySuits;
+    }
+
+    /**
+     * Record every round played to a hand history in the given directory.
+     * Each batch writes a history named <code>batch-&lt;batch number&gt;</code>
+     * so reading the whole directory gives the rounds in the order they'd
+     * have been played on a single thread.
+     *
+     * @param historyDirectory The directory to write to or null to not record
+     * the rounds
+     * @param suits Whether to record the suit of each card as well as its rank
+     */
+    public void setHistoryDirectory(File historyDirectory, boolean suits) {
+        this.historyDirectory = historyDirectory;
+        this.historySuits = suits;
+    }
+
+    /**
+     * Look up a strategy by the name used on the command line.
+     *
+     * @param name "basic", "optimal", "hilo", "composition" or the name of a
+     * {@link CountingSystem}, e.g. "ko" or "omega_ii", which bets with the
+     * Hi-Lo spread
+     * @return the builder for the strategy
+     */
+    public static StrategyBuilder createStrategyBuilder(String name) {
+        if (name.equals("basic")) {
+            return new BasicStrategyBuilder();
+        } else if (name.equals("optimal")) {
+            return new BasicStrategyBuilder(true);
+        } else if (name.equals("hilo")) {
+            return new HiLoStrategyBuilder();
+        } else if (name.equals("composition")) {
+            return new CompositionStrategyBuilder();
+        }
+
+        CountingSystem system = null;
+        try {
+            system = CountingSystem.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown strategy " + name);
+        }
+        return new CountingStrategyBuilder(system, BetRamp.hiLo());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Simulator <\"basic\", \"optimal\", \"hilo\", \"composition\" or a counting system> <hands> [decks] [threads] [seed] [shuffle threads] [history directory]");
+            System.exit(1);
+        }
+
+        StrategyBuilder builder = createStrategyBuilder(args[0]);
+        long hands = Long.parseLong(args[1]);
+
+        GameRules rules = new GameRules();
+        if (args.length > 2) {
+            rules.setNumberOfDecks(Integer.parseInt(args[2]));
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length > 3) {
+            threads = Integer.parseInt(args[3]);
+        }
+
+        long seed = System.nanoTime();
+        if (args.length > 4) {
+            seed = Long.parseLong(args[4]);
+        }
+
+        int shuffleThreads = 0;
+        if (args.length > 5) {
+            shuffleThreads = Integer.parseInt(args[5]);
+        }
+
+        Simulator simulator = new Simulator(rules, builder, seed);
+        ExecutorService shuffleExecutor = null;
+        if (shuffleThreads > 0) {
+            shuffleExecutor = Executors.newFixedThreadPool(shuffleThreads);
+            simulator.setShuffleExecutor(shuffleExecutor, DEFAULT_SHUFFLE_DEPTH);
+        }
+        if (args.length > 6) {
+            File historyDirectory = new File(args[6]);
+            historyDirectory.mkdirs();
+            simulator.setHistoryDirectory(historyDirectory, false);
+        }
+        if (Metrics.ENABLED) {
+            Metrics.start();
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SimulationResult result = simulator.run(hands, pool);
+        pool.shutdown();
+        if (shuffleExecutor != null) {
+            shuffleExecutor.shutdown();
+        }
+
+        System.out.println("Strategy: " + args[0]);
+        System.out.println("Rules: " + rules);
+        System.out.println("Threads: " + threads);
+        System.out.println("Shuffle threads: " + shuffleThreads);
+        System.out.println("Seed: " + seed);
+        System.out.println("Hands: " + result.getHands());
+        System.out.println("Hands/sec: " + String.format("%.0f", result.getHandsPerSecond()));
+        System.out.println("EV per hand: " + String.format("%.6f", result.getEvPerHand()));
+        System.out.println("EV per unit bet: " + String.format("%.6f", result.getEvPerUnitBet()));
+        System.out.println("Variance: " + String.format("%.6f", result.getVariance()));
+    }
+
+}
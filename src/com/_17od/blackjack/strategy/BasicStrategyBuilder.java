@@ -4,15 +4,42 @@ import com._17od.blackjack.Game;
 import com._17od.blackjack.Player;
 
 /**
- * Build an instance of a BasicStrategy class.
+ * Build an instance of a BasicStrategy class. Every strategy built for the
+ * same rules shares one strategy table so building a strategy is cheap.
+ * <p>
+ * The strategy either plays the hand written basic strategy chart or a chart
+ * generated for the game's rules by a {@link StrategyChartGenerator}.
  * 
  * @author Adrian Smith
  */
 public class BasicStrategyBuilder implements StrategyBuilder {
 
+    private boolean generatedChart;
+
+    /**
+     * Build strategies that play the hand written basic strategy chart.
+     */
+    public BasicStrategyBuilder() {
+        this(false);
+    }
+
+    /**
+     * @param generatedChart True to play a chart generated for the game's
+     * rules rather than the hand written one
+     */
+    public BasicStrategyBuilder(boolean generatedChart) {
+        this.generatedChart = generatedChart;
+    }
+
     @Override
     public Strategy create(Game game, Player player) {
-        BasicStrategy strategy = new BasicStrategy(game, player);
+        StrategyTable table = null;
+        if (generatedChart) {
+            table = StrategyTableCache.getGenerated(game.getRules());
+        } else {
+            table = StrategyTableCache.get(game.getRules());
+        }
+        BasicStrategy strategy = new BasicStrategy(game, player, table);
         player.setStrategy(strategy);
         return strategy;
     }
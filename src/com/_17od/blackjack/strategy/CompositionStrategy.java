@@ -0,0 +1,265 @@
+package com._17od.blackjack.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardObserver;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameException;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.analysis.Composition;
+import com._17od.blackjack.analysis.DealerProbabilities;
+import com._17od.blackjack.analysis.ExpectedValues;
+import com._17od.blackjack.analysis.SplitCalculator;
+
+/**
+ * A strategy that plays each hand using the exact cards left in the shoe. It
+ * watches every card dealt to keep track of what's left and picks whichever
+ * move has the highest {@link ExpectedValues expected value}.
+ * <p>
+ * Working out the EVs takes much longer than a table lookup so the move for
+ * each situation is cached, keyed by the {@link Composition#key()} of the cards
+ * left, the player's hand and the dealer's faceup card. The cache is a least
+ * recently used cache of a fixed size.
+ * <p>
+ * The EV of splitting a pair, including any resplits, is worked out by a
+ * {@link SplitCalculator} and compared with the other moves like any other.
+ * It's the slowest EV to work out so, to keep each decision well under a
+ * millisecond during a shoe, the hands are played out on the calling thread
+ * and the EV is only worked out for up to {@link #DEFAULT_MAX_SPLIT_HANDS}
+ * hands. Leaving out the later resplits makes splitting look very slightly
+ * worse than it is, which only matters for pairs that are very close.
+ * 
+ * @author Adrian Smith
+ */
+public class CompositionStrategy extends BasicStrategy implements CardObserver {
+
+    public static final int DEFAULT_CACHE_SIZE = 100000;
+    public static final int DEFAULT_MAX_SPLIT_HANDS = 3;
+
+    private Composition shoe;
+    private ExpectedValues expectedValues;
+    private SplitCalculator splitCalculator;
+    private Map<SituationKey, DecisionEnum> cache;
+    private int maxSplitHands;
+
+    public CompositionStrategy(Game game, Player player) {
+        this(game, player, StrategyTableCache.get(game.getRules()),
+                DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param game The game being played
+     * @param player The player using this strategy
+     * @param strategyTable The basic strategy table for the game's rules
+     * @param cacheSize The number of moves to cache
+     */
+    public CompositionStrategy(Game game, Player player,
+            StrategyTable strategyTable, int cacheSize) {
+        this(game, player, strategyTable, cacheSize, DEFAULT_MAX_SPLIT_HANDS);
+    }
+
+    /**
+     * @param game The game being played
+     * @param player The player using this strategy
+     * @param strategyTable The basic strategy table for the game's rules
+     * @param cacheSize The number of moves to cache
+     * @param maxSplitHands The most hands a pair's split EV is worked out
+     * for, at least 2. The rules may allow more.
+     */
+    public CompositionStrategy(Game game, Player player,
+            StrategyTable strategyTable, final int cacheSize,
+            int maxSplitHands) {
+        super(game, player, strategyTable);
+        if (maxSplitHands < 2) {
+            throw new IllegalArgumentException("A pair must be split into at least 2 hands");
+        }
+        this.maxSplitHands = maxSplitHands;
+        this.expectedValues = new ExpectedValues(
+                new DealerProbabilities(game.getRules()));
+        this.splitCalculator = new SplitCalculator(game.getRules(),
+                SplitCalculator.DEFAULT_MAX_CACHE_SIZE, false);
+        this.cache = new LinkedHashMap<SituationKey, DecisionEnum>(16, 0.75f,
+                true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<SituationKey, DecisionEnum> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        initialiseShoe();
+        game.addCardObserver(this);
+    }
+
+    @Override
+    /**
+     * Pick the move with the highest EV for the cards left in the shoe.
+     * 
+     * @return The next move to make.
+     */
+    public DecisionEnum nextDecision() {
+        int total = playerHand.total();
+        if (total > 21) {
+            throw new GameException("Hand is bust");
+        }
+
+        boolean ace = playerHand.getNumAces() > 0;
+        int hard = playerHand.isSoft() ? total - 10 : total;
+        int upcard = dealerHand.getCards().get(0).getValue();
+        int flags = handFlags();
+
+        // The number of hands the pair could end up as if it's split, as far
+        // as they're worked out
+        int splitHands = 0;
+        if (playerHand.isPair() && canSplit()) {
+            splitHands = Math.min(gameRules.getMaxSplitHands()
+                    - playerHand.getSplitCount(), maxSplitHands);
+        }
+
+        SituationKey key = new SituationKey(shoe.key(), hard
+                | (ace ? 1 << 5 : 0) | flags << 6 | upcard << 8
+                | splitHands << 12);
+        DecisionEnum decision = cache.get(key);
+        if (decision == null) {
+            decision = bestDecision(hard, ace, upcard, flags, splitHands);
+            cache.put(key, decision);
+        }
+
+        return decision;
+    }
+
+    @Override
+    /**
+     * Take the card out of the cards left.
+     */
+    public void notify(Card card) {
+        shoe.remove(card);
+
+        // If there are not more cards then reinitialise the shoe
+        if (shoe.getTotal() == 0) {
+            initialiseShoe();
+        }
+    }
+
+    @Override
+    /**
+     * The shoe has been shuffled so every card is back.
+     */
+    public void notifyShuffle() {
+        initialiseShoe();
+    }
+
+    /**
+     * @return the cards not seen yet
+     */
+    public Composition getShoe() {
+        return shoe;
+    }
+
+    @Override
+    public String toString() {
+        return "Composition Strategy"; 
+    }
+
+    /**
+     * Work out the EV of every move allowed and pick the best.
+     */
+    private DecisionEnum bestDecision(int hard, boolean ace, int upcard,
+            int flags, int splitHands) {
+        int total = ExpectedValues.total(hard, ace);
+        double[] dealerOutcomes = expectedValues.dealerOutcomes(upcard, shoe);
+
+        DecisionEnum decision = DecisionEnum.STAND;
+        double best = ExpectedValues.stand(total, dealerOutcomes);
+
+        // Split aces can only be split again or stood on
+        if (hard == 2 && (flags & StrategyTable.AFTER_SPLIT) != 0) {
+            return bestSplit(11, upcard, splitHands, decision, best);
+        }
+
+        double hit = expectedValues.hit(hard, ace, shoe, dealerOutcomes);
+        if (hit > best) {
+            decision = DecisionEnum.HIT;
+            best = hit;
+        }
+
+        int handType = ace && total != hard ? StrategyTable.SOFT
+                : StrategyTable.HARD;
+        if (StrategyTable.canDouble(gameRules, handType, total, flags)) {
+            double doubleDown = expectedValues.doubleDown(hard, ace, shoe,
+                    dealerOutcomes);
+            if (doubleDown > best) {
+                decision = DecisionEnum.DOUBLE;
+                best = doubleDown;
+            }
+        }
+
+        if (gameRules.isSurrenderAllowed()
+                && (flags & StrategyTable.FIRST_TWO_CARDS) != 0
+                && (flags & StrategyTable.AFTER_SPLIT) == 0 && -0.5 > best) {
+            decision = DecisionEnum.SURRENDER;
+            best = -0.5;
+        }
+
+        if (splitHands >= 2) {
+            // A pair of aces has a hard total of 2
+            int value = hard == 2 ? 11 : hard / 2;
+            decision = bestSplit(value, upcard, splitHands, decision, best);
+        }
+
+        return decision;
+    }
+
+    /**
+     * @return SPLIT if splitting the pair beats the best of the other moves,
+     * otherwise that move
+     */
+    private DecisionEnum bestSplit(int value, int upcard, int splitHands,
+            DecisionEnum decision, double best) {
+        if (splitHands >= 2
+                && splitCalculator.split(value, upcard, shoe, splitHands) > best) {
+            return DecisionEnum.SPLIT;
+        }
+        return decision;
+    }
+
+    private void initialiseShoe() {
+        shoe = new Composition(gameRules.getNumberOfDecks());
+    }
+
+    /**
+     * The cards left plus the player's hand, dealer's faceup card and the
+     * hand's flags packed into an int.
+     */
+    private static final class SituationKey {
+
+        private final long composition;
+        private final int situation;
+
+        SituationKey(long composition, int situation) {
+            this.composition = composition;
+            this.situation = situation;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SituationKey)) {
+                return false;
+            }
+            SituationKey other = (SituationKey) obj;
+            return composition == other.composition
+                    && situation == other.situation;
+        }
+
+        @Override
+        public int hashCode() {
+            long h = composition * 31 + situation;
+            return (int) (h ^ (h >>> 32));
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package com._17od.blackjack.strategy;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.Player;
+
+/**
+ * Create in instance of the composition dependent strategy. Every strategy
+ * built for the same rules shares one basic strategy table.
+ * 
+ * @author Adrian Smith
+ */
+public class CompositionStrategyBuilder implements StrategyBuilder {
+
+    @Override
+    /**
+     * Create an instance of the CompositionStrategy
+     * @param game The game this strategy will be part of
+     * @param player The player that will own this strategy
+     * @return an instance of the CompositionStrategy
+     */
+    public Strategy create(Game game, Player player) {
+        CompositionStrategy strategy = new CompositionStrategy(game, player,
+                StrategyTableCache.get(game.getRules()),
+                CompositionStrategy.DEFAULT_CACHE_SIZE);
+        player.setStrategy(strategy);
+        return strategy;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com._17od.blackjack.strategy;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CardCounter;
+import com._17od.blackjack.counting.CountingSystem;
+import com._17od.blackjack.jfr.BetEvent;
+
+/**
+ * A card counting strategy. The cards are counted by a {@link CardCounter}
+ * using any of the {@link CountingSystem}s and the count is used to look up
+ * the number of units to bet in a {@link BetRamp}.
+ * <p>
+ * This strategy extends BasicStrategy and relies on it to determine what
+ * decision a player should make once he's been dealt a hand.
+ * 
+ * @author Adrian Smith
+ */
+public class CountingStrategy extends BasicStrategy {
+
+    private CardCounter counter;
+    private BetRamp betRamp;
+
+    /**
+     * Create a strategy that counts the cards dealt in the given game.
+     * 
+     * @param game The game being played
+     * @param player The player using this strategy
+     * @param strategyTable The table compiled for the game's rules
+     * @param system The counting system to use
+     * @param betRamp The number of units to bet at each count
+     */
+    public CountingStrategy(Game game, Player player,
+            StrategyTable strategyTable, CountingSystem system,
+            BetRamp betRamp) {
+        super(game, player, strategyTable);
+        this.counter = new CardCounter(system,
+                game.getRules().getNumberOfDecks());
+        this.betRamp = betRamp;
+        game.addCardObserver(counter);
+    }
+
+    @Override
+    /**
+     * Bet the number of units the bet ramp gives for the current count.
+     * @return the amount to bet
+     */
+    public int amountToBet() {
+        BetEvent event = new BetEvent();
+        event.begin();
+        int bet = gameRules.getMinimumBet()
+                * betRamp.units(counter.getBettingCount());
+        if (event.shouldCommit()) {
+            event.commit(counter, bet);
+        }
+        return bet;
+    }
+
+    public CardCounter getCounter() {
+        return counter;
+    }
+
+    public BetRamp getBetRamp() {
+        return betRamp;
+    }
+
+    public int getRunningCount() {
+        return counter.getRunningCount();
+    }
+
+    public int getCardsLeft() {
+        return counter.getCardsLeft();
+    }
+
+    @Override
+    public String toString() {
+        return counter.getSystem() + " Counting Strategy";
+    }
+
+}
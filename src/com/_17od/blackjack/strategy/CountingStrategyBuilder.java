@@ -0,0 +1,43 @@
+package com._17od.blackjack.strategy;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CountingSystem;
+
+/**
+ * Create instances of the CountingStrategy for one counting system and bet
+ * ramp. Every strategy built for the same rules shares one strategy table so
+ * building a strategy is cheap.
+ * 
+ * @author Adrian Smith
+ */
+public class CountingStrategyBuilder implements StrategyBuilder {
+
+    private CountingSystem system;
+    private BetRamp betRamp;
+
+    /**
+     * @param system The counting system the strategies use
+     * @param betRamp The number of units to bet at each count
+     */
+    public CountingStrategyBuilder(CountingSystem system, BetRamp betRamp) {
+        this.system = system;
+        this.betRamp = betRamp;
+    }
+
+    @Override
+    /**
+     * Create an instance of the CountingStrategy
+     * @param game The game this strategy will be part of
+     * @param player The player that will own this strategy
+     * @return an instance of the CountingStrategy
+     */
+    public Strategy create(Game game, Player player) {
+        CountingStrategy strategy = new CountingStrategy(game, player,
+                StrategyTableCache.get(game.getRules()), system, betRamp);
+        player.setStrategy(strategy);
+        return strategy;
+    }
+
+}
@@ -4,7 +4,8 @@ import com._17od.blackjack.Game;
 import com._17od.blackjack.Player;
 
 /**
- * Create in instance of the HiLo strategy
+ * Create in instance of the HiLo strategy. Every strategy built for the same
+ * rules shares one strategy table so building a strategy is cheap.
  * 
  * @author Adrian Smith
  */
@@ -18,7 +19,8 @@ public class HiLoStrategyBuilder implements StrategyBuilder {
      * @return an instance of the HiLoStrategy
      */
     public Strategy create(Game game, Player player) {
-        HiLoStrategy strategy = new HiLoStrategy(game, player);
+        HiLoStrategy strategy = new HiLoStrategy(game, player,
+                StrategyTableCache.get(game.getRules()));
         player.setStrategy(strategy);
         return strategy;
     }
@@ -10,7 +10,8 @@ import com._17od.blackjack.decisions.Decision;
 public interface Strategy {
 
     public enum DecisionEnum { STAND, HIT, DOUBLE, DOUBLE_OR_HIT, 
-        DOUBLE_OR_STAND, SPLIT, SURRENDER }
+        DOUBLE_OR_STAND, SPLIT, SURRENDER, SURRENDER_OR_HIT,
+        SURRENDER_OR_STAND }
 
     public int amountToBet();
     
@@ -21,4 +22,12 @@ public interface Strategy {
      */
     public Decision whatNext();
 
+    /**
+     * Get the next move without creating a {@link Decision}. Any
+     * DOUBLE_OR_? or SURRENDER_OR_? choice has already been resolved so
+     * the move returned is one of STAND, HIT, DOUBLE, SPLIT or SURRENDER.
+     * @return The next move to make
+     */
+    public DecisionEnum nextDecision();
+
 }
@@ -0,0 +1,592 @@
+package com._17od.blackjack.strategy;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * A strategy chart gives the move to make for each player hand and dealer
+ * faceup card.
+ * <p>
+ * The chart is made up of three two dimensional arrays, "Hard Totals", "Soft
+ * Totals" and "Pairs". The first dimension is the player's hand's total (or
+ * the value of the paired card). The second is the value of the dealer's
+ * faceup card.
+ * <p>
+ * The chart can contain DOUBLE_OR_HIT and DOUBLE_OR_STAND. Whether or not
+ * these end up as a double depends on the game rules and the hand so they're
+ * resolved by a {@link StrategyTable} compiled from the chart. The same goes
+ * for SURRENDER_OR_HIT and SURRENDER_OR_STAND.
+ * <p>
+ * The basic strategy chart is written out by hand. A chart for any set of
+ * rules can be worked out by a {@link StrategyChartGenerator}.
+ * 
+ * @author Adrian Smith
+ */
+public class StrategyChart {
+
+    public static final int HARD_TOTALS_OFFSET = 5;
+    public static final int SOFT_TOTALS_OFFSET = 13;
+    public static final int PAIRS_OFFSET = 2;
+    public static final int DEALER_OFFSET = 2;
+
+    private DecisionEnum[][] hardTotalsStrategies;
+    private DecisionEnum[][] softTotalsStrategies;
+    private DecisionEnum[][] pairsStrategies;
+
+    /**
+     * @param hardTotals Hard totals 5 to 20 against dealer 2 to ace
+     * @param softTotals Soft totals 13 to 20 against dealer 2 to ace
+     * @param pairs Pairs of 2s to aces against dealer 2 to ace
+     */
+    public StrategyChart(DecisionEnum[][] hardTotals,
+            DecisionEnum[][] softTotals, DecisionEnum[][] pairs) {
+        this.hardTotalsStrategies = hardTotals;
+        this.softTotalsStrategies = softTotals;
+        this.pairsStrategies = pairs;
+    }
+
+    /**
+     * Create the basic strategy chart. See
+     * <a href="http://en.wikipedia.org/wiki/Blackjack#Basic_strategy">here</a>
+     * for more info.
+     * 
+     * @return the basic strategy chart
+     */
+    public static StrategyChart basicStrategy() {
+        StrategyChart chart = new StrategyChart(new DecisionEnum[16][10],
+                new DecisionEnum[8][10], new DecisionEnum[10][10]);
+        chart.populateHardTotalsStrategies();
+        chart.populateSoftTotalsStrategies();
+        chart.populatePairsStrategies();
+        return chart;
+    }
+
+    /**
+     * @param total The player's hard total, 5 to 20
+     * @param dealerValue The value of the dealer's faceup card, 2 to 11
+     * @return the move to make
+     */
+    public DecisionEnum getHardTotal(int total, int dealerValue) {
+        return hardTotalsStrategies[total - HARD_TOTALS_OFFSET]
+                [dealerValue - DEALER_OFFSET];
+    }
+
+    /**
+     * @param total The player's soft total, 13 to 20
+     * @param dealerValue The value of the dealer's faceup card, 2 to 11
+     * @return the move to make
+     */
+    public DecisionEnum getSoftTotal(int total, int dealerValue) {
+        return softTotalsStrategies[total - SOFT_TOTALS_OFFSET]
+                [dealerValue - DEALER_OFFSET];
+    }
+
+    /**
+     * @param pairValue The value of one of the paired cards, 2 to 11
+     * @param dealerValue The value of the dealer's faceup card, 2 to 11
+     * @return the move to make
+     */
+    public DecisionEnum getPair(int pairValue, int dealerValue) {
+        return pairsStrategies[pairValue - PAIRS_OFFSET]
+                [dealerValue - DEALER_OFFSET];
+    }
+
+    @Override
+    /**
+     * Write the chart out as a table, one row for each hand and one column for
+     * each dealer card. The moves are abbreviated: S stand, H hit, D double,
+     * Dh double or hit, Ds double or stand, P split, R surrender, Rh surrender
+     * or hit and Rs surrender or stand.
+     */
+    public String toString() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("        2   3   4   5   6   7   8   9   T   A");
+        for (int i=0; i<hardTotalsStrategies.length; i++) {
+            appendRow(buf, "H" + (i + HARD_TOTALS_OFFSET), hardTotalsStrategies[i]);
+        }
+        for (int i=0; i<softTotalsStrategies.length; i++) {
+            appendRow(buf, "S" + (i + SOFT_TOTALS_OFFSET), softTotalsStrategies[i]);
+        }
+        for (int i=0; i<pairsStrategies.length; i++) {
+            int pairValue = i + PAIRS_OFFSET;
+            String name = pairValue == 11 ? "A" : pairValue == 10 ? "T"
+                    : String.valueOf(pairValue);
+            appendRow(buf, name + "," + name, pairsStrategies[i]);
+        }
+        return buf.toString();
+    }
+
+    private static void appendRow(StringBuilder buf, String name,
+            DecisionEnum[] row) {
+        buf.append(System.getProperty("line.separator"));
+        buf.append(name);
+        for (int i=name.length(); i<5; i++) {
+            buf.append(' ');
+        }
+        for (DecisionEnum move : row) {
+            String abbreviation = abbreviate(move);
+            buf.append(abbreviation.length() == 1 ? "   " : "  ");
+            buf.append(abbreviation);
+        }
+    }
+
+    private static String abbreviate(DecisionEnum move) {
+        switch (move) {
+        case STAND: return "S";
+        case HIT: return "H";
+        case DOUBLE: return "D";
+        case DOUBLE_OR_HIT: return "Dh";
+        case DOUBLE_OR_STAND: return "Ds";
+        case SPLIT: return "P";
+        case SURRENDER: return "R";
+        case SURRENDER_OR_HIT: return "Rh";
+        case SURRENDER_OR_STAND: return "Rs";
+        default: return "?";
+        }
+    }
+
+    /**
+     * Populate a two dimensional array based on the players hard total and the
+     * dealers faceup card.
+     * 
+     * To make the arrays as small as possible the value of the cards is mapped
+     * to specific locations in the array.
+     *  
+     * A player's hard total is reduced by 5. For example, a total of 12 will be
+     * mapped to location 7 in the first dimension.
+     * 
+     * For a dealer the value is reduced by 2. Ace is treated as a hard 11
+     * before being reduced to 9.
+     */
+    private void populateHardTotalsStrategies() {
+        // Dealer 2
+        hardTotalsStrategies[0][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][0] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][0] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][0] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[9][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[10][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[11][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[12][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][0] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][0] = DecisionEnum.STAND;
+
+        // Dealer 3
+        hardTotalsStrategies[0][1] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][1] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][1] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][1] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][1] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[4][1] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][1] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][1] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[9][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[10][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[11][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[12][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][1] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][1] = DecisionEnum.STAND;
+
+        // Dealer 4
+        hardTotalsStrategies[0][2] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][2] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][2] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][2] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][2] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[4][2] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][2] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[8][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[9][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[10][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[11][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[12][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][2] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][2] = DecisionEnum.STAND;
+
+        // Dealer 5
+        hardTotalsStrategies[0][3] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][3] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][3] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][3] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][3] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[4][3] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][3] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[8][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[9][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[10][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[11][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[12][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][3] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][3] = DecisionEnum.STAND;
+
+        // Dealer 6
+        hardTotalsStrategies[0][4] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][4] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][4] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][4] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][4] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[4][4] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][4] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[8][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[9][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[10][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[11][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[12][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][4] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][4] = DecisionEnum.STAND;
+
+        // Dealer 7
+        hardTotalsStrategies[0][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][5] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][5] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[9][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[10][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[11][5] = DecisionEnum.HIT;
+        hardTotalsStrategies[12][5] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][5] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][5] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][5] = DecisionEnum.STAND;
+
+        // Dealer 8
+        hardTotalsStrategies[0][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][6] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][6] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[9][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[10][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[11][6] = DecisionEnum.HIT;
+        hardTotalsStrategies[12][6] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][6] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][6] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][6] = DecisionEnum.STAND;
+
+        // Dealer 9
+        hardTotalsStrategies[0][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][7] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[6][7] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[9][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[10][7] = DecisionEnum.HIT;
+        hardTotalsStrategies[11][7] = DecisionEnum.SURRENDER;
+        hardTotalsStrategies[12][7] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][7] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][7] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][7] = DecisionEnum.STAND;
+
+        // Dealer 10
+        hardTotalsStrategies[0][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[6][8] = DecisionEnum.DOUBLE_OR_HIT;
+        hardTotalsStrategies[7][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[9][8] = DecisionEnum.HIT;
+        hardTotalsStrategies[10][8] = DecisionEnum.SURRENDER;
+        hardTotalsStrategies[11][8] = DecisionEnum.SURRENDER;
+        hardTotalsStrategies[12][8] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][8] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][8] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][8] = DecisionEnum.STAND;
+
+        // Dealer Ace
+        hardTotalsStrategies[0][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[1][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[2][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[3][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[4][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[5][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[6][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[7][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[8][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[9][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[10][9] = DecisionEnum.HIT;
+        hardTotalsStrategies[11][9] = DecisionEnum.SURRENDER;
+        hardTotalsStrategies[12][9] = DecisionEnum.STAND;
+        hardTotalsStrategies[13][9] = DecisionEnum.STAND;
+        hardTotalsStrategies[14][9] = DecisionEnum.STAND;
+        hardTotalsStrategies[15][9] = DecisionEnum.STAND;
+    }
+
+    /**
+     * Populate a two dimensional array based on the players soft total and the
+     * dealers faceup card.
+     * 
+     * To make the arrays as small as possible the value of the cards is mapped
+     * to specific locations in the array.
+     *  
+     * A player's soft total is reduced by 13. For example, a hand with an Ace
+     * and a 7 (total 18) will be mapped to location 5 in the first dimension.
+     * 
+     * For a dealer the value is reduced by 2. Ace is treated as a hard 11
+     * before being reduced to 9.
+     */
+    private void populateSoftTotalsStrategies() {
+        // Dealer 2
+        softTotalsStrategies[0][0] = DecisionEnum.HIT;
+        softTotalsStrategies[1][0] = DecisionEnum.HIT;
+        softTotalsStrategies[2][0] = DecisionEnum.HIT;
+        softTotalsStrategies[3][0] = DecisionEnum.HIT;
+        softTotalsStrategies[4][0] = DecisionEnum.HIT;
+        softTotalsStrategies[5][0] = DecisionEnum.STAND;
+        softTotalsStrategies[6][0] = DecisionEnum.STAND;
+        softTotalsStrategies[7][0] = DecisionEnum.STAND;
+
+        // Dealer 3
+        softTotalsStrategies[0][1] = DecisionEnum.HIT;
+        softTotalsStrategies[1][1] = DecisionEnum.HIT;
+        softTotalsStrategies[2][1] = DecisionEnum.HIT;
+        softTotalsStrategies[3][1] = DecisionEnum.HIT;
+        softTotalsStrategies[4][1] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[5][1] = DecisionEnum.DOUBLE_OR_STAND;
+        softTotalsStrategies[6][1] = DecisionEnum.STAND;
+        softTotalsStrategies[7][1] = DecisionEnum.STAND;
+
+        // Dealer 4
+        softTotalsStrategies[0][2] = DecisionEnum.HIT;
+        softTotalsStrategies[1][2] = DecisionEnum.HIT;
+        softTotalsStrategies[2][2] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[3][2] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[4][2] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[5][2] = DecisionEnum.DOUBLE_OR_STAND;
+        softTotalsStrategies[6][2] = DecisionEnum.STAND;
+        softTotalsStrategies[7][2] = DecisionEnum.STAND;
+
+        // Dealer 5
+        softTotalsStrategies[0][3] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[1][3] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[2][3] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[3][3] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[4][3] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[5][3] = DecisionEnum.DOUBLE_OR_STAND;
+        softTotalsStrategies[6][3] = DecisionEnum.STAND;
+        softTotalsStrategies[7][3] = DecisionEnum.STAND;
+
+        // Dealer 6
+        softTotalsStrategies[0][4] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[1][4] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[2][4] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[3][4] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[4][4] = DecisionEnum.DOUBLE_OR_HIT;
+        softTotalsStrategies[5][4] = DecisionEnum.DOUBLE_OR_STAND;
+        softTotalsStrategies[6][4] = DecisionEnum.STAND;
+        softTotalsStrategies[7][4] = DecisionEnum.STAND;
+
+        // Dealer 7
+        softTotalsStrategies[0][5] = DecisionEnum.HIT;
+        softTotalsStrategies[1][5] = DecisionEnum.HIT;
+        softTotalsStrategies[2][5] = DecisionEnum.HIT;
+        softTotalsStrategies[3][5] = DecisionEnum.HIT;
+        softTotalsStrategies[4][5] = DecisionEnum.HIT;
+        softTotalsStrategies[5][5] = DecisionEnum.STAND;
+        softTotalsStrategies[6][5] = DecisionEnum.STAND;
+        softTotalsStrategies[7][5] = DecisionEnum.STAND;
+
+        // Dealer 8
+        softTotalsStrategies[0][6] = DecisionEnum.HIT;
+        softTotalsStrategies[1][6] = DecisionEnum.HIT;
+        softTotalsStrategies[2][6] = DecisionEnum.HIT;
+        softTotalsStrategies[3][6] = DecisionEnum.HIT;
+        softTotalsStrategies[4][6] = DecisionEnum.HIT;
+        softTotalsStrategies[5][6] = DecisionEnum.STAND;
+        softTotalsStrategies[6][6] = DecisionEnum.STAND;
+        softTotalsStrategies[7][6] = DecisionEnum.STAND;
+
+        // Dealer 9
+        softTotalsStrategies[0][7] = DecisionEnum.HIT;
+        softTotalsStrategies[1][7] = DecisionEnum.HIT;
+        softTotalsStrategies[2][7] = DecisionEnum.HIT;
+        softTotalsStrategies[3][7] = DecisionEnum.HIT;
+        softTotalsStrategies[4][7] = DecisionEnum.HIT;
+        softTotalsStrategies[5][7] = DecisionEnum.HIT;
+        softTotalsStrategies[6][7] = DecisionEnum.STAND;
+        softTotalsStrategies[7][7] = DecisionEnum.STAND;
+
+        // Dealer 10
+        softTotalsStrategies[0][8] = DecisionEnum.HIT;
+        softTotalsStrategies[1][8] = DecisionEnum.HIT;
+        softTotalsStrategies[2][8] = DecisionEnum.HIT;
+        softTotalsStrategies[3][8] = DecisionEnum.HIT;
+        softTotalsStrategies[4][8] = DecisionEnum.HIT;
+        softTotalsStrategies[5][8] = DecisionEnum.HIT;
+        softTotalsStrategies[6][8] = DecisionEnum.STAND;
+        softTotalsStrategies[7][8] = DecisionEnum.STAND;
+
+        // Dealer Ace
+        softTotalsStrategies[0][9] = DecisionEnum.HIT;
+        softTotalsStrategies[1][9] = DecisionEnum.HIT;
+        softTotalsStrategies[2][9] = DecisionEnum.HIT;
+        softTotalsStrategies[3][9] = DecisionEnum.HIT;
+        softTotalsStrategies[4][9] = DecisionEnum.HIT;
+        softTotalsStrategies[5][9] = DecisionEnum.HIT;
+        softTotalsStrategies[6][9] = DecisionEnum.STAND;
+        softTotalsStrategies[7][9] = DecisionEnum.STAND;
+    }
+
+    /**
+     * Populate a two dimensional array based on what pairs the player has and
+     * the dealers faceup card.
+     * 
+     * To make the arrays as small as possible the value of the cards is mapped
+     * to specific locations in the array.
+     *  
+     * The pair rank is reduced by 2. For example, a rank of 5 will be mapped
+     * to location 3 in the first dimension.
+     * 
+     * For a dealer the value is reduced by 2. Ace is treated as a hard 11
+     * before being reduced to 9.
+     */
+    private void populatePairsStrategies() {
+        // Dealer 2
+        pairsStrategies[0][0] = DecisionEnum.SPLIT;
+        pairsStrategies[1][0] = DecisionEnum.SPLIT;
+        pairsStrategies[2][0] = DecisionEnum.HIT;
+        pairsStrategies[3][0] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][0] = DecisionEnum.SPLIT;
+        pairsStrategies[5][0] = DecisionEnum.SPLIT;
+        pairsStrategies[6][0] = DecisionEnum.SPLIT;
+        pairsStrategies[7][0] = DecisionEnum.SPLIT;
+        pairsStrategies[8][0] = DecisionEnum.STAND;
+        pairsStrategies[9][0] = DecisionEnum.SPLIT;
+
+        // Dealer 3
+        pairsStrategies[0][1] = DecisionEnum.SPLIT;
+        pairsStrategies[1][1] = DecisionEnum.SPLIT;
+        pairsStrategies[2][1] = DecisionEnum.HIT;
+        pairsStrategies[3][1] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][1] = DecisionEnum.SPLIT;
+        pairsStrategies[5][1] = DecisionEnum.SPLIT;
+        pairsStrategies[6][1] = DecisionEnum.SPLIT;
+        pairsStrategies[7][1] = DecisionEnum.SPLIT;
+        pairsStrategies[8][1] = DecisionEnum.STAND;
+        pairsStrategies[9][1] = DecisionEnum.SPLIT;
+
+        // Dealer 4
+        pairsStrategies[0][2] = DecisionEnum.SPLIT;
+        pairsStrategies[1][2] = DecisionEnum.SPLIT;
+        pairsStrategies[2][2] = DecisionEnum.HIT;
+        pairsStrategies[3][2] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][2] = DecisionEnum.SPLIT;
+        pairsStrategies[5][2] = DecisionEnum.SPLIT;
+        pairsStrategies[6][2] = DecisionEnum.SPLIT;
+        pairsStrategies[7][2] = DecisionEnum.SPLIT;
+        pairsStrategies[8][2] = DecisionEnum.STAND;
+        pairsStrategies[9][2] = DecisionEnum.SPLIT;
+
+        // Dealer 5
+        pairsStrategies[0][3] = DecisionEnum.SPLIT;
+        pairsStrategies[1][3] = DecisionEnum.SPLIT;
+        pairsStrategies[2][3] = DecisionEnum.SPLIT;
+        pairsStrategies[3][3] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][3] = DecisionEnum.SPLIT;
+        pairsStrategies[5][3] = DecisionEnum.SPLIT;
+        pairsStrategies[6][3] = DecisionEnum.SPLIT;
+        pairsStrategies[7][3] = DecisionEnum.SPLIT;
+        pairsStrategies[8][3] = DecisionEnum.STAND;
+        pairsStrategies[9][3] = DecisionEnum.SPLIT;
+
+        // Dealer 6
+        pairsStrategies[0][4] = DecisionEnum.SPLIT;
+        pairsStrategies[1][4] = DecisionEnum.SPLIT;
+        pairsStrategies[2][4] = DecisionEnum.SPLIT;
+        pairsStrategies[3][4] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][4] = DecisionEnum.SPLIT;
+        pairsStrategies[5][4] = DecisionEnum.SPLIT;
+        pairsStrategies[6][4] = DecisionEnum.SPLIT;
+        pairsStrategies[7][4] = DecisionEnum.SPLIT;
+        pairsStrategies[8][4] = DecisionEnum.STAND;
+        pairsStrategies[9][4] = DecisionEnum.SPLIT;
+
+        // Dealer 7
+        pairsStrategies[0][5] = DecisionEnum.SPLIT;
+        pairsStrategies[1][5] = DecisionEnum.SPLIT;
+        pairsStrategies[2][5] = DecisionEnum.HIT;
+        pairsStrategies[3][5] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][5] = DecisionEnum.HIT;
+        pairsStrategies[5][5] = DecisionEnum.SPLIT;
+        pairsStrategies[6][5] = DecisionEnum.SPLIT;
+        pairsStrategies[7][5] = DecisionEnum.STAND;
+        pairsStrategies[8][5] = DecisionEnum.STAND;
+        pairsStrategies[9][5] = DecisionEnum.SPLIT;
+
+        // Dealer 8
+        pairsStrategies[0][6] = DecisionEnum.HIT;
+        pairsStrategies[1][6] = DecisionEnum.HIT;
+        pairsStrategies[2][6] = DecisionEnum.HIT;
+        pairsStrategies[3][6] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][6] = DecisionEnum.HIT;
+        pairsStrategies[5][6] = DecisionEnum.HIT;
+        pairsStrategies[6][6] = DecisionEnum.SPLIT;
+        pairsStrategies[7][6] = DecisionEnum.SPLIT;
+        pairsStrategies[8][6] = DecisionEnum.STAND;
+        pairsStrategies[9][6] = DecisionEnum.SPLIT;
+
+        // Dealer 9
+        pairsStrategies[0][7] = DecisionEnum.HIT;
+        pairsStrategies[1][7] = DecisionEnum.HIT;
+        pairsStrategies[2][7] = DecisionEnum.HIT;
+        pairsStrategies[3][7] = DecisionEnum.DOUBLE_OR_HIT;
+        pairsStrategies[4][7] = DecisionEnum.HIT;
+        pairsStrategies[5][7] = DecisionEnum.HIT;
+        pairsStrategies[6][7] = DecisionEnum.SPLIT;
+        pairsStrategies[7][7] = DecisionEnum.SPLIT;
+        pairsStrategies[8][7] = DecisionEnum.STAND;
+        pairsStrategies[9][7] = DecisionEnum.SPLIT;
+
+        // Dealer 10
+        pairsStrategies[0][8] = DecisionEnum.HIT;
+        pairsStrategies[1][8] = DecisionEnum.HIT;
+        pairsStrategies[2][8] = DecisionEnum.HIT;
+        pairsStrategies[3][8] = DecisionEnum.HIT;
+        pairsStrategies[4][8] = DecisionEnum.HIT;
+        pairsStrategies[5][8] = DecisionEnum.HIT;
+        pairsStrategies[6][8] = DecisionEnum.SPLIT;
+        pairsStrategies[7][8] = DecisionEnum.STAND;
+        pairsStrategies[8][8] = DecisionEnum.STAND;
+        pairsStrategies[9][8] = DecisionEnum.SPLIT;
+
+        // Dealer Ace
+        pairsStrategies[0][9] = DecisionEnum.HIT;
+        pairsStrategies[1][9] = DecisionEnum.HIT;
+        pairsStrategies[2][9] = DecisionEnum.HIT;
+        pairsStrategies[3][9] = DecisionEnum.HIT;
+        pairsStrategies[4][9] = DecisionEnum.HIT;
+        pairsStrategies[5][9] = DecisionEnum.HIT;
+        pairsStrategies[6][9] = DecisionEnum.SPLIT;
+        pairsStrategies[7][9] = DecisionEnum.STAND;
+        pairsStrategies[8][9] = DecisionEnum.STAND;
+        pairsStrategies[9][9] = DecisionEnum.SPLIT;
+    }
+
+}
@@ -0,0 +1,284 @@
+package com._17od.blackjack.strategy;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.analysis.Composition;
+import com._17od.blackjack.analysis.DealerProbabilities;
+import com._17od.blackjack.analysis.ExpectedValues;
+import com._17od.blackjack.analysis.SplitCalculator;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Works out the best basic strategy chart for a set of {@link GameRules}.
+ * <p>
+ * Each cell in the chart is worked out from the exact {@link ExpectedValues}
+ * of standing, hitting, doubling, surrendering and splitting with a full shoe
+ * less the player's two cards and the dealer's faceup card. A hard total can
+ * be made from more than one pair of cards so its EVs are the average over
+ * every two card hand that makes it, weighted by how likely each one is.
+ * <p>
+ * The moves that depend on the rules and the hand are written as
+ * DOUBLE_OR_HIT, DOUBLE_OR_STAND, SURRENDER_OR_HIT and SURRENDER_OR_STAND so
+ * the chart can be compiled into a {@link StrategyTable} like any other.
+ * <p>
+ * Splits are worked out by a {@link SplitCalculator}, which resplits pairs,
+ * and aces if the rules allow it, up to the maximum number of hands. It's
+ * shared by every column so split hands are cached across the whole chart.
+ * <p>
+ * Each of the dealer's faceup cards is worked out as a separate fork-join
+ * task so the chart is generated in parallel.
+ *
+ * @author Adrian Smith
+ */
+public class StrategyChartGenerator {
+
+    private GameRules rules;
+    private SplitCalculator splitCalculator;
+
+    /**
+     * @param rules The rules to generate the chart for. They're only read
+     * while the chart is generated.
+     */
+    public StrategyChartGenerator(GameRules rules) {
+        this.rules = rules;
+        this.splitCalculator = new SplitCalculator(rules);
+    }
+
+    /**
+     * Generate the chart on the common fork-join pool.
+     *
+     * @return the chart
+     */
+    public StrategyChart generate() {
+        return generate(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generate the chart on the given pool.
+     *
+     * @param pool The pool to work out the chart on
+     * @return the chart
+     */
+    public StrategyChart generate(ForkJoinPool pool) {
+        final DecisionEnum[][] hardTotals = new DecisionEnum[16][10];
+        final DecisionEnum[][] softTotals = new DecisionEnum[8][10];
+        final DecisionEnum[][] pairs = new DecisionEnum[10][10];
+
+        pool.invoke(new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                ArrayList<UpcardTask> tasks = new ArrayList<UpcardTask>();
+                for (int upcard=2; upcard<=11; upcard++) {
+                    tasks.add(new UpcardTask(upcard, hardTotals, softTotals,
+                            pairs));
+                }
+                invokeAll(tasks);
+            }
+        });
+
+        return new StrategyChart(hardTotals, softTotals, pairs);
+    }
+
+    /**
+     * Combine every rule that changes the generated chart into a single value.
+     * Two sets of rules with the same key generate the same chart.
+     *
+     * @param rules The game rules
+     * @return the key for the rules
+     */
+    public static long rulesKey(GameRules rules) {
+        long key = StrategyTable.rulesKey(rules);
+        if (rules.dealerHitsSoft17()) {
+            key |= 1 << 4;
+        }
+        key |= (long) rules.getNumberOfDecks() << 5;
+        key |= (long) rules.getMaxSplitHands() << 13;
+        if (rules.resplitAces()) {
+            key |= 1L << 21;
+        }
+        return key;
+    }
+
+    /**
+     * Print the chart for a number of decks.
+     */
+    public static void main(String[] args) {
+        GameRules rules = new GameRules();
+        if (args.length > 0) {
+            rules.setNumberOfDecks(Integer.parseInt(args[0]));
+        }
+        if (args.length > 1) {
+            rules.setSurrenderAllowed(Boolean.parseBoolean(args[1]));
+        }
+        if (args.length > 2) {
+            rules.setDealerHitsSoft17(Boolean.parseBoolean(args[2]));
+        }
+
+        long start = System.nanoTime();
+        StrategyChart chart = new StrategyChartGenerator(rules).generate();
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Rules: " + rules);
+        System.out.println("Generated in " + elapsed / 1000000 + "ms");
+        System.out.println(chart);
+    }
+
+    /**
+     * Works out one column of the chart. Each task has its own EV calculator
+     * so the dealer's probabilities are cached across the whole column.
+     */
+    private class UpcardTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private int upcard;
+        private DecisionEnum[][] hardTotals;
+        private DecisionEnum[][] softTotals;
+        private DecisionEnum[][] pairs;
+        private ExpectedValues expectedValues;
+
+        UpcardTask(int upcard, DecisionEnum[][] hardTotals,
+                DecisionEnum[][] softTotals, DecisionEnum[][] pairs) {
+            this.upcard = upcard;
+            this.hardTotals = hardTotals;
+            this.softTotals = softTotals;
+            this.pairs = pairs;
+        }
+
+        @Override
+        protected void compute() {
+            expectedValues = new ExpectedValues(new DealerProbabilities(rules));
+            int column = upcard - StrategyChart.DEALER_OFFSET;
+
+            for (int total=StrategyChart.HARD_TOTALS_OFFSET; total<=20; total++) {
+                hardTotals[total - StrategyChart.HARD_TOTALS_OFFSET][column] =
+                    hardTotal(total);
+            }
+
+            for (int total=StrategyChart.SOFT_TOTALS_OFFSET; total<=20; total++) {
+                double[] evs = evaluate(11, total - 11, false);
+                softTotals[total - StrategyChart.SOFT_TOTALS_OFFSET][column] =
+                    bestMove(evs);
+            }
+
+            for (int value=StrategyChart.PAIRS_OFFSET; value<=11; value++) {
+                double[] evs = evaluate(value, value, true);
+                pairs[value - StrategyChart.PAIRS_OFFSET][column] =
+                    bestMove(evs);
+            }
+        }
+
+        /**
+         * Average the EVs of every two card hand without an ace that makes
+         * the total. Pairs are only used if there's no other way to make it.
+         */
+        private DecisionEnum hardTotal(int total) {
+            double[] evs = new double[MOVES];
+            double totalWeight = 0;
+
+            for (int pass=0; pass<2 && totalWeight == 0; pass++) {
+                boolean pairs = pass == 1;
+                for (int first=2; first<=10; first++) {
+                    int second = total - first;
+                    if (second < first || second > 10
+                            || (first == second) != pairs) {
+                        continue;
+                    }
+
+                    double weight = handWeight(first, second);
+                    double[] handEvs = evaluate(first, second, false);
+                    for (int i=0; i<MOVES; i++) {
+                        evs[i] += weight * handEvs[i];
+                    }
+                    totalWeight += weight;
+                }
+            }
+
+            for (int i=0; i<MOVES; i++) {
+                evs[i] /= totalWeight;
+            }
+            return bestMove(evs);
+        }
+
+        /**
+         * @return how likely the two cards are to be dealt, up to a constant
+         */
+        private double handWeight(int first, int second) {
+            Composition shoe = new Composition(rules.getNumberOfDecks());
+            shoe.remove(upcard);
+            double weight = shoe.count(first);
+            shoe.remove(first);
+            weight *= shoe.count(second);
+            return first == second ? weight : weight * 2;
+        }
+
+        /**
+         * Work out the EV of each move for a two card hand.
+         */
+        private double[] evaluate(int first, int second, boolean split) {
+            Composition shoe = new Composition(rules.getNumberOfDecks());
+            shoe.remove(upcard);
+            shoe.remove(first);
+            shoe.remove(second);
+
+            int hard = Composition.hardValue(first) + Composition.hardValue(second);
+            boolean ace = first == 11 || second == 11;
+            int total = ExpectedValues.total(hard, ace);
+            double[] dealerOutcomes = expectedValues.dealerOutcomes(upcard,
+                    shoe);
+
+            double[] evs = new double[MOVES];
+            evs[STAND] = ExpectedValues.stand(total, dealerOutcomes);
+            evs[HIT] = expectedValues.hit(hard, ace, shoe, dealerOutcomes);
+            evs[DOUBLE] = expectedValues.doubleDown(hard, ace, shoe,
+                    dealerOutcomes);
+            evs[SURRENDER] = rules.isSurrenderAllowed() ? -0.5
+                    : Double.NEGATIVE_INFINITY;
+            evs[SPLIT] = split && rules.getMaxSplitHands() >= 2
+                    ? splitCalculator.split(first, upcard, shoe,
+                            rules.getMaxSplitHands())
+                    : Double.NEGATIVE_INFINITY;
+            return evs;
+        }
+
+    }
+
+    private static final int STAND = 0;
+    private static final int HIT = 1;
+    private static final int DOUBLE = 2;
+    private static final int SURRENDER = 3;
+    private static final int SPLIT = 4;
+    private static final int MOVES = 5;
+
+    /**
+     * Turn the EVs of each move into a move for the chart. Doubling and
+     * surrendering are written with the move to make if they aren't allowed.
+     */
+    private static DecisionEnum bestMove(double[] evs) {
+        boolean hit = evs[HIT] > evs[STAND];
+        double best = Math.max(evs[HIT], evs[STAND]);
+        DecisionEnum move = hit ? DecisionEnum.HIT : DecisionEnum.STAND;
+
+        if (evs[DOUBLE] > best) {
+            best = evs[DOUBLE];
+            move = hit ? DecisionEnum.DOUBLE_OR_HIT
+                    : DecisionEnum.DOUBLE_OR_STAND;
+        }
+        if (evs[SURRENDER] > best) {
+            best = evs[SURRENDER];
+            move = hit ? DecisionEnum.SURRENDER_OR_HIT
+                    : DecisionEnum.SURRENDER_OR_STAND;
+        }
+        if (evs[SPLIT] > best) {
+            move = DecisionEnum.SPLIT;
+        }
+
+        return move;
+    }
+
+}
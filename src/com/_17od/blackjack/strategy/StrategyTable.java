@@ -0,0 +1,244 @@
+package com._17od.blackjack.strategy;
+
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * A {@link StrategyChart} compiled for a particular set of {@link GameRules}.
+ * <p>
+ * Every move is held in a single byte array indexed by the type of hand, the
+ * player's total, the dealer's faceup card and a set of flags saying whether
+ * the hand is the first two cards and whether it came from a split. The
+ * DOUBLE_OR_? and SURRENDER_OR_? moves in the chart are resolved against the
+ * rules while the table is built so looking up a move is a single array
+ * access. The moves stored are always one of STAND, HIT, DOUBLE, SPLIT or
+ * SURRENDER.
+ * <p>
+ * A table never changes once it's built so one table can be shared by any
+ * number of strategies.
+ *
+ * @author Adrian Smith
+ */
+public class StrategyTable {
+
+    public static final int HARD = 0;
+    public static final int SOFT = 1;
+    public static final int PAIR = 2;
+
+    /**
+     * Flag set when the hand is made up of the first two cards dealt to it.
+     */
+    public static final int FIRST_TWO_CARDS = 1;
+
+    /**
+     * Flag set when the hand came from a split.
+     */
+    public static final int AFTER_SPLIT = 2;
+
+    private static final int HAND_TYPES = 3;
+    private static final int TOTALS = 22;
+    private static final int DEALER_CARDS = 10;
+    private static final int FLAGS = 4;
+
+    private static final DecisionEnum[] DECISIONS = DecisionEnum.values();
+
+    private final byte[] moves;
+
+    private StrategyTable(byte[] moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Build a table from a chart and the rules it will be played under.
+     *
+     * @param chart The strategy chart
+     * @param rules The game rules. These are only read while the table is
+     * built.
+     * @return the compiled table
+     */
+    public static StrategyTable compile(StrategyChart chart, GameRules rules) {
+        byte[] moves = new byte[HAND_TYPES * TOTALS * DEALER_CARDS * FLAGS];
+
+        for (int handType=0; handType<HAND_TYPES; handType++) {
+            for (int total=0; total<TOTALS; total++) {
+                for (int dealerValue=2; dealerValue<=11; dealerValue++) {
+                    DecisionEnum move = chartMove(chart, handType, total,
+                            dealerValue);
+                    for (int flags=0; flags<FLAGS; flags++) {
+                        int index = index(handType, total, dealerValue, flags);
+                        moves[index] = (byte) resolve(move, rules, handType,
+                                total, flags).ordinal();
+                    }
+                }
+            }
+        }
+
+        return new StrategyTable(moves);
+    }
+
+    /**
+     * Combine the rules that change how a chart is compiled into a single
+     * value. Two sets of rules with the same key compile to the same table.
+     *
+     * @param rules The game rules
+     * @return the key for the rules
+     */
+    public static int rulesKey(GameRules rules) {
+        int key = 0;
+        if (rules.doubleAfterSplit()) {
+            key |= 1;
+        }
+        if (rules.doubleOn91011Only()) {
+            key |= 2;
+        }
+        if (rules.doubleOn1011Only()) {
+            key |= 4;
+        }
+        if (rules.isSurrenderAllowed()) {
+            key |= 8;
+        }
+        return key;
+    }
+
+    /**
+     * Work out where a move is held in the table.
+     *
+     * @param handType HARD, SOFT or PAIR
+     * @param total The player's total or, for a pair, the value of one of the
+     * paired cards
+     * @param dealerValue The value of the dealer's faceup card, 2 to 11
+     * @param flags FIRST_TWO_CARDS and/or AFTER_SPLIT
+     * @return the index of the move
+     */
+    public static int index(int handType, int total, int dealerValue,
+            int flags) {
+        return ((handType * TOTALS + total) * DEALER_CARDS + dealerValue - 2)
+                * FLAGS + flags;
+    }
+
+    /**
+     * Look up the move to make.
+     *
+     * @param handType HARD, SOFT or PAIR
+     * @param total The player's total, 0 to 21, or, for a pair, the value of
+     * one of the paired cards
+     * @param dealerValue The value of the dealer's faceup card, 2 to 11
+     * @param flags FIRST_TWO_CARDS and/or AFTER_SPLIT
+     * @return the move to make
+     */
+    public DecisionEnum lookup(int handType, int total, int dealerValue,
+            int flags) {
+        return DECISIONS[moves[index(handType, total, dealerValue, flags)]];
+    }
+
+    /**
+     * Find the move in the chart. A 21 always stands. The chart doesn't have
+     * totals below a hard 5 or soft 13 as they can only be made with a pair.
+     * When the pair can't be split they're played as a hard 5 or soft 13.
+     */
+    private static DecisionEnum chartMove(StrategyChart chart, int handType,
+            int total, int dealerValue) {
+        DecisionEnum move = DecisionEnum.STAND;
+
+        if (handType == PAIR) {
+            if (total >= 2 && total <= 11) {
+                move = chart.getPair(total, dealerValue);
+            }
+        } else if (total < 21) {
+            if (handType == SOFT) {
+                move = chart.getSoftTotal(
+                        Math.max(total, StrategyChart.SOFT_TOTALS_OFFSET),
+                        dealerValue);
+            } else {
+                move = chart.getHardTotal(
+                        Math.max(total, StrategyChart.HARD_TOTALS_OFFSET),
+                        dealerValue);
+            }
+        }
+
+        return move;
+    }
+
+    /**
+     * If we got a DOUBLE_OR_? then figure out if we can double. If we can't
+     * then take the other option. SURRENDER_OR_? is handled the same way. A
+     * plain surrender is played as a stand.
+     */
+    private static DecisionEnum resolve(DecisionEnum move, GameRules rules,
+            int handType, int total, int flags) {
+        if (move == DecisionEnum.DOUBLE_OR_HIT) {
+            if (canDouble(rules, handType, total, flags)) {
+                move = DecisionEnum.DOUBLE;
+            } else {
+                move = DecisionEnum.HIT;
+            }
+        } else if (move == DecisionEnum.DOUBLE_OR_STAND) {
+            if (canDouble(rules, handType, total, flags)) {
+                move = DecisionEnum.DOUBLE;
+            } else {
+                move = DecisionEnum.STAND;
+            }
+        } else if (move == DecisionEnum.SURRENDER_OR_HIT) {
+            if (canSurrender(rules, flags)) {
+                move = DecisionEnum.SURRENDER;
+            } else {
+                move = DecisionEnum.HIT;
+            }
+        } else if (move == DecisionEnum.SURRENDER_OR_STAND) {
+            if (canSurrender(rules, flags)) {
+                move = DecisionEnum.SURRENDER;
+            } else {
+                move = DecisionEnum.STAND;
+            }
+        } else if (move == DecisionEnum.SURRENDER) {
+            move = DecisionEnum.STAND;
+        }
+
+        return move;
+    }
+
+    /**
+     * A hand can only be surrendered if the rules allow it, it's the first two
+     * cards and it didn't come from a split.
+     */
+    static boolean canSurrender(GameRules rules, int flags) {
+        return rules.isSurrenderAllowed()
+                && (flags & FIRST_TWO_CARDS) != 0
+                && (flags & AFTER_SPLIT) == 0;
+    }
+
+    /**
+     * Figures out if we can double.
+     * <p>
+     * A double can only happen on the first two cards.
+     * <p>
+     * The "Double on Split" rule determines weather a double can happen after
+     * a split.
+     * <p>
+     * If the Reno rule is in play then a double is only allowed if the hand is
+     * 9/10/11 or alternatively 10/11.
+     */
+    static boolean canDouble(GameRules rules, int handType, int total,
+            int flags) {
+        if ((flags & FIRST_TWO_CARDS) == 0) {
+            return false;
+        }
+        if ((flags & AFTER_SPLIT) != 0 && !rules.doubleAfterSplit()) {
+            return false;
+        }
+
+        // A pair is held by the value of one card. A pair of aces is 12.
+        int handTotal = total;
+        if (handType == PAIR) {
+            handTotal = total == 11 ? 12 : total * 2;
+        }
+
+        if (rules.doubleOn91011Only()) {
+            return handTotal >= 9 && handTotal <= 11;
+        } else if (rules.doubleOn1011Only()) {
+            return handTotal == 10 || handTotal == 11;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com._17od.blackjack.strategy;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com._17od.blackjack.GameRules;
+
+/**
+ * Holds one compiled basic strategy {@link StrategyTable} for each set of game
+ * rules so that every strategy playing under the same rules shares a single
+ * table.
+ * <p>
+ * Tables are keyed on just the rules that change the table, see
+ * {@link StrategyTable#rulesKey(GameRules)}, so changing a rule such as the
+ * minimum bet doesn't build a new table.
+ * <p>
+ * Tables compiled from charts generated by a {@link StrategyChartGenerator}
+ * are cached separately, keyed by
+ * {@link StrategyChartGenerator#rulesKey(GameRules)}.
+ *
+ * @author Adrian Smith
+ */
+class StrategyTableCache {
+
+    private static final ConcurrentHashMap<Integer, StrategyTable> TABLES =
+        new ConcurrentHashMap<Integer, StrategyTable>();
+
+    private static final ConcurrentHashMap<Long, StrategyTable> GENERATED_TABLES =
+        new ConcurrentHashMap<Long, StrategyTable>();
+
+    private StrategyTableCache() {
+    }
+
+    /**
+     * Get the basic strategy table for the given rules, building it the first
+     * time these rules are seen.
+     *
+     * @param rules The game rules
+     * @return the shared table for the rules
+     */
+    static StrategyTable get(GameRules rules) {
+        Integer key = StrategyTable.rulesKey(rules);
+
+        StrategyTable table = TABLES.get(key);
+        if (table == null) {
+            // Two threads may both build the table. Only the first one stored
+            // is ever used.
+            StrategyTable newTable = StrategyTable.compile(
+                    StrategyChart.basicStrategy(), rules);
+            table = TABLES.putIfAbsent(key, newTable);
+            if (table == null) {
+                table = newTable;
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Get the table generated for the given rules, generating it the first
+     * time these rules are seen. Generating a chart takes a while so callers
+     * should expect the first call for each set of rules to be slow.
+     *
+     * @param rules The game rules
+     * @return the shared table for the rules
+     */
+    static StrategyTable getGenerated(GameRules rules) {
+        Long key = StrategyChartGenerator.rulesKey(rules);
+
+        StrategyTable table = GENERATED_TABLES.get(key);
+        if (table == null) {
+            // Two threads may both generate the table. Only the first one
+            // stored is ever used.
+            StrategyTable newTable = StrategyTable.compile(
+                    new StrategyChartGenerator(rules).generate(), rules);
+            table = GENERATED_TABLES.putIfAbsent(key, newTable);
+            if (table == null) {
+                table = newTable;
+            }
+        }
+
+        return table;
+    }
+
+}
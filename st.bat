@@ -1,3 +1,2 @@
 @echo off
-java -cp .\bin;.\test-bin com._17od.blackjack.ScenarioTester %1 %2
-
+java -cp .\bin;.\test-bin com._17od.blackjack.ScenarioTester %1 %2 %3 %4
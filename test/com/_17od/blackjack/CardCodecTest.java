@@ -0,0 +1,103 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+
+/**
+ * Unit tests for the CardCodec class.
+ *
+ * @author Adrian Smith
+ */
+public class CardCodecTest {
+
+    @Test
+    public void testDecode() {
+        byte[] codes = new byte[8];
+        int count = CardCodec.decode("5H,KD,AS", codes, 1);
+
+        assertEquals(3, count);
+        assertEquals(Card.code(Rank.FIVE, Suit.HEARTS), codes[1]);
+        assertEquals(Card.code(Rank.KING, Suit.DIAMONDS), codes[2]);
+        assertEquals(Card.code(Rank.ACE, Suit.SPADES), codes[3]);
+    }
+
+    @Test
+    public void testDecodeEveryNotation() {
+        assertEquals(Card.code(Rank.ACE, Suit.CLUBS), CardCodec.decodeCard("1C"));
+        assertEquals(Card.code(Rank.ACE, Suit.CLUBS), CardCodec.decodeCard("ac"));
+        assertEquals(Card.code(Rank.TEN, Suit.HEARTS), CardCodec.decodeCard("10H"));
+        assertEquals(Card.code(Rank.TEN, Suit.HEARTS), CardCodec.decodeCard("th"));
+        assertEquals(Card.code(Rank.JACK, Suit.SPADES), CardCodec.decodeCard("jS"));
+        assertEquals(Card.code(Rank.QUEEN, Suit.DIAMONDS), CardCodec.decodeCard("Qd"));
+        assertEquals(Card.code(Rank.TWO, Suit.CLUBS), CardCodec.decodeCard(" 2C "));
+    }
+
+    @Test
+    public void testEncodeAndDecodeEveryCard() {
+        byte[] codes = new byte[Card.NUMBER_OF_CARDS];
+        for (int code=0; code<codes.length; code++) {
+            codes[code] = (byte) code;
+        }
+
+        String text = CardCodec.encode(codes, 0, codes.length,
+                new StringBuilder()).toString();
+        byte[] decoded = new byte[Card.NUMBER_OF_CARDS];
+        assertEquals(Card.NUMBER_OF_CARDS, CardCodec.decode(text, decoded, 0));
+        for (int code=0; code<codes.length; code++) {
+            assertEquals(code, decoded[code]);
+        }
+        assertEquals("10S", CardCodec.encode(Card.code(Rank.TEN, Suit.SPADES),
+                new StringBuilder()).toString());
+    }
+
+    @Test
+    public void testDecodeByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.wrap("xx 9C, 10D\tJH\n".getBytes());
+        buffer.position(3);
+        byte[] codes = new byte[3];
+
+        assertEquals(3, CardCodec.decode(buffer, codes, 0));
+        assertEquals(buffer.limit(), buffer.position());
+        assertEquals(Card.code(Rank.NINE, Suit.CLUBS), codes[0]);
+        assertEquals(Card.code(Rank.TEN, Suit.DIAMONDS), codes[1]);
+        assertEquals(Card.code(Rank.JACK, Suit.HEARTS), codes[2]);
+    }
+
+    @Test
+    public void testDecodeCards() {
+        Card[] cards = CardCodec.decodeCards("2D,KH");
+        assertEquals(2, cards.length);
+        assertSame(Card.valueOf(Rank.TWO, Suit.DIAMONDS), cards[0]);
+        assertSame(Card.valueOf(Rank.KING, Suit.HEARTS), cards[1]);
+        assertEquals(0, CardCodec.decodeCards("").length);
+    }
+
+    @Test
+    public void testInvalidNotation() {
+        String[] invalid = { "11H", "5X", "5", "ZH", "5HH", "5H,,10", "\u00e9H" };
+        for (String text : invalid) {
+            try {
+                CardCodec.decodeCards(text);
+                fail("Expected " + text + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        try {
+            CardCodec.decode("2C,3C", new byte[1], 0);
+            fail("Expected too many cards to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("More than 1 cards", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+
+/**
+ * Unit tests for the Card class.
+ *
+ * @author Adrian Smith
+ */
+public class CardTest {
+
+    @Test
+    public void testValueOfReturnsSharedInstance() {
+        Card card = Card.valueOf(Rank.QUEEN, Suit.HEARTS);
+        assertSame(card, Card.valueOf(Rank.QUEEN, Suit.HEARTS));
+        assertSame(card, Card.valueOf(card.getCode()));
+        assertEquals(Rank.QUEEN, card.getRank());
+        assertEquals(Suit.HEARTS, card.getSuit());
+    }
+
+    @Test
+    public void testCodes() {
+        assertEquals(0, Card.valueOf(Rank.TWO, Suit.CLUBS).getCode());
+        assertEquals(51, Card.valueOf(Rank.ACE, Suit.SPADES).getCode());
+        assertEquals(Rank.KING.ordinal(),
+                Card.rank(Card.code(Rank.KING, Suit.DIAMONDS)));
+        assertEquals(Card.code(Rank.FIVE, Suit.SPADES),
+                new Card(Rank.FIVE, Suit.SPADES).getCode());
+    }
+
+    @Test
+    public void testValues() {
+        assertEquals(2, Card.valueOf(Rank.TWO, Suit.CLUBS).getValue());
+        assertEquals(9, Card.valueOf(Rank.NINE, Suit.DIAMONDS).getValue());
+        assertEquals(10, Card.valueOf(Rank.JACK, Suit.HEARTS).getValue());
+        assertEquals(11, Card.value(Card.code(Rank.ACE, Suit.SPADES)));
+    }
+
+    @Test
+    public void testHiLoTags() {
+        assertEquals(1, Card.hiLoTag(Card.code(Rank.SIX, Suit.CLUBS)));
+        assertEquals(0, Card.hiLoTag(Card.code(Rank.SEVEN, Suit.CLUBS)));
+        assertEquals(-1, Card.hiLoTag(Card.code(Rank.KING, Suit.CLUBS)));
+        assertEquals(-1, Card.hiLoTag(Card.code(Rank.ACE, Suit.CLUBS)));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+
+/**
+ * Unit tests for the Game class.
+ *
+ * @author Adrian Smith
+ */
+public class GameTest {
+
+    @Test
+    public void testBatchDealNotifiesEachObserverOnce() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        RecordingObserver observer = new RecordingObserver();
+        game.addCardObserver(observer);
+
+        Card[] cards = { Card.valueOf(Rank.TWO, Suit.CLUBS),
+                Card.valueOf(Rank.ACE, Suit.HEARTS) };
+        game.deal(cards, player);
+
+        assertEquals(1, observer.batches);
+        assertEquals(2, observer.cards.size());
+        assertEquals(2, player.getHand().getCards().size());
+    }
+
+    @Test
+    public void testDefaultBatchNotifiesEachCard() {
+        final ArrayList<Card> seen = new ArrayList<Card>();
+        Game game = new Game(new GameRules());
+        game.addCardObserver(new CardObserver() {
+            public void notify(Card card) {
+                seen.add(card);
+            }
+            public void notifyShuffle() {
+            }
+        });
+
+        Card[] cards = { Card.valueOf(Rank.FIVE, Suit.CLUBS),
+                Card.valueOf(Rank.SIX, Suit.CLUBS),
+                Card.valueOf(Rank.SEVEN, Suit.CLUBS) };
+        game.deal(cards, new Player());
+
+        assertEquals(3, seen.size());
+        assertEquals(cards[2], seen.get(2));
+    }
+
+    @Test
+    public void testRemovedObserverIsNotNotified() {
+        Game game = new Game(new GameRules());
+        RecordingObserver observer1 = new RecordingObserver();
+        RecordingObserver observer2 = new RecordingObserver();
+        game.addCardObserver(observer1);
+        game.addCardObserver(observer2);
+
+        game.removeCardObserver(observer1);
+        game.deal(Card.valueOf(Rank.TEN, Suit.SPADES), new Player());
+
+        assertEquals(0, observer1.cards.size());
+        assertEquals(1, observer2.cards.size());
+    }
+
+    @Test
+    public void testObserverCanBeAddedWhileDealing() {
+        final Game game = new Game(new GameRules());
+        final RecordingObserver added = new RecordingObserver();
+        game.addCardObserver(new CardObserver() {
+            public void notify(Card card) {
+                game.removeCardObserver(this);
+                game.addCardObserver(added);
+            }
+            public void notifyShuffle() {
+            }
+        });
+
+        game.deal(Card.valueOf(Rank.TEN, Suit.SPADES), new Player());
+        assertEquals(0, added.cards.size());
+
+        game.deal(Card.valueOf(Rank.NINE, Suit.SPADES), new Player());
+        assertEquals(1, added.cards.size());
+    }
+
+    private static class RecordingObserver implements CardObserver {
+
+        private ArrayList<Card> cards = new ArrayList<Card>();
+        private int batches;
+
+        public void notify(Card card) {
+            cards.add(card);
+        }
+
+        public void notifyBatch(Card[] batch) {
+            batches++;
+            for (Card card : batch) {
+                cards.add(card);
+            }
+        }
+
+        public void notifyShuffle() {
+        }
+
+    }
+
+}
@@ -146,4 +146,39 @@ public class HandTest {
         assertTrue(handTotal.isSoft());
     }
 
+    @Test
+    public void testTotalKeptUpToDateAsCardsAdded() {
+        Hand hand = new Hand();
+        hand.add(Card.valueOf(Rank.ACE, Suit.CLUBS));
+        assertEquals(11, hand.total());
+        assertTrue(hand.isSoft());
+
+        hand.add(Card.valueOf(Rank.SIX, Suit.CLUBS));
+        assertEquals(17, hand.total());
+        assertTrue(hand.isSoft());
+
+        hand.add(Card.valueOf(Rank.NINE, Suit.CLUBS));
+        assertEquals(16, hand.total());
+        assertFalse(hand.isSoft());
+
+        hand.add(Card.valueOf(Rank.ACE, Suit.DIAMONDS));
+        assertEquals(17, hand.total());
+        assertFalse(hand.isSoft());
+        assertEquals(2, hand.getNumAces());
+    }
+
+    @Test
+    public void testClearResetsTotal() {
+        Hand hand = new Hand();
+        hand.add(Card.valueOf(Rank.ACE, Suit.CLUBS));
+        hand.add(Card.valueOf(Rank.KING, Suit.CLUBS));
+        hand.clear();
+        assertEquals(0, hand.total());
+        assertFalse(hand.isSoft());
+
+        hand.add(Card.valueOf(Rank.NINE, Suit.CLUBS));
+        assertEquals(9, hand.total());
+        assertEquals(0, hand.getNumAces());
+    }
+
 }
@@ -0,0 +1,189 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.CountingStrategy;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the Round class. Each test stacks the shoe so the cards are
+ * dealt in a known order: player, dealer up card, player, dealer hole card,
+ * then any cards drawn.
+ *
+ * @author Adrian Smith
+ */
+public class RoundTest {
+
+    @Test
+    public void testPlayerBlackjackPaysThreeToTwo() {
+        Round round = createRound(Rank.ACE, Rank.NINE, Rank.KING, Rank.EIGHT);
+        assertEquals(7.5, round.play(), 0);
+    }
+
+    @Test
+    public void testDealerBlackjackOnlyTakesOriginalBet() {
+        Round round = createRound(Rank.FIVE, Rank.ACE, Rank.SIX, Rank.KING);
+        assertEquals(-5, round.play(), 0);
+    }
+
+    @Test
+    public void testStandOnTwentyBeatsDealerSeventeen() {
+        Round round = createRound(Rank.KING, Rank.SEVEN, Rank.QUEEN, Rank.TEN);
+        assertEquals(5, round.play(), 0);
+    }
+
+    @Test
+    public void testDoubleDownOnEleven() {
+        Round round = createRound(Rank.FIVE, Rank.TWO, Rank.SIX, Rank.TEN,
+                Rank.TEN, Rank.FIVE);
+        assertEquals(10, round.play(), 0);
+    }
+
+    @Test
+    public void testSplitEightsWhenDealerBusts() {
+        Round round = createRound(Rank.EIGHT, Rank.SIX, Rank.EIGHT, Rank.TEN,
+                Rank.TEN, Rank.NINE, Rank.TEN);
+        assertEquals(10, round.play(), 0);
+    }
+
+    @Test
+    public void testSplitAcesGetOneCard() {
+        Round round = createRound(Rank.ACE, Rank.SIX, Rank.ACE, Rank.TEN,
+                Rank.ACE, Rank.KING, Rank.NINE);
+        assertEquals(10, round.play(), 0);
+    }
+
+    @Test
+    public void testResplitAces() {
+        GameRules rules = new GameRules();
+        rules.setResplitAces(true);
+        Round round = createRound(rules, Rank.ACE, Rank.SIX, Rank.ACE,
+                Rank.TEN, Rank.ACE, Rank.KING, Rank.NINE, Rank.EIGHT, Rank.TEN);
+        assertEquals(15, round.play(), 0);
+    }
+
+    @Test
+    public void testDealerStandsOnSoft17() {
+        Round round = createRound(Rank.TEN, Rank.ACE, Rank.TEN, Rank.SIX,
+                Rank.THREE);
+        assertEquals(5, round.play(), 0);
+    }
+
+    @Test
+    public void testDealerHitsSoft17() {
+        GameRules rules = new GameRules();
+        rules.setDealerHitsSoft17(true);
+        Round round = createRound(rules, Rank.TEN, Rank.ACE, Rank.TEN,
+                Rank.SIX, Rank.THREE);
+        assertEquals(0, round.play(), 0);
+    }
+
+    @Test
+    public void testHoleCardOnlySeenWhenRevealed() {
+        Game game = new Game(new GameRules());
+        final ArrayList<Card> seen = new ArrayList<Card>();
+        game.addCardObserver(new CardObserver() {
+            public void notify(Card card) {
+                seen.add(card);
+            }
+
+            public void notifyShuffle() {
+            }
+        });
+
+        Card holeCard = new Card(Rank.TEN, Suit.SPADES);
+        game.dealFaceDown(holeCard, game.getDealer());
+        assertEquals(0, seen.size());
+
+        game.revealCard(holeCard);
+        assertEquals(1, seen.size());
+        assertEquals(1, game.getDealer().getHand().getCards().size());
+    }
+
+    /**
+     * With no cut card the shoe often runs out part way through a round. No
+     * card should be dealt more often than it's in the shoe before the shoe
+     * is shuffled, counting the cards on the table as already out, and the
+     * count should always come back in line with the shoe.
+     */
+    @Test
+    public void testShoeRunningOutMidRound() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        final CountingStrategy strategy = (CountingStrategy)
+                new HiLoStrategyBuilder().create(game, player);
+        final Shoe shoe = new Shoe(1, 1.0, new SeededShuffler(5));
+        Round round = new Round(game, player, shoe);
+
+        final int[] dealt = new int[Card.NUMBER_OF_CARDS];
+        final int[] midRoundShuffles = new int[1];
+        round.setRoundListener(new RoundListener() {
+            private byte[] inPlay = new byte[Card.NUMBER_OF_CARDS];
+            private int numInPlay;
+            private boolean playing;
+
+            public void roundStarted(int bet) {
+                playing = true;
+            }
+
+            public void cardDealt(Card card, boolean toDealer) {
+                assertEquals(0, dealt[card.getCode()]++);
+                inPlay[numInPlay++] = (byte) card.getCode();
+            }
+
+            public void decisionMade(DecisionEnum decision) {
+            }
+
+            public void shoeShuffled() {
+                Arrays.fill(dealt, 0);
+                for (int i=0; i<numInPlay; i++) {
+                    dealt[inPlay[i]]++;
+                }
+                if (playing) {
+                    midRoundShuffles[0]++;
+                }
+            }
+
+            public void roundFinished(double result) {
+                playing = false;
+                numInPlay = 0;
+                int cardsLeft = shoe.getCardsLeft();
+                assertEquals(cardsLeft == 0 ? Card.NUMBER_OF_CARDS : cardsLeft,
+                        strategy.getCardsLeft());
+            }
+        });
+
+        for (int i=0; i<2000; i++) {
+            round.play();
+        }
+        assertTrue(midRoundShuffles[0] > 0);
+    }
+
+    private Round createRound(Rank... ranks) {
+        return createRound(new GameRules(), ranks);
+    }
+
+    private Round createRound(GameRules rules, Rank... ranks) {
+        byte[] cards = new byte[ranks.length];
+        for (int i=0; i<ranks.length; i++) {
+            cards[i] = (byte) Card.code(ranks[i], Suit.HEARTS);
+        }
+
+        Game game = new Game(rules);
+        Player player = new Player();
+        new BasicStrategyBuilder().create(game, player);
+        return new Round(game, player, new Shoe(cards, new SplittableRandom(0)));
+    }
+
+}
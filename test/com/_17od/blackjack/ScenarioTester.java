@@ -1,14 +1,27 @@
 package com._17od.blackjack;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Properties;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import com._17od.blackjack.Card.Rank;
-import com._17od.blackjack.Card.Suit;
 import com._17od.blackjack.strategy.BasicStrategyBuilder;
 import com._17od.blackjack.strategy.HiLoStrategyBuilder;
 import com._17od.blackjack.strategy.Strategy;
@@ -18,22 +31,54 @@ import com._17od.blackjack.strategy.StrategyBuilder;
  * This class is used to test various scenarios. It uses a properties file to
  * provide a snapshot of a round. This information is fed into a strategy that
  * gives back the next move the player should take.
+ * <p>
+ * Given a directory, or a manifest file listing one scenario file per line,
+ * it runs in batch mode instead. Every scenario file in the directory and its
+ * subdirectories, or in the manifest, is evaluated on a thread pool and a
+ * line is written for each one as CSV or JSON lines giving the amount to bet,
+ * the next move and the hand totals. The lines are written in the same order
+ * as the scenarios are listed, as soon as each one is ready, so only a
+ * limited number of scenarios are held in memory however many there are. A
+ * scenario that can't be evaluated gets a line with the error rather than
+ * stopping the batch, and the batch exits with status 1 once it's finished.
  *
  * @author Adrian Smith
  */
 public class ScenarioTester {
 
+    public static final String CSV = "csv";
+    public static final String JSONL = "jsonl";
+
+    /**
+     * The number of scenarios queued up on each thread ahead of the one being
+     * written out.
+     */
+    private static final int SCENARIOS_PER_THREAD = 64;
+
     public static void main(String[] args) throws FileNotFoundException, IOException {
-        Properties scenario = new Properties();
-        
         if (args.length < 2) {
-            System.err.println("Usage: StrategyTester <\"basic\" or \"hilo\"> <scenario file>");
+            System.err.println("Usage: ScenarioTester <\"basic\" or \"hilo\"> <scenario file, directory or manifest> [csv|jsonl] [threads]");
             System.exit(1);
         }
 
-        // Read in the scenario properties
         String strategyName = args[0];
-        scenario.load(new FileInputStream(args[1]));
+        File input = new File(args[1]);
+        if (input.isDirectory() || !input.getName().endsWith(".properties")) {
+            String format = args.length > 2 ? args[2] : CSV;
+            int threads = Runtime.getRuntime().availableProcessors();
+            if (args.length > 3) {
+                threads = Integer.parseInt(args[3]);
+            }
+
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            int errors = runBatch(strategyName, scenarioFiles(input), format,
+                    threads, out);
+            out.flush();
+            System.exit(errors > 0 ? 1 : 0);
+        }
+
+        // Read in the scenario properties
+        Properties scenario = loadScenario(input);
 
         // Create the various objects that participate in the game
         Game game = createGame(scenario);
@@ -80,6 +125,303 @@ public class ScenarioTester {
         System.out.println("\nNext Move: " + strategy.whatNext().toString());
     }
 
+    /**
+     * Evaluate scenarios on a pool of threads and write a line for each one.
+     *
+     * @param strategyName "basic" or "hilo"
+     * @param scenarioFiles The scenario files to evaluate
+     * @param format CSV or JSONL
+     * @param threads The number of threads to evaluate the scenarios on
+     * @param out Where to write the results. It isn't closed.
+     * @return the number of scenarios that couldn't be evaluated
+     */
+    public static int runBatch(final String strategyName,
+            Iterator<File> scenarioFiles, String format, int threads,
+            Writer out) throws IOException {
+        if (!format.equals(CSV) && !format.equals(JSONL)) {
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Result>> queued = new ArrayDeque<Future<Result>>();
+        int maxQueued = threads * SCENARIOS_PER_THREAD;
+        int errors = 0;
+
+        try {
+            if (format.equals(CSV)) {
+                out.write(Result.CSV_HEADER);
+                out.write('\n');
+            }
+
+            while (scenarioFiles.hasNext() || !queued.isEmpty()) {
+                // Keep the pool busy while the oldest scenario is written out
+                while (scenarioFiles.hasNext() && queued.size() < maxQueued) {
+                    final File file = scenarioFiles.next();
+                    queued.add(executor.submit(new Callable<Result>() {
+                        public Result call() {
+                            return evaluate(strategyName, file);
+                        }
+                    }));
+                }
+
+                Result result = waitFor(queued.remove());
+                if (result.getError() != null) {
+                    errors++;
+                }
+                out.write(format.equals(CSV) ? result.toCsv() : result.toJson());
+                out.write('\n');
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return errors;
+    }
+
+    /**
+     * Evaluate a scenario, catching anything that goes wrong.
+     */
+    static Result evaluate(String strategyName, File file) {
+        Result result = new Result(file.getPath());
+        try {
+            Properties scenario = loadScenario(file);
+
+            Game game = createGame(scenario);
+            Player player = new Player();
+            Strategy strategy = createStrategy(strategyName, game, player);
+
+            String cardsAlreadyDealt = scenario.getProperty("cardsAlreadyDealt");
+            if (cardsAlreadyDealt != null) {
+                dealCards(game, new Player(), cardsAlreadyDealt);
+            }
+            result.bet = strategy.amountToBet();
+
+            String playerHand = scenario.getProperty("playerHand");
+            if (playerHand == null) {
+                throw new RuntimeException("A 'playerHand' must be provided in the scenario file");
+            }
+            dealCards(game, player, playerHand);
+
+            String handCameFromSplit = scenario.getProperty("handCameFromSplit");
+            if (handCameFromSplit != null) {
+                player.getHand().setCameFromSplit(Boolean.parseBoolean(handCameFromSplit));
+            }
+
+            String dealerCard = scenario.getProperty("dealerCard");
+            if (dealerCard == null) {
+                throw new RuntimeException("A 'dealerCard' must be provided in the scenario file");
+            }
+            dealCards(game, game.getDealer(), dealerCard);
+
+            result.playerTotal = player.getHand().total();
+            result.soft = player.getHand().isSoft();
+            result.dealerTotal = game.getDealer().getHand().total();
+            result.decision = strategy.whatNext().toString();
+        } catch (Exception e) {
+            result.error = e.toString();
+        }
+        return result;
+    }
+
+    private static Result waitFor(Future<Result> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a scenario");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to evaluate a scenario: " + e.getCause());
+        }
+    }
+
+    private static Properties loadScenario(File file) throws IOException {
+        Properties scenario = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            scenario.load(in);
+        } finally {
+            in.close();
+        }
+        return scenario;
+    }
+
+    /**
+     * List the scenario files to evaluate. A directory is searched for
+     * .properties files, including its subdirectories, in name order. Any
+     * other file is a manifest listing one scenario file per line. Blank lines
+     * and lines starting with # are skipped and relative paths are taken to
+     * be relative to the manifest. The manifest is read as the scenarios are
+     * needed.
+     */
+    static Iterator<File> scenarioFiles(File input) throws IOException {
+        if (input.isDirectory()) {
+            ArrayList<File> files = new ArrayList<File>();
+            findScenarios(input, files);
+            return files.iterator();
+        }
+        return new ManifestIterator(input);
+    }
+
+    private static void findScenarios(File directory, ArrayList<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                findScenarios(child, files);
+            } else if (child.getName().endsWith(".properties")) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * Reads the scenario files from a manifest a line at a time. The manifest
+     * is closed once the last line has been read.
+     */
+    private static class ManifestIterator implements Iterator<File> {
+
+        private File directory;
+        private BufferedReader reader;
+        private File next;
+
+        ManifestIterator(File manifest) throws IOException {
+            this.directory = manifest.getAbsoluteFile().getParentFile();
+            this.reader = new BufferedReader(new FileReader(manifest));
+            advance();
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public File next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            File file = next;
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read the manifest", e);
+            }
+            return file;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void advance() throws IOException {
+            next = null;
+            String line;
+            while (next == null && (line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                File file = new File(line);
+                next = file.isAbsolute() ? file : new File(directory, line);
+            }
+            if (next == null) {
+                reader.close();
+            }
+        }
+
+    }
+
+    /**
+     * The outcome of evaluating one scenario.
+     */
+    static class Result {
+
+        static final String CSV_HEADER =
+            "scenario,bet,decision,playerTotal,soft,dealerTotal,error";
+
+        private String scenario;
+        private int bet;
+        private String decision;
+        private int playerTotal;
+        private boolean soft;
+        private int dealerTotal;
+        private String error;
+
+        Result(String scenario) {
+            this.scenario = scenario;
+        }
+
+        String getDecision() {
+            return decision;
+        }
+
+        String getError() {
+            return error;
+        }
+
+        String toCsv() {
+            StringBuilder line = new StringBuilder();
+            line.append(csvField(scenario)).append(',');
+            if (error == null) {
+                line.append(bet).append(',');
+                line.append(csvField(decision)).append(',');
+                line.append(playerTotal).append(',');
+                line.append(soft).append(',');
+                line.append(dealerTotal).append(',');
+            } else {
+                line.append(",,,,,");
+                line.append(csvField(error));
+            }
+            return line.toString();
+        }
+
+        String toJson() {
+            StringBuilder line = new StringBuilder();
+            line.append("{\"scenario\":").append(jsonString(scenario));
+            if (error == null) {
+                line.append(",\"bet\":").append(bet);
+                line.append(",\"decision\":").append(jsonString(decision));
+                line.append(",\"playerTotal\":").append(playerTotal);
+                line.append(",\"soft\":").append(soft);
+                line.append(",\"dealerTotal\":").append(dealerTotal);
+            } else {
+                line.append(",\"error\":").append(jsonString(error));
+            }
+            line.append('}');
+            return line.toString();
+        }
+
+        /**
+         * Quote a field if it holds a comma, quote or line break.
+         */
+        private static String csvField(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        private static String jsonString(String value) {
+            StringBuilder json = new StringBuilder(value.length() + 2);
+            json.append('"');
+            for (int i=0; i<value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < ' ') {
+                    json.append(String.format("\\u%04x", Integer.valueOf(c)));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append('"');
+            return json.toString();
+        }
+
+    }
+
     private static Game createGame(Properties properties) {
         Game game = new Game(new GameRules());
         String minimumBet = properties.getProperty("minimumBet");
@@ -90,11 +432,12 @@ public class ScenarioTester {
         return game;
     }
 
+    /**
+     * Deal cards given in the notation read by {@link CardCodec}, e.g.
+     * "5H,KD,AS".
+     */
     private static void dealCards(Game game, Player player, String cards) {
-        Card[] cardObjects = parseCards(cards);
-        for (Card card : cardObjects) {
-            game.deal(card, player);
-        }
+        game.deal(CardCodec.decodeCards(cards), player);
     }
 
     /**
@@ -114,94 +457,4 @@ public class ScenarioTester {
         return builder.create(game, player);
     }
 
-    /**
-     * Given a comma separated list of cards create a Card array. Each card is
-     * given using a rank and suit, The ranks are 1-10, [K]ing, [Q]ueen, [J]ack.
-     * The suits are [D]iamonds, [H]earts, [S]pades, [C]lubs.
-     * 
-     * @param multipleCardsString A comma separated list of cards
-     * @return
-     */
-    private static Card[] parseCards(String multipleCardsString) {
-        String[] cardsString = multipleCardsString.split(",");
-
-        Card[] cardsArray = new Card[cardsString.length];
-
-        // Loop through each card string and parse it to create a Card object
-        for (int i=0; i<cardsString.length; i++) {
-            Pattern pattern = Pattern.compile("(\\d+|[akqj])([dhcs])", Pattern.CASE_INSENSITIVE);
-            Matcher matcher = pattern.matcher(cardsString[i]);
-            if (matcher.find()) {
-                String rank = matcher.group(1);
-                String suit = matcher.group(2);
-                Card card = new Card(determineRank(rank), determineSuit(suit));
-                cardsArray[i] = card;
-            } else {
-                throw new RuntimeException("Invalid card pattern " + cardsString[i]);
-            }
-        }
-
-        return cardsArray;
-    }
-
-    private static Rank determineRank(String rank) {
-        Rank rankEnum = null;
-
-        if (rank.equals("A")) {
-            rankEnum = Rank.ACE;
-        } else if (rank.equals("2")) {
-            rankEnum = Rank.TWO;
-        } else if (rank.equals("3")) {
-            rankEnum = Rank.THREE;
-        } else if (rank.equals("4")) {
-            rankEnum = Rank.FOUR;
-        } else if (rank.equals("5")) {
-            rankEnum = Rank.FIVE;
-        } else if (rank.equals("6")) {
-            rankEnum = Rank.SIX;
-        } else if (rank.equals("7")) {
-            rankEnum = Rank.SEVEN;
-        } else if (rank.equals("8")) {
-            rankEnum = Rank.EIGHT;
-        } else if (rank.equals("9")) {
-            rankEnum = Rank.NINE;
-        } else if (rank.equals("10")) {
-            rankEnum = Rank.TEN;
-        } else if (rank.equals("K")) {
-            rankEnum = Rank.KING;
-        } else if (rank.equals("Q")) {
-            rankEnum = Rank.QUEEN;
-        } else if (rank.equals("J")) {
-            rankEnum = Rank.JACK;
-        } else {
-            throw new RuntimeException("Invalid rank " + rank);
-        }
-
-        return rankEnum;
-    }
-    
-    private static Suit determineSuit(String suit) {
-        Suit suitEnum = null;
-
-        switch (suit.charAt(0)) {
-        case 'D':
-            suitEnum = Suit.DIAMONDS;
-            break;
-        case 'H':
-            suitEnum = Suit.HEARTS;
-            break;
-        case 'S':
-            suitEnum = Suit.SPADES;
-            break;
-        case 'C':
-            suitEnum = Suit.CLUBS;
-            break;
-        default:
-            throw new RuntimeException("Invalid suit " + suit);
-        }
-
-        return suitEnum;
-    }
-
 }
-
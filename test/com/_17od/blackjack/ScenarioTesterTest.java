@@ -0,0 +1,114 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for the batch mode of the ScenarioTester class.
+ *
+ * @author Adrian Smith
+ */
+public class ScenarioTesterTest {
+
+    private List<File> directories = new ArrayList<File>();
+
+    @After
+    public void deleteDirectories() {
+        for (File directory : directories) {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testBatchWritesCsvInOrder() throws IOException {
+        File directory = createDirectory();
+        write(new File(directory, "a.properties"), "playerHand=10D,2H",
+                "dealerCard=10S", "minimumBet=5");
+        write(new File(directory, "b.properties"), "playerHand=AD,7H",
+                "dealerCard=3S", "minimumBet=10");
+        File subdirectory = new File(directory, "c");
+        subdirectory.mkdir();
+        write(new File(subdirectory, "d.properties"), "playerHand=10D,10H",
+                "minimumBet=5");
+
+        StringWriter out = new StringWriter();
+        int errors = ScenarioTester.runBatch("basic",
+                ScenarioTester.scenarioFiles(directory), ScenarioTester.CSV, 2,
+                out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(1, errors);
+        assertEquals(4, lines.length);
+        assertEquals("scenario,bet,decision,playerTotal,soft,dealerTotal,error",
+                lines[0]);
+        assertTrue(lines[1].endsWith("a.properties,5,Hit,12,false,10,"));
+        assertTrue(lines[2].endsWith("b.properties,10,Double Down,18,true,3,"));
+        assertTrue(lines[3].contains("d.properties,,,,,,"));
+        assertTrue(lines[3].contains("dealerCard"));
+    }
+
+    @Test
+    public void testBatchReadsManifest() throws IOException {
+        File directory = createDirectory();
+        write(new File(directory, "a.properties"), "playerHand=8D,8H",
+                "dealerCard=9S", "minimumBet=5");
+        File manifest = new File(directory, "manifest.txt");
+        write(manifest, "# The scenarios to run", "", "a.properties",
+                "a.properties");
+
+        StringWriter out = new StringWriter();
+        ScenarioTester.runBatch("hilo", ScenarioTester.scenarioFiles(manifest),
+                ScenarioTester.JSONL, 1, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        String path = new File(directory, "a.properties").getPath()
+                .replace("\\", "\\\\");
+        assertEquals("{\"scenario\":\"" + path + "\",\"bet\":5,"
+                + "\"decision\":\"Split\",\"playerTotal\":16,\"soft\":false,"
+                + "\"dealerTotal\":9}", lines[0]);
+        assertEquals(lines[0], lines[1]);
+    }
+
+    private File createDirectory() throws IOException {
+        File directory = File.createTempFile("scenarios", "");
+        directory.delete();
+        directory.mkdir();
+        directories.add(directory);
+        return directory;
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void write(File file, String... lines) throws IOException {
+        Writer writer = new FileWriter(file);
+        try {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+}
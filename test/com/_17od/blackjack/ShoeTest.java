@@ -0,0 +1,147 @@
+package com._17od.blackjack;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Shoe class.
+ *
+ * @author Adrian Smith
+ */
+public class ShoeTest {
+
+    @Test
+    public void testShoeHoldsEveryCardOncePerDeck() {
+        Shoe shoe = new Shoe(6, 1.0, new SplittableRandom(1));
+        assertEquals(312, shoe.getSize());
+
+        int[] counts = new int[Card.NUMBER_OF_CARDS];
+        while (shoe.getCardsLeft() > 0) {
+            counts[shoe.dealCode()]++;
+        }
+
+        for (int count : counts) {
+            assertEquals(6, count);
+        }
+    }
+
+    @Test
+    public void testShuffleDiscardsLeavesOutCardsInPlay() {
+        Shoe shoe = new Shoe(1, 1.0, new SplittableRandom(3));
+        byte[] inPlay = new byte[5];
+        for (int i=0; i<inPlay.length; i++) {
+            inPlay[i] = (byte) shoe.dealCode();
+        }
+        while (shoe.getCardsLeft() > 0) {
+            shoe.dealCode();
+        }
+
+        shoe.shuffleDiscards(inPlay, inPlay.length);
+        assertEquals(47, shoe.getSize());
+        int[] counts = new int[Card.NUMBER_OF_CARDS];
+        while (shoe.getCardsLeft() > 0) {
+            counts[shoe.dealCode()]++;
+        }
+        for (int i=0; i<counts.length; i++) {
+            boolean played = false;
+            for (byte code : inPlay) {
+                played |= code == i;
+            }
+            assertEquals(played ? 0 : 1, counts[i]);
+        }
+        assertTrue(shoe.isCutCardReached());
+
+        // The next full shuffle puts them back
+        shoe.shuffle();
+        assertEquals(52, shoe.getSize());
+        Arrays.fill(counts, 0);
+        while (shoe.getCardsLeft() > 0) {
+            counts[shoe.dealCode()]++;
+        }
+        for (int count : counts) {
+            assertEquals(1, count);
+        }
+    }
+
+    @Test
+    public void testSameSeedDealsSameCards() {
+        Shoe shoe1 = new Shoe(2, 1.0, new SplittableRandom(42));
+        Shoe shoe2 = new Shoe(2, 1.0, new SplittableRandom(42));
+
+        int[] cards1 = new int[shoe1.getSize()];
+        int[] cards2 = new int[shoe2.getSize()];
+        for (int i=0; i<cards1.length; i++) {
+            cards1[i] = shoe1.dealCode();
+            cards2[i] = shoe2.dealCode();
+        }
+
+        assertArrayEquals(cards1, cards2);
+    }
+
+    @Test
+    public void testCutCard() {
+        Shoe shoe = new Shoe(1, 0.5, new SplittableRandom(1));
+
+        for (int i=0; i<25; i++) {
+            shoe.deal();
+        }
+        assertFalse(shoe.isCutCardReached());
+
+        shoe.deal();
+        assertTrue(shoe.isCutCardReached());
+        assertEquals(26, shoe.getCardsLeft());
+
+        shoe.shuffle();
+        assertFalse(shoe.isCutCardReached());
+        assertEquals(52, shoe.getCardsLeft());
+    }
+
+    @Test
+    public void testPipelineDealsSameShoesAsSeededShuffler() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ShufflePipeline pipeline = new ShufflePipeline(6, 99, executor, 3);
+        try {
+            Shoe shoe1 = new Shoe(6, 1.0, new SeededShuffler(99));
+            Shoe shoe2 = new Shoe(6, 1.0, pipeline);
+
+            for (int i=0; i<10; i++) {
+                for (int j=0; j<shoe1.getSize(); j++) {
+                    assertEquals(shoe1.dealCode(), shoe2.dealCode());
+                }
+                shoe1.shuffle();
+                shoe2.shuffle();
+            }
+        } finally {
+            pipeline.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSeededShufflerDependsOnlyOnShoeNumber() {
+        byte[] cards1 = new byte[Card.NUMBER_OF_CARDS];
+        byte[] cards2 = new byte[Card.NUMBER_OF_CARDS];
+
+        SeededShuffler.shuffle(cards1, 7, 3);
+        SeededShuffler.shuffle(cards2, 7, 3);
+        assertArrayEquals(cards1, cards2);
+
+        SeededShuffler.shuffle(cards2, 7, 4);
+        assertFalse(Arrays.equals(cards1, cards2));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testPenetrationMustBePositive() {
+        new Shoe(1, 0, new SplittableRandom(1));
+    }
+
+}
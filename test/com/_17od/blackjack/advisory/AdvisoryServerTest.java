@@ -0,0 +1,153 @@
+package com._17od.blackjack.advisory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.counting.BetRamp;
+import com._17od.blackjack.counting.CountingSystem;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the AdvisoryServer and AdvisoryClient classes.
+ *
+ * @author Adrian Smith
+ */
+public class AdvisoryServerTest {
+
+    private static final Card TEN = Card.valueOf(Rank.TEN, Suit.SPADES);
+    private static final Card TWO = Card.valueOf(Rank.TWO, Suit.CLUBS);
+    private static final Card SIX = Card.valueOf(Rank.SIX, Suit.HEARTS);
+    private static final Card EIGHT = Card.valueOf(Rank.EIGHT, Suit.CLUBS);
+    private static final Card NINE = Card.valueOf(Rank.NINE, Suit.DIAMONDS);
+
+    private AdvisoryServer startServer() throws IOException {
+        return startServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    private AdvisoryServer startServer(SocketAddress address) throws IOException {
+        Advisor advisor = new Advisor(CountingSystem.HI_LO, BetRamp.hiLo());
+        advisor.addRules(0, new GameRules());
+        return new AdvisoryServer(advisor, address);
+    }
+
+    private AdvisoryClient connect(AdvisoryServer server) throws IOException {
+        return new AdvisoryClient(new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    @Test
+    public void testAdvise() throws IOException {
+        AdvisoryServer server = startServer();
+        AdvisoryClient client = connect(server);
+        try {
+            Advice advice = client.advise(0, TEN, TEN, TWO);
+            assertEquals(AdvisoryProtocol.OK, advice.getStatus());
+            assertEquals(DecisionEnum.HIT, advice.getDecision());
+            assertEquals(5, advice.getBet());
+
+            assertEquals(DecisionEnum.SPLIT, client.advise(0, SIX, EIGHT, EIGHT).getDecision());
+            assertEquals(DecisionEnum.STAND, client.advise(0, SIX, TEN, NINE).getDecision());
+
+            // A true count of 4 bets 5 units
+            client.send(0, TEN, new Card[] {TEN, TWO}, 0, false, 4, 52);
+            advice = client.receive();
+            assertEquals(DecisionEnum.HIT, advice.getDecision());
+            assertEquals(25, advice.getBet());
+        } finally {
+            client.close();
+            server.close();
+        }
+    }
+
+    @Test
+    public void testUnixDomainSocket() throws IOException {
+        Path directory = Files.createTempDirectory("advisory");
+        Path socket = directory.resolve("advisory.sock");
+        try {
+            AdvisoryServer server = startServer(UnixDomainSocketAddress.of(socket));
+            AdvisoryClient client = new AdvisoryClient(UnixDomainSocketAddress.of(socket));
+            try {
+                assertEquals(-1, server.getPort());
+                assertEquals(DecisionEnum.HIT, client.advise(0, TEN, TEN, TWO).getDecision());
+                assertEquals(DecisionEnum.STAND, client.advise(0, SIX, TEN, NINE).getDecision());
+            } finally {
+                client.close();
+                server.close();
+            }
+            assertFalse(Files.exists(socket));
+        } finally {
+            Files.deleteIfExists(socket);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        AdvisoryServer server = startServer();
+        AdvisoryClient client = connect(server);
+        try {
+            Advice advice = client.advise(7, TEN, TEN, SIX);
+            assertEquals(AdvisoryProtocol.UNKNOWN_RULES, advice.getStatus());
+            assertNull(advice.getDecision());
+
+            // Bust
+            advice = client.advise(0, TEN, TEN, SIX, NINE);
+            assertEquals(AdvisoryProtocol.INVALID_REQUEST, advice.getStatus());
+
+            // Split more times than the rules allow, or a count that would
+            // be negative as a signed byte
+            client.send(0, TEN, new Card[] {EIGHT, EIGHT}, 4, true);
+            client.send(0, TEN, new Card[] {EIGHT, EIGHT}, 0x80, true);
+            assertEquals(AdvisoryProtocol.INVALID_REQUEST, client.receive().getStatus());
+            assertEquals(AdvisoryProtocol.INVALID_REQUEST, client.receive().getStatus());
+
+            // The connection is still usable afterwards
+            assertEquals(DecisionEnum.HIT, client.advise(0, TEN, TEN, TWO).getDecision());
+        } finally {
+            client.close();
+            server.close();
+        }
+    }
+
+    @Test
+    public void testBatchesAnsweredInOrder() throws IOException {
+        AdvisoryServer server = startServer();
+        AdvisoryClient client = connect(server);
+        try {
+            // Several batches, more in total than the server's buffers hold
+            int requests = 20000;
+            for (int i=0; i<requests; i++) {
+                if (i % 2 == 0) {
+                    client.send(0, TEN, TEN, TWO);
+                } else {
+                    client.send(0, SIX, TEN, NINE);
+                }
+                if (i % 2000 == 1999) {
+                    for (int j=i - 1999; j<=i; j++) {
+                        assertEquals(j % 2 == 0 ? DecisionEnum.HIT : DecisionEnum.STAND,
+                                client.receive().getDecision());
+                    }
+                }
+            }
+        } finally {
+            client.close();
+            server.close();
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com._17od.blackjack.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the DealerProbabilities and Composition classes.
+ *
+ * @author Adrian Smith
+ */
+public class DealerProbabilitiesTest {
+
+    @Test
+    public void testCompositionKey() {
+        Composition shoe = new Composition(6);
+        assertEquals(312, shoe.getTotal());
+        assertEquals(96, shoe.count(10));
+
+        long fullKey = shoe.key();
+        shoe.remove(10);
+        shoe.remove(11);
+        assertEquals(310, shoe.getTotal());
+        assertTrue(shoe.key() != fullKey);
+
+        Composition copy = Composition.fromKey(shoe.key());
+        assertEquals(shoe, copy);
+        assertEquals(95, copy.count(10));
+        assertEquals(23, copy.count(11));
+        assertEquals(310, copy.getTotal());
+
+        shoe.add(11);
+        shoe.add(10);
+        assertEquals(fullKey, shoe.key());
+    }
+
+    @Test
+    public void testProbabilitiesAddUpToOne() {
+        DealerProbabilities dealer = new DealerProbabilities(false, 1);
+        for (int upcard=2; upcard<=11; upcard++) {
+            Composition shoe = new Composition(2);
+            shoe.remove(upcard);
+            long key = shoe.key();
+
+            assertEquals(1, sum(dealer.probabilities(upcard, shoe)), 1e-12);
+            double[] noBlackjack = dealer.probabilitiesNoBlackjack(upcard, shoe);
+            assertEquals(1, sum(noBlackjack), 1e-12);
+            assertEquals(0, noBlackjack[DealerProbabilities.BLACKJACK], 0);
+
+            // The shoe is put back as it was
+            assertEquals(key, shoe.key());
+        }
+    }
+
+    @Test
+    public void testMatchesUncachedCalculation() {
+        Composition shoe = new Composition(1);
+        shoe.remove(6);
+        shoe.remove(10);
+        shoe.remove(5);
+
+        double[] expected = new double[DealerProbabilities.OUTCOMES];
+        bruteForce(6, 1, false, shoe, 1, false, expected);
+
+        DealerProbabilities dealer = new DealerProbabilities(false, 1);
+        double[] actual = dealer.probabilities(6, shoe);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], actual[i], 1e-12);
+        }
+        assertTrue(dealer.getCacheSize() > 0);
+
+        // Calling again uses the cache and gets the same answer
+        double[] again = dealer.probabilities(6, shoe);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(actual[i], again[i], 0);
+        }
+    }
+
+    @Test
+    public void testHitSoft17() {
+        Composition shoe = new Composition(1);
+        shoe.remove(11);
+
+        double[] s17 = new DealerProbabilities(false, 1).probabilities(11, shoe);
+        double[] h17 = new DealerProbabilities(true, 1).probabilities(11, shoe);
+        double[] expected = new double[DealerProbabilities.OUTCOMES];
+        bruteForce(11, 1, true, shoe, 1, true, expected);
+
+        assertTrue(h17[DealerProbabilities.DEALER_17] < s17[DealerProbabilities.DEALER_17]);
+        assertEquals(s17[DealerProbabilities.BLACKJACK],
+                h17[DealerProbabilities.BLACKJACK], 0);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], h17[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testOnlyTensLeft() {
+        Composition shoe = Composition.fromKey(0);
+        for (int i=0; i<10; i++) {
+            shoe.add(10);
+        }
+
+        double[] result = new DealerProbabilities(false, 1).probabilities(7, shoe);
+        assertEquals(1, result[DealerProbabilities.DEALER_17], 0);
+    }
+
+    /**
+     * Follow every card the dealer could draw without any caching.
+     */
+    private static void bruteForce(int hard, int cards, boolean ace,
+            Composition shoe, double p, boolean hitsSoft17, double[] result) {
+        // The upcard is passed in with aces as 11
+        if (cards == 1 && hard == 11) {
+            hard = 1;
+        }
+        int total = ace && hard + 10 <= 21 ? hard + 10 : hard;
+        boolean soft = total != hard;
+
+        if (cards == 2 && total == 21) {
+            result[DealerProbabilities.BLACKJACK] += p;
+            return;
+        }
+        if (total > 21) {
+            result[DealerProbabilities.BUST] += p;
+            return;
+        }
+        if (cards >= 2 && total >= 17 && !(hitsSoft17 && soft && total == 17)) {
+            result[total - 17] += p;
+            return;
+        }
+
+        int left = shoe.getTotal();
+        for (int value=2; value<=11; value++) {
+            int count = shoe.count(value);
+            if (count > 0) {
+                shoe.remove(value);
+                bruteForce(hard + (value == 11 ? 1 : value), cards + 1,
+                        ace || value == 11, shoe, p * count / left,
+                        hitsSoft17, result);
+                shoe.add(value);
+            }
+        }
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+}
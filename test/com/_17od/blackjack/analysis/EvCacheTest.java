@@ -0,0 +1,58 @@
+package com._17od.blackjack.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the EvCache class.
+ *
+ * @author Adrian Smith
+ */
+public class EvCacheTest {
+
+    @Test
+    public void testPutAndGet() {
+        EvCache cache = new EvCache(1 << 16);
+        long key = new Composition(6).key();
+        assertTrue(Double.isNaN(cache.get(key, 1)));
+
+        cache.put(key, 1, 0.5);
+        cache.put(key, 2, -0.25);
+        assertEquals(0.5, cache.get(key, 1), 0);
+        assertEquals(-0.25, cache.get(key, 2), 0);
+        assertTrue(Double.isNaN(cache.get(key + 1, 1)));
+
+        cache.put(key, 1, 0.75);
+        assertEquals(0.75, cache.get(key, 1), 0);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testGrows() {
+        EvCache cache = new EvCache(1 << 16);
+        for (int i=0; i<10000; i++) {
+            cache.put(i * 0x1000L, 1 + i % 7, i);
+        }
+        assertEquals(10000, cache.size());
+        for (int i=0; i<10000; i++) {
+            assertEquals(i, cache.get(i * 0x1000L, 1 + i % 7), 0);
+        }
+    }
+
+    @Test
+    public void testClearedWhenFull() {
+        EvCache cache = new EvCache(100);
+        for (int i=0; i<100; i++) {
+            cache.put(i, 1, i);
+        }
+        assertEquals(100, cache.size());
+
+        cache.put(100, 1, 100);
+        assertEquals(1, cache.size());
+        assertTrue(Double.isNaN(cache.get(0, 1)));
+        assertEquals(100, cache.get(100, 1), 0);
+    }
+
+}
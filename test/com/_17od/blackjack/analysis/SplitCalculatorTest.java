@@ -0,0 +1,125 @@
+package com._17od.blackjack.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com._17od.blackjack.GameRules;
+
+/**
+ * Unit tests for the SplitCalculator class.
+ *
+ * @author Adrian Smith
+ */
+public class SplitCalculatorTest {
+
+    @Test
+    public void testTwoHandsMatchesPlayingEachHand() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(2);
+        SplitCalculator calculator = new SplitCalculator(rules);
+        Composition shoe = shoe(2, 8, 10);
+
+        // With no resplits both hands are the same so the split is worth
+        // twice one of them
+        ExpectedValues expectedValues = new ExpectedValues(
+                new DealerProbabilities(rules));
+        double[] dealerOutcomes = expectedValues.dealerOutcomes(10, shoe);
+        double ev = 0;
+        for (int second=Composition.MIN_VALUE; second<=Composition.MAX_VALUE; second++) {
+            double p = (double) shoe.count(second) / shoe.getTotal();
+            shoe.remove(second);
+            int hard = 8 + (second == 11 ? 1 : second);
+            boolean ace = second == 11;
+            double best = Math.max(ExpectedValues.stand(
+                    ExpectedValues.total(hard, ace), dealerOutcomes),
+                    expectedValues.hit(hard, ace, shoe, dealerOutcomes));
+            best = Math.max(best, expectedValues.doubleDown(hard, ace, shoe,
+                    dealerOutcomes));
+            shoe.add(second);
+            ev += p * best;
+        }
+
+        assertEquals(2 * ev, calculator.split(8, 10, shoe, 2), 1e-12);
+    }
+
+    @Test
+    public void testResplittingIsWorthMore() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        SplitCalculator calculator = new SplitCalculator(rules);
+        Composition shoe = shoe(6, 8, 6);
+        long key = shoe.key();
+
+        double twoHands = calculator.split(8, 6, shoe, 2);
+        double fourHands = calculator.split(8, 6, shoe, 4);
+        assertTrue(fourHands > twoHands);
+        assertTrue(calculator.split(8, 6, shoe, 3) > twoHands);
+        assertTrue(calculator.split(8, 6, shoe, 3) < fourHands);
+
+        // The shoe isn't changed and the results are cached
+        assertEquals(key, shoe.key());
+        assertEquals(3, calculator.getCacheSize());
+        assertEquals(fourHands, calculator.split(8, 6, shoe, 4), 0);
+    }
+
+    @Test
+    public void testResplittingAces() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        Composition shoe = shoe(6, 11, 6);
+
+        SplitCalculator calculator = new SplitCalculator(rules);
+        double noResplits = calculator.split(11, 6, shoe, 4);
+        assertEquals(calculator.split(11, 6, shoe, 2), noResplits, 0);
+
+        rules.setResplitAces(true);
+        calculator = new SplitCalculator(rules);
+        assertTrue(calculator.split(11, 6, shoe, 4) > noResplits);
+    }
+
+    @Test
+    public void testDoubleAfterSplit() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        Composition shoe = shoe(6, 4, 5);
+
+        rules.setDoubleAfterSplit(false);
+        double noDouble = new SplitCalculator(rules).split(4, 5, shoe, 4);
+        rules.setDoubleAfterSplit(true);
+        double withDouble = new SplitCalculator(rules).split(4, 5, shoe, 4);
+
+        // Splitting 4s against a 5 is only worth it with DAS
+        assertTrue(withDouble > noDouble);
+        assertTrue(noDouble < 0);
+        assertTrue(withDouble > 0);
+    }
+
+    @Test
+    public void testCallingThreadMatchesParallel() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        SplitCalculator parallel = new SplitCalculator(rules);
+        SplitCalculator callingThread = new SplitCalculator(rules,
+                SplitCalculator.DEFAULT_MAX_CACHE_SIZE, false);
+
+        for (int value : new int[] {2, 8, 11}) {
+            Composition shoe = shoe(6, value, 6);
+            assertEquals(parallel.split(value, 6, shoe, 4),
+                    callingThread.split(value, 6, shoe, 4), 0);
+        }
+    }
+
+    /**
+     * @return a full shoe less a pair and the dealer's faceup card
+     */
+    private static Composition shoe(int numberOfDecks, int value, int upcard) {
+        Composition shoe = new Composition(numberOfDecks);
+        shoe.remove(value);
+        shoe.remove(value);
+        shoe.remove(upcard);
+        return shoe;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com._17od.blackjack.counting;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+
+/**
+ * Unit tests for the CardCounter, CountingSystem and BetRamp classes.
+ *
+ * @author Adrian Smith
+ */
+public class CardCounterTest {
+
+    @Test
+    public void testOnlyKoIsUnbalanced() {
+        for (CountingSystem system : CountingSystem.values()) {
+            assertEquals(system != CountingSystem.KO, system.isBalanced());
+        }
+        assertEquals(0, CountingSystem.ZEN.initialRunningCount(6));
+        assertEquals(-20, CountingSystem.KO.initialRunningCount(6));
+    }
+
+    @Test
+    public void testTags() {
+        assertEquals(2, CountingSystem.OMEGA_II.tag(
+                Card.code(Rank.SIX, Suit.CLUBS)));
+        assertEquals(-1, CountingSystem.OMEGA_II.tag(
+                Card.code(Rank.NINE, Suit.CLUBS)));
+        assertEquals(0, CountingSystem.HI_OPT_I.tag(
+                Card.code(Rank.ACE, Suit.CLUBS)));
+        assertEquals(-1, CountingSystem.ZEN.tag(
+                Card.code(Rank.ACE, Suit.CLUBS)));
+        assertEquals(1, CountingSystem.KO.tag(
+                Card.code(Rank.SEVEN, Suit.CLUBS)));
+    }
+
+    @Test
+    public void testKoCountsUpToPivotOverWholeShoe() {
+        CardCounter counter = new CardCounter(CountingSystem.KO, 2);
+        for (int i=0; i<2 * Card.NUMBER_OF_CARDS - 1; i++) {
+            counter.notify(Card.valueOf(i % Card.NUMBER_OF_CARDS));
+        }
+        // The last card is the ace of spades
+        assertEquals(5, counter.getRunningCount());
+        assertEquals(5, counter.getBettingCount());
+    }
+
+    @Test
+    public void testTrueCountRoundsToNearest() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO, 6);
+        for (int i=0; i<300; i++) {
+            // Mostly low cards to push the count up
+            int code = (i % 3 == 0) ? Card.code(Rank.KING, Suit.CLUBS)
+                    : Card.code(Rank.FOUR, Suit.CLUBS);
+            counter.notify(Card.valueOf(code));
+
+            double trueCount = counter.getRunningCount() * 52.0
+                    / counter.getCardsLeft();
+            assertEquals(Math.round(trueCount), counter.getTrueCount());
+        }
+    }
+
+    @Test
+    public void testNegativeTrueCountRounds() {
+        CardCounter counter = new CardCounter(CountingSystem.HI_LO, 1);
+        counter.notify(Card.valueOf(Rank.KING, Suit.CLUBS));
+        counter.notify(Card.valueOf(Rank.ACE, Suit.CLUBS));
+        // -2 / (50 / 52) = -2.08
+        assertEquals(-2, counter.getTrueCount());
+    }
+
+    @Test
+    public void testBatchMatchesSingleCards() {
+        CardCounter single = new CardCounter(CountingSystem.ZEN, 1);
+        CardCounter batch = new CardCounter(CountingSystem.ZEN, 1);
+        Card[] cards = { Card.valueOf(Rank.FOUR, Suit.CLUBS),
+                Card.valueOf(Rank.ACE, Suit.CLUBS),
+                Card.valueOf(Rank.SEVEN, Suit.CLUBS) };
+
+        for (Card card : cards) {
+            single.notify(card);
+        }
+        batch.notifyBatch(cards);
+
+        assertEquals(2, batch.getRunningCount());
+        assertEquals(single.getRunningCount(), batch.getRunningCount());
+        assertEquals(single.getCardsLeft(), batch.getCardsLeft());
+    }
+
+    @Test
+    public void testShuffleResetsCount() {
+        CardCounter counter = new CardCounter(CountingSystem.KO, 6);
+        counter.notify(Card.valueOf(Rank.TWO, Suit.CLUBS));
+        counter.notifyShuffle();
+        assertEquals(-20, counter.getRunningCount());
+        assertEquals(312, counter.getCardsLeft());
+    }
+
+    @Test
+    public void testBetRampClampsToEnds() {
+        BetRamp ramp = new BetRamp(-1, 1, 1, 4, 8);
+        assertEquals(1, ramp.units(-5));
+        assertEquals(1, ramp.units(0));
+        assertEquals(4, ramp.units(1));
+        assertEquals(8, ramp.units(2));
+        assertEquals(8, ramp.units(10));
+        assertEquals(4, BetRamp.hiLo().units(3));
+        assertEquals(1, BetRamp.hiLo().units(-3));
+    }
+
+}
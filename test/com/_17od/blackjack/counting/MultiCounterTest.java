@@ -0,0 +1,61 @@
+package com._17od.blackjack.counting;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Shoe;
+
+/**
+ * Unit tests for the MultiCounter class.
+ *
+ * @author Adrian Smith
+ */
+public class MultiCounterTest {
+
+    @Test
+    public void testMatchesSeparateCounters() {
+        CountingSystem[] systems = CountingSystem.values();
+        MultiCounter multi = new MultiCounter(2, systems);
+        CardCounter[] counters = new CardCounter[systems.length];
+        for (int s=0; s<systems.length; s++) {
+            counters[s] = new CardCounter(systems[s], 2);
+        }
+
+        Shoe shoe = new Shoe(2, 1.0, new SplittableRandom(3));
+        for (int i=0; i<100; i++) {
+            Card card = shoe.deal();
+            multi.notify(card);
+            for (CardCounter counter : counters) {
+                counter.notify(card);
+            }
+
+            for (int s=0; s<systems.length; s++) {
+                assertEquals(counters[s].getRunningCount(),
+                        multi.getRunningCount(s));
+                assertEquals(counters[s].getTrueCount(), multi.getTrueCount(s));
+                assertEquals(counters[s].getBettingCount(),
+                        multi.getBettingCount(s));
+            }
+        }
+        assertEquals(4, multi.getCardsLeft());
+    }
+
+    @Test
+    public void testShuffleResetsEveryCount() {
+        MultiCounter multi = new MultiCounter(6, CountingSystem.HI_LO,
+                CountingSystem.KO);
+        multi.notifyBatch(new Card[] { Card.valueOf(0), Card.valueOf(1) });
+        assertEquals(2, multi.getRunningCount(0));
+        assertEquals(-18, multi.getRunningCount(1));
+
+        multi.notifyShuffle();
+        assertEquals(0, multi.getRunningCount(0));
+        assertEquals(-20, multi.getRunningCount(1));
+        assertEquals(312, multi.getCardsLeft());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com._17od.blackjack.counting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.GameRules;
+
+/**
+ * Unit tests for the TableTracker and TrackedTable classes.
+ *
+ * @author Adrian Smith
+ */
+public class TableTrackerTest {
+
+    @Test
+    public void testMatchesCardCounter() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(2);
+        TableTracker tracker = new TableTracker(CountingSystem.ZEN,
+                BetRamp.hiLo());
+        TrackedTable single = tracker.openTable("single", rules);
+        TrackedTable batched = tracker.openTable("batched", rules);
+        CardCounter counter = new CardCounter(CountingSystem.ZEN, 2);
+
+        // Long enough to run through the shoe twice
+        SplittableRandom random = new SplittableRandom(3);
+        byte[] codes = new byte[7];
+        for (int i=0; i<40; i++) {
+            for (int j=0; j<codes.length; j++) {
+                codes[j] = (byte) random.nextInt(Card.NUMBER_OF_CARDS);
+                single.dealt(codes[j]);
+                counter.notify(Card.valueOf(codes[j]));
+                assertEquals(counter.getRunningCount(), single.getRunningCount());
+                assertEquals(counter.getTrueCount(), single.getTrueCount());
+            }
+            batched.dealt(codes, 0, codes.length);
+            assertEquals(counter.getRunningCount(), batched.getRunningCount());
+            assertEquals(counter.getCardsLeft(), batched.getCardsLeft());
+        }
+
+        counter.notifyShuffle();
+        tracker.shuffled("single");
+        assertEquals(counter.getRunningCount(), single.getRunningCount());
+        assertEquals(2 * Card.NUMBER_OF_CARDS, single.getCardsLeft());
+    }
+
+    @Test
+    public void testAmountToBetFollowsRamp() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(1);
+        TableTracker tracker = new TableTracker(CountingSystem.HI_LO,
+                BetRamp.hiLo());
+        tracker.openTable("1", rules);
+        assertEquals(rules.getMinimumBet(), tracker.amountToBet("1"));
+
+        // +8 with 40 cards left is a true count of 10
+        int five = Card.code(Rank.FIVE, Suit.CLUBS);
+        for (int i=0; i<12; i++) {
+            tracker.dealt("1", i < 10 ? five : Card.code(Rank.KING, Suit.CLUBS));
+        }
+        assertEquals(8, tracker.getTable("1").getRunningCount());
+        assertEquals(10, tracker.getTable("1").getTrueCount());
+        assertEquals(6 * rules.getMinimumBet(), tracker.amountToBet("1"));
+    }
+
+    @Test
+    public void testTablesOpenedOnce() {
+        TableTracker tracker = new TableTracker(CountingSystem.KO,
+                BetRamp.hiLo());
+        TrackedTable table = tracker.openTable("a", new GameRules());
+        assertSame(table, tracker.openTable("a", new GameRules()));
+        assertEquals(1, tracker.getNumberOfTables());
+
+        assertSame(table, tracker.closeTable("a"));
+        assertNull(tracker.getTable("a"));
+        try {
+            tracker.dealt("a", 0);
+            fail("Expected an unknown table to be rejected");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        final GameRules rules = new GameRules();
+        rules.setNumberOfDecks(8);
+        final TableTracker tracker = new TableTracker(CountingSystem.HI_LO,
+                BetRamp.hiLo());
+        final int tables = 200;
+        for (int t=0; t<tables; t++) {
+            tracker.openTable(Integer.toString(t), rules);
+        }
+
+        // Each thread deals two twos and a king to every table, over and
+        // over, so every table ends with the same count whatever the
+        // interleaving. Fewer cards are dealt than are in the shoe.
+        final int rounds = 30;
+        Thread[] threads = new Thread[4];
+        for (int i=0; i<threads.length; i++) {
+            final boolean batch = i % 2 == 0;
+            threads[i] = new Thread() {
+                public void run() {
+                    byte[] codes = { (byte) Card.code(Rank.TWO, Suit.CLUBS),
+                            (byte) Card.code(Rank.TWO, Suit.HEARTS),
+                            (byte) Card.code(Rank.KING, Suit.CLUBS) };
+                    for (int r=0; r<rounds; r++) {
+                        for (int t=0; t<tables; t++) {
+                            TrackedTable table = tracker.getTable(Integer.toString(t));
+                            if (batch) {
+                                table.dealt(codes, 0, codes.length);
+                            } else {
+                                for (byte code : codes) {
+                                    table.dealt(code);
+                                }
+                            }
+                            table.amountToBet();
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int cardsDealt = threads.length * rounds * 3;
+        for (TrackedTable table : tracker.getTables()) {
+            assertEquals(threads.length * rounds, table.getRunningCount());
+            assertEquals(rules.getNumberOfDecks() * Card.NUMBER_OF_CARDS
+                    - cardsDealt, table.getCardsLeft());
+        }
+    }
+
+}
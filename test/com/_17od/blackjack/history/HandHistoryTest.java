@@ -0,0 +1,216 @@
+package com._17od.blackjack.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.Round;
+import com._17od.blackjack.RoundListener;
+import com._17od.blackjack.SeededShuffler;
+import com._17od.blackjack.Shoe;
+import com._17od.blackjack.ShoeShuffler;
+import com._17od.blackjack.simulation.SimulationResult;
+import com._17od.blackjack.simulation.Simulator;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the HandHistoryWriter and HandHistoryReader classes.
+ *
+ * @author Adrian Smith
+ */
+public class HandHistoryTest {
+
+    @Test
+    public void testSplitRoundReadBack() throws IOException {
+        final Card[] cards = { Card.valueOf(Rank.EIGHT, Suit.CLUBS),
+                Card.valueOf(Rank.SIX, Suit.DIAMONDS),
+                Card.valueOf(Rank.EIGHT, Suit.HEARTS),
+                Card.valueOf(Rank.TEN, Suit.SPADES),
+                Card.valueOf(Rank.KING, Suit.CLUBS),
+                Card.valueOf(Rank.NINE, Suit.DIAMONDS),
+                Card.valueOf(Rank.QUEEN, Suit.HEARTS) };
+        Shoe shoe = new Shoe(1, 1, new ShoeShuffler() {
+            public void shuffle(byte[] codes) {
+                stack(codes, cards);
+            }
+        });
+
+        File directory = createDirectory();
+        HandHistoryWriter writer = new HandHistoryWriter(directory, "split",
+                true);
+        Round round = createRound(new Game(new GameRules()), shoe);
+        round.setRoundListener(writer);
+        double won = round.play();
+        writer.close();
+
+        HandHistoryReader reader = new HandHistoryReader(directory, "split");
+        assertTrue(reader.next());
+        assertEquals(round.getAmountBet(), reader.getBet());
+        assertEquals(won, reader.getResult(), 0);
+        assertFalse(reader.isShuffled());
+        assertTrue(reader.hasSuits());
+
+        assertEquals(cards.length, reader.getNumberOfCards());
+        boolean[] dealerCards = { false, true, false, true, false, false, true };
+        for (int i=0; i<cards.length; i++) {
+            assertEquals(cards[i].getCode(), reader.getCardCode(i));
+            assertEquals(cards[i].getRank().ordinal(), reader.getCardRank(i));
+            assertEquals(dealerCards[i], reader.isDealerCard(i));
+        }
+
+        assertEquals(3, reader.getNumberOfDecisions());
+        assertEquals(DecisionEnum.SPLIT, reader.getDecision(0));
+        assertEquals(DecisionEnum.STAND, reader.getDecision(1));
+        assertEquals(DecisionEnum.STAND, reader.getDecision(2));
+        assertFalse(reader.next());
+        reader.close();
+        delete(directory);
+    }
+
+    @Test
+    public void testRoundsSpanSegments() throws IOException {
+        GameRules rules = new GameRules();
+        Game game = new Game(rules);
+        Shoe shoe = new Shoe(rules.getNumberOfDecks(), rules.getPenetration(),
+                new SeededShuffler(1));
+        Round round = createRound(game, shoe);
+
+        File directory = createDirectory();
+        final HandHistoryWriter writer = new HandHistoryWriter(directory,
+                "rounds", false, HandHistoryWriter.MIN_SEGMENT_SIZE);
+        final int[] cardsDealt = new int[1];
+        round.setRoundListener(new RoundListener() {
+            public void roundStarted(int bet) {
+                writer.roundStarted(bet);
+            }
+
+            public void cardDealt(Card card, boolean toDealer) {
+                cardsDealt[0]++;
+                writer.cardDealt(card, toDealer);
+            }
+
+            public void decisionMade(DecisionEnum decision) {
+                writer.decisionMade(decision);
+            }
+
+            public void shoeShuffled() {
+                writer.shoeShuffled();
+            }
+
+            public void roundFinished(double result) {
+                writer.roundFinished(result);
+            }
+        });
+        double totalWon = 0;
+        long totalBet = 0;
+        for (int i=0; i<5000; i++) {
+            totalWon += round.play();
+            totalBet += round.getAmountBet();
+        }
+        writer.close();
+        assertEquals(5000, writer.getRounds());
+        assertTrue(HandHistoryFormat.segmentFiles(directory, "rounds").length > 1);
+
+        HandHistoryReader reader = new HandHistoryReader(directory);
+        int rounds = 0;
+        int shuffles = 0;
+        int cards = 0;
+        double readWon = 0;
+        long readBet = 0;
+        while (reader.next()) {
+            rounds++;
+            readWon += reader.getResult();
+            readBet += reader.getBet();
+            cards += reader.getNumberOfCards();
+            if (reader.isShuffled()) {
+                shuffles++;
+            }
+            assertFalse(reader.hasSuits());
+            assertFalse(reader.isDealerCard(0));
+            assertTrue(reader.isDealerCard(3));
+        }
+        assertEquals(5000, rounds);
+        assertEquals(totalWon, readWon, 0);
+        assertEquals(totalBet, readBet);
+        assertEquals(cardsDealt[0], cards);
+        assertTrue(shuffles > 0);
+        reader.close();
+        delete(directory);
+    }
+
+    @Test
+    public void testSimulatorRecordsEveryBatch() throws IOException {
+        GameRules rules = new GameRules();
+        Simulator simulator = new Simulator(rules, new BasicStrategyBuilder(),
+                7);
+        simulator.setBatchSize(1000);
+        File directory = createDirectory();
+        simulator.setHistoryDirectory(directory, true);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SimulationResult result = simulator.run(3500, pool);
+        pool.shutdown();
+
+        assertEquals(4, HandHistoryFormat.segmentFiles(directory, null).length);
+        HandHistoryReader reader = new HandHistoryReader(directory);
+        long rounds = 0;
+        double won = 0;
+        while (reader.next()) {
+            rounds++;
+            won += reader.getResult();
+        }
+        assertEquals(result.getHands(), rounds);
+        assertEquals(result.getTotalWon(), won, 1e-9);
+        reader.close();
+        delete(directory);
+    }
+
+    private static Round createRound(Game game, Shoe shoe) {
+        Player player = new Player();
+        new BasicStrategyBuilder().create(game, player);
+        return new Round(game, player, shoe);
+    }
+
+    /**
+     * Move the given cards to the front of the shoe.
+     */
+    private static void stack(byte[] codes, Card[] cards) {
+        for (int i=0; i<cards.length; i++) {
+            for (int j=i; j<codes.length; j++) {
+                if (codes[j] == cards[i].getCode()) {
+                    codes[j] = codes[i];
+                    codes[i] = (byte) cards[i].getCode();
+                    break;
+                }
+            }
+        }
+    }
+
+    private static File createDirectory() throws IOException {
+        File directory = File.createTempFile("history", "");
+        directory.delete();
+        directory.mkdir();
+        return directory;
+    }
+
+    private static void delete(File directory) {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+}
@@ -0,0 +1,128 @@
+package com._17od.blackjack.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.Round;
+import com._17od.blackjack.SeededShuffler;
+import com._17od.blackjack.Shoe;
+import com._17od.blackjack.counting.CardCounter;
+import com._17od.blackjack.counting.CountingSystem;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+
+/**
+ * Unit tests for the JFR events fired while playing.
+ *
+ * @author Adrian Smith
+ */
+public class EventsTest {
+
+    @Test
+    public void testEventsRecorded() throws IOException {
+        Recording recording = new Recording();
+        recording.enable(DealEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(DecisionEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(BetEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(ShoeResetEvent.class);
+        Path file = Files.createTempFile("blackjack", ".jfr");
+        try {
+            recording.start();
+            GameRules rules = new GameRules();
+            Game game = new Game(rules);
+            Player player = new Player();
+            new HiLoStrategyBuilder().create(game, player);
+            Round round = new Round(game, player, new Shoe(1,
+                    rules.getPenetration(), new SeededShuffler(1)));
+            // Enough to go through the shoe a few times
+            for (int i=0; i<50; i++) {
+                round.play();
+            }
+            recording.stop();
+            recording.dump(file);
+
+            int deals = 0;
+            int decisions = 0;
+            int bets = 0;
+            int resets = 0;
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            for (RecordedEvent event : events) {
+                String name = event.getEventType().getName();
+                if (name.equals("com._17od.blackjack.Deal")) {
+                    deals++;
+                    assertNotNull(event.getString("cards"));
+                    assertEquals(1, event.getInt("observers"));
+                } else if (name.equals("com._17od.blackjack.Decision")) {
+                    decisions++;
+                    assertEquals("Hi-Lo Strategy", event.getString("strategy"));
+                    assertTrue(event.getBoolean("counting"));
+                    assertTrue(event.getInt("handTotal") < 21);
+                    assertNotNull(event.getString("dealerUpcard"));
+                    assertNotNull(event.getString("decision"));
+                } else if (name.equals("com._17od.blackjack.Bet")) {
+                    bets++;
+                    assertEquals("HI_LO", event.getString("system"));
+                    assertTrue(event.getInt("bet") >= rules.getMinimumBet());
+                } else if (name.equals("com._17od.blackjack.ShoeReset")) {
+                    resets++;
+                }
+            }
+            assertEquals(50, bets);
+            assertTrue(deals >= 150);
+            assertTrue(decisions > 0);
+            assertTrue(resets > 0);
+        } finally {
+            recording.close();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testShoeResetOnlyWhenShuffled() throws IOException {
+        Recording recording = new Recording();
+        recording.enable(ShoeResetEvent.class);
+        Path file = Files.createTempFile("blackjack", ".jfr");
+        try {
+            recording.start();
+            // Creating the counter isn't a reset
+            CardCounter counter = new CardCounter(CountingSystem.HI_LO, 1);
+            counter.notify(Card.valueOf(Rank.TWO, Suit.CLUBS));
+            counter.notifyShuffle();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> resets = new ArrayList<RecordedEvent>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals("com._17od.blackjack.ShoeReset")) {
+                    resets.add(event);
+                }
+            }
+            assertEquals(1, resets.size());
+            assertEquals(1, resets.get(0).getInt("runningCountBefore"));
+            assertEquals(51, resets.get(0).getInt("cardsLeftBefore"));
+        } finally {
+            recording.close();
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package com._17od.blackjack.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+
+import org.junit.Test;
+
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the Metrics and LatencyHistogram classes.
+ *
+ * @author Adrian Smith
+ */
+public class MetricsTest {
+
+    @Test
+    public void testHistogramBuckets() {
+        assertEquals(0, LatencyHistogram.bucket(0));
+        assertEquals(1, LatencyHistogram.bucket(1));
+        assertEquals(2, LatencyHistogram.bucket(3));
+        assertEquals(3, LatencyHistogram.bucket(4));
+        assertEquals(63, LatencyHistogram.bucket(Long.MAX_VALUE));
+        assertEquals(7, LatencyHistogram.upperBound(3));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.99));
+        for (int i=0; i<98; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1000);
+        histogram.record(5000);
+        assertEquals(100, histogram.getCount());
+        assertEquals(98 * 100 + 1000 + 5000, histogram.getTotalNanos());
+        assertEquals(127, histogram.getPercentile(0.5));
+        assertEquals(1023, histogram.getPercentile(0.99));
+        assertEquals(8191, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void testFormat() {
+        long hits = Metrics.getDecisions(DecisionEnum.HIT);
+        Metrics.decisionMade(DecisionEnum.HIT);
+        Metrics.decisionMade(DecisionEnum.HIT);
+        Metrics.observerAdded(3);
+        Metrics.observerRemoved();
+        assertEquals(hits + 2, Metrics.getDecisions(DecisionEnum.HIT));
+        assertTrue(Metrics.getMaxObserversPerGame() >= 3);
+
+        String text = Metrics.format();
+        assertTrue(text.contains("blackjack_decisions_total{decision=\"HIT\"} "
+                + (hits + 2) + "\n"));
+        assertTrue(text.contains("# TYPE blackjack_deal_latency_nanos histogram\n"));
+        assertTrue(text.contains("blackjack_deal_latency_nanos_bucket{le=\"+Inf\"} "));
+    }
+
+    @Test
+    public void testHttpEndpoint() throws IOException {
+        MetricsHttpServer server = new MetricsHttpServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        try {
+            URL url = new URL("http", InetAddress.getLoopbackAddress().getHostAddress(),
+                    server.getPort(), "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            InputStream in = connection.getInputStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int read;
+            while ((read = in.read(buf)) >= 0) {
+                body.write(buf, 0, read);
+            }
+            in.close();
+            assertTrue(body.toString("UTF-8").contains("blackjack_hands_total "));
+        } finally {
+            server.close();
+        }
+    }
+
+}
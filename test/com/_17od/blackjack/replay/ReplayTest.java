@@ -0,0 +1,186 @@
+package com._17od.blackjack.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.CardCodec;
+import com._17od.blackjack.CardObserver;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameException;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.Round;
+import com._17od.blackjack.RoundListener;
+import com._17od.blackjack.SeededShuffler;
+import com._17od.blackjack.Shoe;
+import com._17od.blackjack.simulation.SimulationResult;
+import com._17od.blackjack.strategy.BasicStrategyBuilder;
+import com._17od.blackjack.strategy.HiLoStrategyBuilder;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the RecordedShoes, Replay and ReplayResult classes.
+ *
+ * @author Adrian Smith
+ */
+public class ReplayTest {
+
+    @Test
+    public void testShoesReadThroughSmallWindow() throws IOException {
+        File file = write("# Recorded at table 3", "", "AS 10H,2c",
+                "kd qd", "   ", "# Shuffled", "7S\r", "");
+        RecordedShoes shoes = new RecordedShoes(file, 32);
+        assertTrue(shoes.isCutCardReached());
+        assertFalse(shoes.isFinished());
+
+        shoes.shuffle();
+        assertEquals(3, shoes.getCardsLeft());
+        assertEquals(CardCodec.decodeCard("AS"), shoes.deal().getCode());
+        assertEquals(CardCodec.decodeCard("10H"), shoes.deal().getCode());
+        assertEquals(CardCodec.decodeCard("2C"), shoes.deal().getCode());
+        assertTrue(shoes.isCutCardReached());
+
+        shoes.shuffle();
+        assertEquals(2, shoes.getCardsLeft());
+        shoes.deal();
+        shoes.deal();
+
+        shoes.shuffle();
+        assertEquals(CardCodec.decodeCard("7S"), shoes.deal().getCode());
+        assertTrue(shoes.isFinished());
+        assertEquals(3, shoes.getShoes());
+
+        try {
+            shoes.shuffle();
+            fail("Expected the end of the shoes to be reached");
+        } catch (GameException e) {
+        }
+        shoes.close();
+    }
+
+    @Test
+    public void testReplayMatchesShoe() throws IOException {
+        long seed = 42;
+        File file = writeShoes(seed, 200);
+
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(1);
+        final int[] cardsSeen = new int[1];
+        Replay replay = new Replay(rules, file);
+        replay.setWindowSize(4096);
+        replay.addStrategy("basic", new BasicStrategyBuilder(),
+                new CardObserver() {
+                    public void notify(Card card) {
+                        cardsSeen[0]++;
+                    }
+
+                    public void notifyShuffle() {
+                    }
+                });
+        replay.addStrategy("hilo", new HiLoStrategyBuilder());
+        List<ReplayResult> results = replay.run();
+
+        assertEquals(2, results.size());
+        ReplayResult basic = results.get(0);
+        assertEquals("basic", basic.getName());
+        assertEquals("hilo", results.get(1).getName());
+        assertEquals(200, basic.getShoes());
+        assertTrue(cardsSeen[0] > 199 * Card.NUMBER_OF_CARDS);
+
+        // The same shoes dealt straight from a Shoe give the same rounds
+        SimulationResult expected = new SimulationResult();
+        Game game = new Game(rules);
+        Player player = new Player();
+        new BasicStrategyBuilder().create(game, player);
+        Round round = new Round(game, player, new Shoe(1, 1,
+                new SeededShuffler(seed)));
+        for (long i=0; i<basic.getResult().getHands(); i++) {
+            double won = round.play();
+            expected.record(round.getAmountBet(), won);
+        }
+        assertEquals(expected.getTotalWon(), basic.getResult().getTotalWon(), 0);
+        assertEquals(expected.getTotalBet(), basic.getResult().getTotalBet());
+
+        long decisions = 0;
+        for (DecisionEnum decision : DecisionEnum.values()) {
+            decisions += basic.getDecisions(decision);
+        }
+        assertTrue(decisions > basic.getResult().getHands() / 2);
+        assertTrue(results.get(1).getResult().getHands() > 0);
+    }
+
+    /**
+     * Write a file of single deck shoes shuffled the same way as a
+     * {@link Shoe} using a {@link SeededShuffler}.
+     */
+    /**
+     * Record the shoes dealt playing basic strategy on a single deck with no
+     * cut card, as they were dealt. A shoe that runs out part way through a
+     * round is followed by the discards, without the cards on the table.
+     */
+    private static File writeShoes(long seed, int numberOfShoes)
+            throws IOException {
+        final String[] lines = new String[numberOfShoes];
+        final StringBuilder shoe = new StringBuilder();
+        final int[] shoes = new int[1];
+
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        new BasicStrategyBuilder().create(game, player);
+        Round round = new Round(game, player, new Shoe(1, 1,
+                new SeededShuffler(seed)));
+        round.setRoundListener(new RoundListener() {
+            public void roundStarted(int bet) {
+            }
+
+            public void cardDealt(Card card, boolean toDealer) {
+                if (shoe.length() > 0) {
+                    shoe.append(',');
+                }
+                CardCodec.encode(card.getCode(), shoe);
+            }
+
+            public void decisionMade(DecisionEnum decision) {
+            }
+
+            public void shoeShuffled() {
+                lines[shoes[0]++] = shoe.toString();
+                shoe.setLength(0);
+            }
+
+            public void roundFinished(double result) {
+            }
+        });
+        while (shoes[0] < numberOfShoes) {
+            round.play();
+        }
+        return write(lines);
+    }
+
+    private static File write(String... lines) throws IOException {
+        File file = File.createTempFile("shoes", ".txt");
+        file.deleteOnExit();
+        Writer writer = new FileWriter(file);
+        try {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        return file;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com._17od.blackjack.simulation;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.SeededShuffler;
+
+/**
+ * Unit tests for the SimulationTask class.
+ *
+ * @author Adrian Smith
+ */
+public class SimulationTaskTest {
+
+    private static final int SHOES = 10;
+
+    /**
+     * Seeding batch b with seed ^ (b * gamma) meant batch b's shoe n + 1 was
+     * batch b + 1's shoe n for some seeds, including 0.
+     */
+    @Test
+    public void testNeighbouringBatchesDealDifferentShoes() {
+        long[] seeds = {0, 1, 12345, -1};
+        for (long seed : seeds) {
+            for (long batch=0; batch<4; batch++) {
+                byte[][] shoes = shoes(SimulationTask.shoeSeed(seed, batch));
+                byte[][] nextShoes = shoes(SimulationTask.shoeSeed(seed, batch + 1));
+                for (byte[] shoe : shoes) {
+                    for (byte[] nextShoe : nextShoes) {
+                        assertFalse("seed " + seed + " batch " + batch,
+                                Arrays.equals(shoe, nextShoe));
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[][] shoes(long shoeSeed) {
+        byte[][] shoes = new byte[SHOES][Card.NUMBER_OF_CARDS];
+        for (int i=0; i<SHOES; i++) {
+            SeededShuffler.shuffle(shoes[i], shoeSeed, i);
+        }
+        return shoes;
+    }
+
+}
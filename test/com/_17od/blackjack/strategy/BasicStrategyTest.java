@@ -1,5 +1,8 @@
 package com._17od.blackjack.strategy;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
@@ -143,4 +146,89 @@ public class BasicStrategyTest {
         assertTrue(strategy.whatNext() instanceof DoubleDown);
     }
 
+    @Test
+    public void testNextDecisionResolvesDouble() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+
+        game.deal(new Card(Rank.FIVE, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.SIX, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.TWO, Suit.DIAMONDS), game.getDealer());
+
+        BasicStrategy strategy = new BasicStrategy(game, player);
+
+        assertEquals(Strategy.DecisionEnum.DOUBLE, strategy.nextDecision());
+        assertSame(DoubleDown.INSTANCE, strategy.whatNext());
+    }
+
+    @Test
+    public void testNextDecisionResolvesHitWhenCantDouble() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+
+        game.deal(new Card(Rank.TWO, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.THREE, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.SIX, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.TWO, Suit.DIAMONDS), game.getDealer());
+
+        BasicStrategy strategy = new BasicStrategy(game, player);
+
+        assertEquals(Strategy.DecisionEnum.HIT, strategy.nextDecision());
+        assertSame(Hit.INSTANCE, strategy.whatNext());
+    }
+
+    @Test
+    public void testDoubleOn1011Only() {
+        GameRules rules = new GameRules();
+        rules.setDoubleOn1011Only(true);
+        Game game = new Game(rules);
+        Player player = new Player();
+
+        game.deal(new Card(Rank.FIVE, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.SIX, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.TWO, Suit.DIAMONDS), game.getDealer());
+
+        BasicStrategy strategy = new BasicStrategy(game, player);
+
+        assertTrue(strategy.whatNext() instanceof DoubleDown);
+    }
+
+    @Test
+    public void testSoftDoubleNotAllowedWhenDoubleOn91011Only() {
+        GameRules rules = new GameRules();
+        rules.setDoubleOn91011Only(true);
+        Game game = new Game(rules);
+        Player player = new Player();
+
+        game.deal(new Card(Rank.ACE, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.SEVEN, Suit.DIAMONDS), player);
+        game.deal(new Card(Rank.FIVE, Suit.DIAMONDS), game.getDealer());
+
+        BasicStrategy strategy = new BasicStrategy(game, player);
+
+        assertTrue(strategy.whatNext() instanceof Stand);
+    }
+
+    @Test
+    public void testBuildersShareTableForSameRules() {
+        GameRules rules = new GameRules();
+        Game game = new Game(rules);
+        BasicStrategy basic = (BasicStrategy) new BasicStrategyBuilder().create(
+                game, new Player());
+        BasicStrategy hiLo = (BasicStrategy) new HiLoStrategyBuilder().create(
+                game, new Player());
+        assertSame(basic.getStrategyTable(), hiLo.getStrategyTable());
+
+        GameRules otherRules = new GameRules();
+        otherRules.setMinimumBet(25);
+        BasicStrategy otherBet = (BasicStrategy) new BasicStrategyBuilder()
+                .create(new Game(otherRules), new Player());
+        assertSame(basic.getStrategyTable(), otherBet.getStrategyTable());
+
+        otherRules.setDoubleAfterSplit(false);
+        BasicStrategy noDas = (BasicStrategy) new BasicStrategyBuilder()
+                .create(new Game(otherRules), new Player());
+        assertNotSame(basic.getStrategyTable(), noDas.getStrategyTable());
+    }
+
 }
@@ -0,0 +1,100 @@
+package com._17od.blackjack.strategy;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Card;
+import com._17od.blackjack.Card.Rank;
+import com._17od.blackjack.Card.Suit;
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the CompositionStrategy class.
+ * 
+ * @author Adrian Smith
+ */
+public class CompositionStrategyTest {
+
+    @Test
+    public void testTracksCardsSeen() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        CompositionStrategy strategy = new CompositionStrategy(game, player);
+
+        game.deal(Card.valueOf(Rank.KING, Suit.CLUBS), player);
+        game.deal(Card.valueOf(Rank.ACE, Suit.CLUBS), player);
+        assertEquals(50, strategy.getShoe().getTotal());
+        assertEquals(15, strategy.getShoe().count(10));
+        assertEquals(3, strategy.getShoe().count(11));
+
+        game.shoeShuffled();
+        assertEquals(52, strategy.getShoe().getTotal());
+    }
+
+    @Test
+    public void testPlaysTheCardsLeft() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        CompositionStrategy strategy = new CompositionStrategy(game, player);
+        BasicStrategy basicStrategy = new BasicStrategy(game, player);
+
+        // Take most of the 10s out of the deck
+        Player otherPlayer = new Player();
+        for (Suit suit : Suit.values()) {
+            game.deal(Card.valueOf(Rank.JACK, suit), otherPlayer);
+            game.deal(Card.valueOf(Rank.QUEEN, suit), otherPlayer);
+            game.deal(Card.valueOf(Rank.KING, suit), otherPlayer);
+        }
+
+        game.deal(Card.valueOf(Rank.SEVEN, Suit.CLUBS), player);
+        game.deal(Card.valueOf(Rank.FIVE, Suit.CLUBS), player);
+        game.deal(Card.valueOf(Rank.FOUR, Suit.CLUBS), game.getDealer());
+
+        // Basic strategy stands on 12 against a 4 but with so few 10s left
+        // hitting is better
+        assertEquals(DecisionEnum.STAND, basicStrategy.nextDecision());
+        assertEquals(DecisionEnum.HIT, strategy.nextDecision());
+        assertEquals(DecisionEnum.HIT, strategy.nextDecision());
+    }
+
+    @Test
+    public void testSplitsEightsAgainstTen() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        CompositionStrategy strategy = new CompositionStrategy(game, player);
+
+        game.deal(Card.valueOf(Rank.EIGHT, Suit.CLUBS), player);
+        game.deal(Card.valueOf(Rank.EIGHT, Suit.HEARTS), player);
+        game.deal(Card.valueOf(Rank.TEN, Suit.CLUBS), game.getDealer());
+
+        assertEquals(DecisionEnum.SPLIT, strategy.nextDecision());
+    }
+
+    @Test
+    public void testSplitsWithoutResplits() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        CompositionStrategy strategy = new CompositionStrategy(game, player,
+                StrategyTableCache.get(game.getRules()),
+                CompositionStrategy.DEFAULT_CACHE_SIZE, 2);
+
+        game.deal(Card.valueOf(Rank.EIGHT, Suit.CLUBS), player);
+        game.deal(Card.valueOf(Rank.EIGHT, Suit.HEARTS), player);
+        game.deal(Card.valueOf(Rank.SIX, Suit.CLUBS), game.getDealer());
+
+        assertEquals(DecisionEnum.SPLIT, strategy.nextDecision());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testTooFewSplitHands() {
+        Game game = new Game(new GameRules());
+        new CompositionStrategy(game, new Player(),
+                StrategyTableCache.get(game.getRules()),
+                CompositionStrategy.DEFAULT_CACHE_SIZE, 1);
+    }
+
+}
@@ -119,4 +119,47 @@ public class HiLoStrategyTest {
                 strategy.getCardsLeft());
         assertEquals(gameRules.getMinimumBet() * 5, strategy.amountToBet());
     }
+
+    @Test
+    /**
+     * Check the running count starts again when the shoe is shuffled.
+     */
+    public void testShuffleResetsCount() {
+        GameRules gameRules = new GameRules();
+        gameRules.setNumberOfDecks(2);
+        Game game = new Game(gameRules);
+        Player player = new Player();
+        HiLoStrategy strategy = new HiLoStrategy(game, player);
+
+        game.deal(new Card(Rank.TWO, Suit.CLUBS), player);
+        game.deal(new Card(Rank.THREE, Suit.CLUBS), player);
+        assertEquals(2, strategy.getRunningCount());
+
+        game.shoeShuffled();
+
+        assertEquals(0, strategy.getRunningCount());
+        assertEquals(104, strategy.getCardsLeft());
+    }
+
+    @Test
+    /**
+     * Test a batch of cards is counted the same as dealing them one by one.
+     */
+    public void testRunningCountWithBatch() {
+        Game game = new Game(new GameRules());
+        Player player = new Player();
+        HiLoStrategy strategy = new HiLoStrategy(game, player);
+
+        Card[] cards = { Card.valueOf(Rank.TWO, Suit.CLUBS),
+                Card.valueOf(Rank.FIVE, Suit.HEARTS),
+                Card.valueOf(Rank.EIGHT, Suit.HEARTS),
+                Card.valueOf(Rank.ACE, Suit.SPADES),
+                Card.valueOf(Rank.SIX, Suit.DIAMONDS) };
+        game.deal(cards, player);
+
+        assertEquals(2, strategy.getRunningCount());
+        assertEquals(52 * game.getRules().getNumberOfDecks() - 5,
+                strategy.getCardsLeft());
+    }
+
 }
@@ -0,0 +1,106 @@
+package com._17od.blackjack.strategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com._17od.blackjack.Game;
+import com._17od.blackjack.GameRules;
+import com._17od.blackjack.Player;
+import com._17od.blackjack.strategy.Strategy.DecisionEnum;
+
+/**
+ * Unit tests for the StrategyChartGenerator class. The expected moves are
+ * taken from published basic strategy charts.
+ * 
+ * @author Adrian Smith
+ */
+public class StrategyChartGeneratorTest {
+
+    @Test
+    public void testSixDeckChart() {
+        GameRules rules = new GameRules();
+        rules.setNumberOfDecks(6);
+        rules.setSurrenderAllowed(true);
+        StrategyChart chart = new StrategyChartGenerator(rules).generate();
+
+        assertEquals(DecisionEnum.DOUBLE_OR_HIT, chart.getHardTotal(11, 6));
+        assertEquals(DecisionEnum.HIT, chart.getHardTotal(11, 11));
+        assertEquals(DecisionEnum.HIT, chart.getHardTotal(12, 3));
+        assertEquals(DecisionEnum.STAND, chart.getHardTotal(12, 4));
+        assertEquals(DecisionEnum.SURRENDER_OR_HIT, chart.getHardTotal(16, 10));
+        assertEquals(DecisionEnum.SURRENDER_OR_HIT, chart.getHardTotal(15, 10));
+        assertEquals(DecisionEnum.HIT, chart.getHardTotal(15, 11));
+        assertEquals(DecisionEnum.DOUBLE_OR_STAND, chart.getSoftTotal(18, 6));
+        assertEquals(DecisionEnum.HIT, chart.getSoftTotal(18, 9));
+        assertEquals(DecisionEnum.SPLIT, chart.getPair(8, 10));
+        assertEquals(DecisionEnum.STAND, chart.getPair(9, 7));
+        assertEquals(DecisionEnum.STAND, chart.getPair(10, 6));
+        assertEquals(DecisionEnum.SPLIT, chart.getPair(11, 11));
+    }
+
+    @Test
+    public void testRulesChangeTheChart() {
+        GameRules s17 = new GameRules();
+        s17.setNumberOfDecks(6);
+        StrategyChart s17Chart = new StrategyChartGenerator(s17).generate();
+
+        GameRules h17 = new GameRules();
+        h17.setNumberOfDecks(6);
+        h17.setDealerHitsSoft17(true);
+        StrategyChart h17Chart = new StrategyChartGenerator(h17).generate();
+
+        // Dealer hitting soft 17 makes doubling 11 against an ace worthwhile
+        assertEquals(DecisionEnum.HIT, s17Chart.getHardTotal(11, 11));
+        assertEquals(DecisionEnum.DOUBLE_OR_HIT, h17Chart.getHardTotal(11, 11));
+    }
+
+    @Test
+    public void testSurrenderIsResolvedByTheRules() {
+        DecisionEnum[][] hardTotals = new DecisionEnum[16][10];
+        DecisionEnum[][] softTotals = new DecisionEnum[8][10];
+        DecisionEnum[][] pairs = new DecisionEnum[10][10];
+        fill(hardTotals, DecisionEnum.SURRENDER_OR_HIT);
+        fill(softTotals, DecisionEnum.SURRENDER_OR_STAND);
+        fill(pairs, DecisionEnum.HIT);
+        StrategyChart chart = new StrategyChart(hardTotals, softTotals, pairs);
+
+        GameRules rules = new GameRules();
+        rules.setSurrenderAllowed(true);
+        StrategyTable table = StrategyTable.compile(chart, rules);
+        assertEquals(DecisionEnum.SURRENDER, table.lookup(StrategyTable.HARD,
+                16, 10, StrategyTable.FIRST_TWO_CARDS));
+        assertEquals(DecisionEnum.HIT, table.lookup(StrategyTable.HARD, 16, 10,
+                0));
+        assertEquals(DecisionEnum.STAND, table.lookup(StrategyTable.SOFT, 18,
+                10, StrategyTable.FIRST_TWO_CARDS | StrategyTable.AFTER_SPLIT));
+
+        rules.setSurrenderAllowed(false);
+        table = StrategyTable.compile(chart, rules);
+        assertEquals(DecisionEnum.HIT, table.lookup(StrategyTable.HARD, 16, 10,
+                StrategyTable.FIRST_TWO_CARDS));
+    }
+
+    @Test
+    public void testBuilderSharesGeneratedTable() {
+        GameRules rules = new GameRules();
+        BasicStrategyBuilder builder = new BasicStrategyBuilder(true);
+
+        BasicStrategy strategy1 = (BasicStrategy) builder.create(
+                new Game(rules), new Player());
+        BasicStrategy strategy2 = (BasicStrategy) builder.create(
+                new Game(rules), new Player());
+
+        assertSame(strategy1.getStrategyTable(), strategy2.getStrategyTable());
+    }
+
+    private static void fill(DecisionEnum[][] moves, DecisionEnum move) {
+        for (DecisionEnum[] row : moves) {
+            for (int i=0; i<row.length; i++) {
+                row[i] = move;
+            }
+        }
+    }
+
+}